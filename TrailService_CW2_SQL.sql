@@ -5,6 +5,12 @@
 -- Deploy to: localhost SQL Server
 -- =============================================
 
+-- Filtered indexes (db/migration) need these on every session that modifies their
+-- tables, and procedures keep the settings they were created with
+SET ANSI_NULLS ON;
+SET QUOTED_IDENTIFIER ON;
+GO
+
 -- Create Schema
 IF NOT EXISTS (SELECT * FROM sys.schemas WHERE name = 'CW2')
     EXEC('CREATE SCHEMA CW2');
@@ -22,6 +28,9 @@ GO
 IF OBJECT_ID('CW2.trg_PreventUnauthorizedDelete', 'TR') IS NOT NULL
     DROP TRIGGER CW2.trg_PreventUnauthorizedDelete;
 GO
+IF OBJECT_ID('CW2.trg_MaintainTrailRating', 'TR') IS NOT NULL
+    DROP TRIGGER CW2.trg_MaintainTrailRating;
+GO
 IF OBJECT_ID('CW2.vw_TrailDetails', 'V') IS NOT NULL
     DROP VIEW CW2.vw_TrailDetails;
 GO
@@ -61,6 +70,9 @@ GO
 IF OBJECT_ID('CW2.TrailTransport', 'U') IS NOT NULL
     DROP TABLE CW2.TrailTransport;
 GO
+IF OBJECT_ID('CW2.TrailRatingSummary', 'U') IS NOT NULL
+    DROP TABLE CW2.TrailRatingSummary;
+GO
 IF OBJECT_ID('CW2.Review', 'U') IS NOT NULL
     DROP TABLE CW2.Review;
 GO
@@ -85,6 +97,10 @@ GO
 IF OBJECT_ID('CW2.User', 'U') IS NOT NULL
     DROP TABLE CW2.[User];
 GO
+-- Migration history: a clean deployment is baselined again and re-migrated at startup
+IF OBJECT_ID('CW2.flyway_schema_history', 'U') IS NOT NULL
+    DROP TABLE CW2.flyway_schema_history;
+GO
 
 -- =============================================
 -- CORE TABLES WITH ENHANCED SECURITY
@@ -148,6 +164,7 @@ CREATE TABLE CW2.Trail (
     LastModifiedBy INT NULL,  -- Tracks who last modified
     IsPublic BIT NOT NULL DEFAULT 1,  -- Privacy: controls visibility
     IsDeleted BIT NOT NULL DEFAULT 0,  -- Soft delete for preservation
+    RowVer ROWVERSION NOT NULL,  -- Change sequence for delta sync (/api/trails/changes)
     CONSTRAINT FK_Trail_User 
         FOREIGN KEY (UserID) REFERENCES CW2.[User](UserID),
     CONSTRAINT FK_Trail_LastModifiedBy 
@@ -155,6 +172,11 @@ CREATE TABLE CW2.Trail (
 );
 GO
 
+-- Index: delta sync reads trails changed after a given RowVer
+CREATE NONCLUSTERED INDEX IX_Trail_RowVer
+    ON CW2.Trail (RowVer) INCLUDE (IsPublic, IsDeleted);
+GO
+
 -- Table: TrailRoute (Enhanced with full ERD schema)
 CREATE TABLE CW2.TrailRoute (
     TrailID INT NOT NULL,
@@ -233,6 +255,19 @@ CREATE TABLE CW2.Review (
 );
 GO
 
+-- Table: TrailRatingSummary (running rating totals per trail)
+-- Performance: maintained by trg_MaintainTrailRating so reads never re-aggregate Review
+-- Integrity: only approved reviews are counted
+CREATE TABLE CW2.TrailRatingSummary (
+    TrailID INT NOT NULL PRIMARY KEY,
+    RatingSum INT NOT NULL DEFAULT 0,
+    ReviewCount INT NOT NULL DEFAULT 0,
+    LastUpdated DATETIME NOT NULL DEFAULT GETDATE(),
+    CONSTRAINT FK_TrailRatingSummary_Trail 
+        FOREIGN KEY (TrailID) REFERENCES CW2.Trail(TrailID)
+);
+GO
+
 -- Table: Photo
 -- Security: Tracks uploader, can be moderated
 CREATE TABLE CW2.Photo (
@@ -428,6 +463,7 @@ WHERE t.IsPublic = 1 AND t.IsDeleted = 0;  -- Privacy & preservation controls
 GO
 
 -- View: Trail Details (Enhanced)
+-- Ratings come from CW2.TrailRatingSummary instead of a GROUP BY over CW2.Review
 CREATE VIEW CW2.vw_TrailDetails AS
 SELECT 
     t.TrailID,
@@ -447,21 +483,15 @@ SELECT
     fl.Postcode AS FinishPostcode,
     t.CreatedDate,
     t.LastModifiedDate,
-    AVG(CAST(r.Rating AS FLOAT)) AS AverageRating,
-    COUNT(DISTINCT r.ReviewID) AS ReviewCount
+    CAST(rs.RatingSum AS FLOAT) / NULLIF(rs.ReviewCount, 0) AS AverageRating,
+    ISNULL(rs.ReviewCount, 0) AS ReviewCount
 FROM CW2.Trail t
 INNER JOIN CW2.[User] u ON t.UserID = u.UserID
 INNER JOIN CW2.TrailRoute tr ON t.TrailID = tr.TrailID
 INNER JOIN CW2.Location sl ON tr.StartLocationID = sl.LocationID
 LEFT JOIN CW2.Location fl ON tr.FinishLocationID = fl.LocationID
-LEFT JOIN CW2.Review r ON t.TrailID = r.TrailID AND r.IsApproved = 1
-WHERE t.IsDeleted = 0  -- Excludes soft-deleted trails
-GROUP BY 
-    t.TrailID, t.TrailName, t.Summary, t.TrailDescription,
-    t.Length_Miles, t.Length_Km, t.Difficulty, t.AccessibilityNotes,
-    t.RouteType, t.NearestTown, u.Username,
-    sl.LocationName, sl.Postcode, fl.LocationName, fl.Postcode,
-    t.CreatedDate, t.LastModifiedDate;
+LEFT JOIN CW2.TrailRatingSummary rs ON t.TrailID = rs.TrailID
+WHERE t.IsDeleted = 0;  -- Excludes soft-deleted trails
 GO
 
 -- =============================================
@@ -538,6 +568,11 @@ END;
 GO
 
 -- UPDATE - Modify Existing Trail (with authorization)
+-- Ownership is checked by the UPDATE predicate itself (one statement, no pre-read).
+-- Returns Result: 0 = updated, 1 = not the owner, 2 = trail not found.
+-- On success the previous values are returned with CreatedDate, the rating totals
+-- and the first located start point, which the application indexes without a re-read
+-- (same body as db/migration/sqlserver/V3__update_trail_after_image.sql)
 CREATE PROCEDURE CW2.sp_UpdateTrail
     @TrailID INT,
     @UserID INT,  -- For authorization
@@ -549,18 +584,26 @@ CREATE PROCEDURE CW2.sp_UpdateTrail
     @Difficulty NVARCHAR(50) = NULL,
     @AccessibilityNotes NVARCHAR(500) = NULL,
     @RouteType NVARCHAR(50) = NULL,
-    @NearestTown NVARCHAR(100) = NULL
+    @NearestTown NVARCHAR(100) = NULL,
+    @StartPostcode NVARCHAR(20) = NULL,
+    @FinishLocation NVARCHAR(200) = NULL,
+    @FinishPostcode NVARCHAR(20) = NULL,
+    @IsPublic BIT = 1
 AS
 BEGIN
     SET NOCOUNT ON;
     
-    -- Security: Check if user owns the trail
-    IF NOT EXISTS (SELECT 1 FROM CW2.Trail WHERE TrailID = @TrailID AND UserID = @UserID)
-    BEGIN
-        RAISERROR('Unauthorized: You can only update your own trails', 16, 1);
-        RETURN;
-    END
+    -- Previous values, returned so the application can audit every changed field
+    -- (OUTPUT INTO is required because CW2.Trail has triggers)
+    DECLARE @Before TABLE (
+        TrailName NVARCHAR(200), Summary NVARCHAR(1000), TrailDescription NVARCHAR(MAX),
+        Length_Miles DECIMAL(5,2), Length_Km DECIMAL(5,2), Difficulty NVARCHAR(50),
+        AccessibilityNotes NVARCHAR(500), RouteType NVARCHAR(50), NearestTown NVARCHAR(100),
+        StartPostcode NVARCHAR(20), FinishLocation NVARCHAR(200), FinishPostcode NVARCHAR(20),
+        IsPublic BIT, CreatedDate DATETIME
+    );
     
+    -- Security: only the owner's row can match
     UPDATE CW2.Trail SET
         TrailName = @TrailName,
         Summary = @Summary,
@@ -571,13 +614,37 @@ BEGIN
         AccessibilityNotes = @AccessibilityNotes,
         RouteType = @RouteType,
         NearestTown = @NearestTown,
+        StartPostcode = @StartPostcode,
+        FinishLocation = @FinishLocation,
+        FinishPostcode = @FinishPostcode,
+        IsPublic = @IsPublic,
         LastModifiedDate = GETDATE(),
         LastModifiedBy = @UserID
-    WHERE TrailID = @TrailID;
+    OUTPUT deleted.TrailName, deleted.Summary, deleted.TrailDescription,
+        deleted.Length_Miles, deleted.Length_Km, deleted.Difficulty,
+        deleted.AccessibilityNotes, deleted.RouteType, deleted.NearestTown,
+        deleted.StartPostcode, deleted.FinishLocation, deleted.FinishPostcode,
+        deleted.IsPublic, deleted.CreatedDate
+    INTO @Before
+    WHERE TrailID = @TrailID AND UserID = @UserID AND IsDeleted = 0;
+    
+    IF @@ROWCOUNT > 0
+        SELECT 0 AS Result, b.*, rs.RatingSum, rs.ReviewCount, loc.Latitude, loc.Longitude
+        FROM @Before b
+        LEFT JOIN CW2.TrailRatingSummary rs ON rs.TrailID = @TrailID
+        OUTER APPLY (SELECT TOP 1 l.Latitude, l.Longitude FROM CW2.TrailRoute tr
+                     INNER JOIN CW2.Location l ON tr.StartLocationID = l.LocationID
+                     WHERE tr.TrailID = @TrailID AND l.Latitude IS NOT NULL AND l.Longitude IS NOT NULL
+                     ORDER BY tr.CreatedDate, tr.StartLocationID) loc;
+    ELSE IF EXISTS (SELECT 1 FROM CW2.Trail WHERE TrailID = @TrailID AND IsDeleted = 0)
+        SELECT 1 AS Result;
+    ELSE
+        SELECT 2 AS Result;
 END;
 GO
 
 -- DELETE - Soft Delete Trail (Preservation)
+-- Same result codes as sp_UpdateTrail
 CREATE PROCEDURE CW2.sp_DeleteTrail
     @TrailID INT,
     @UserID INT  -- For authorization
@@ -585,25 +652,21 @@ AS
 BEGIN
     SET NOCOUNT ON;
     
-    -- Security: Check if user owns the trail
-    IF NOT EXISTS (SELECT 1 FROM CW2.Trail WHERE TrailID = @TrailID AND UserID = @UserID)
-    BEGIN
-        RAISERROR('Unauthorized: You can only delete your own trails', 16, 1);
-        RETURN;
-    END
-    
-    -- Soft delete for preservation
+    -- Soft delete for preservation; security: only the owner's row can match
     UPDATE CW2.Trail 
     SET IsDeleted = 1,
         LastModifiedDate = GETDATE(),
         LastModifiedBy = @UserID
-    WHERE TrailID = @TrailID;
+    WHERE TrailID = @TrailID AND UserID = @UserID AND IsDeleted = 0;
     
-    -- Log the deletion
-    INSERT INTO CW2.AuditLog (TableName, RecordID, Action, ChangedBy, ChangedDate)
-    VALUES ('Trail', @TrailID, 'SOFT_DELETE', 
-            (SELECT Username FROM CW2.[User] WHERE UserID = @UserID), 
-            GETDATE());
+    -- The deletion is written to CW2.AuditLog by the application's audit writer,
+    -- outside this transaction
+    IF @@ROWCOUNT > 0
+        SELECT 0 AS Result;
+    ELSE IF EXISTS (SELECT 1 FROM CW2.Trail WHERE TrailID = @TrailID AND IsDeleted = 0)
+        SELECT 1 AS Result;
+    ELSE
+        SELECT 2 AS Result;
 END;
 GO
 
@@ -631,67 +694,63 @@ GO
 -- TRIGGERS (Security & Auditing)
 -- =============================================
 
--- Trigger: Log New Trail Creation
-CREATE TRIGGER CW2.trg_LogNewTrail
+-- Trail creation (CW2.TrailLog) and field changes / soft deletes (CW2.AuditLog) are
+-- recorded by the application's batched audit writer instead of per-row triggers,
+-- so audit inserts no longer extend the lock time of writes to CW2.Trail.
+
+-- Trigger: Prevent Unauthorized Hard Deletes
+CREATE TRIGGER CW2.trg_PreventUnauthorizedDelete
 ON CW2.Trail
-AFTER INSERT
+INSTEAD OF DELETE
 AS
 BEGIN
     SET NOCOUNT ON;
     
-    INSERT INTO CW2.TrailLog (TrailID, TrailName, Action, ActionBy, ActionDate)
-    SELECT 
-        i.TrailID,
-        i.TrailName,
-        'INSERT',
-        u.Username,
-        GETDATE()
-    FROM inserted i
-    INNER JOIN CW2.[User] u ON i.UserID = u.UserID;
+    -- Prevent hard deletes, enforce soft delete
+    RAISERROR('Hard deletes are not allowed. Use sp_DeleteTrail for soft delete.', 16, 1);
+    ROLLBACK TRANSACTION;
 END;
 GO
 
--- Trigger: Comprehensive Audit Trail
-CREATE TRIGGER CW2.trg_AuditTrailChanges
-ON CW2.Trail
-AFTER UPDATE
+-- Trigger: Maintain Trail Rating Summary
+-- Applies the net change of approved ratings per trail for any insert, update
+-- (including approval and moderation) or delete on CW2.Review
+CREATE TRIGGER CW2.trg_MaintainTrailRating
+ON CW2.Review
+AFTER INSERT, UPDATE, DELETE
 AS
 BEGIN
     SET NOCOUNT ON;
     
-    -- Log each field change
-    INSERT INTO CW2.AuditLog (TableName, RecordID, Action, FieldChanged, 
-                               OldValue, NewValue, ChangedBy, ChangedDate)
-    SELECT 
-        'Trail',
-        i.TrailID,
-        'UPDATE',
-        'TrailName',
-        d.TrailName,
-        i.TrailName,
-        u.Username,
-        GETDATE()
-    FROM inserted i
-    INNER JOIN deleted d ON i.TrailID = d.TrailID
-    INNER JOIN CW2.[User] u ON i.LastModifiedBy = u.UserID
-    WHERE i.TrailName <> d.TrailName;
-    
-    -- Additional fields can be logged similarly
+    WITH Changes AS (
+        SELECT TrailID, Rating, 1 AS Reviews FROM inserted WHERE IsApproved = 1
+        UNION ALL
+        SELECT TrailID, -Rating, -1 FROM deleted WHERE IsApproved = 1
+    ),
+    NetChanges AS (
+        SELECT TrailID, SUM(Rating) AS RatingDelta, SUM(Reviews) AS CountDelta
+        FROM Changes
+        GROUP BY TrailID
+        HAVING SUM(Rating) <> 0 OR SUM(Reviews) <> 0
+    )
+    MERGE CW2.TrailRatingSummary WITH (HOLDLOCK) AS s
+    USING NetChanges AS n ON s.TrailID = n.TrailID
+    WHEN MATCHED THEN
+        UPDATE SET RatingSum = s.RatingSum + n.RatingDelta,
+                   ReviewCount = s.ReviewCount + n.CountDelta,
+                   LastUpdated = GETDATE()
+    WHEN NOT MATCHED THEN
+        INSERT (TrailID, RatingSum, ReviewCount)
+        VALUES (n.TrailID, n.RatingDelta, n.CountDelta);
 END;
 GO
 
--- Trigger: Prevent Unauthorized Hard Deletes
-CREATE TRIGGER CW2.trg_PreventUnauthorizedDelete
-ON CW2.Trail
-INSTEAD OF DELETE
-AS
-BEGIN
-    SET NOCOUNT ON;
-    
-    -- Prevent hard deletes, enforce soft delete
-    RAISERROR('Hard deletes are not allowed. Use sp_DeleteTrail for soft delete.', 16, 1);
-    ROLLBACK TRANSACTION;
-END;
+-- Backfill rating summary from reviews inserted before the trigger existed
+INSERT INTO CW2.TrailRatingSummary (TrailID, RatingSum, ReviewCount)
+SELECT TrailID, SUM(Rating), COUNT(*)
+FROM CW2.Review
+WHERE IsApproved = 1
+GROUP BY TrailID;
 GO
 
 -- =============================================
@@ -723,6 +782,10 @@ PRINT '=== CW2.Review ==='
 SELECT * FROM CW2.Review;
 GO
 
+PRINT '=== CW2.TrailRatingSummary ===' 
+SELECT * FROM CW2.TrailRatingSummary;
+GO
+
 PRINT '=== CW2.TrailLog ===' 
 SELECT * FROM CW2.TrailLog;
 GO
@@ -753,8 +816,38 @@ EXEC CW2.sp_SearchTrails
     @MaxLength = 5.0;
 GO
 
+PRINT '=== Testing sp_UpdateTrail result codes ==='
+EXEC CW2.sp_UpdateTrail    -- Result = 1: trail 1 belongs to user 1
+    @TrailID = 1,
+    @UserID = 2,
+    @TrailName = 'Not My Trail';
+EXEC CW2.sp_UpdateTrail    -- Result = 2: no such trail
+    @TrailID = 999999,
+    @UserID = 1,
+    @TrailName = 'Missing Trail';
+EXEC CW2.sp_UpdateTrail    -- Result = 0 with the previous values, CreatedDate, rating totals and start point
+    @TrailID = 1,
+    @UserID = 1,
+    @TrailName = 'Plymouth Waterfront Walkway',
+    @Summary = 'Gentle coastal walk along Plymouth''s historic waterfront',
+    @TrailDescription = 'A scenic walk taking in naval history, the Hoe, and stunning coastal views. The route passes historic sites including the Royal Citadel, Smeaton''s Tower, and offers panoramic views of Plymouth Sound.',
+    @Length_Miles = 9.3,
+    @Length_Km = 14.9,
+    @Difficulty = 'Moderate',
+    @AccessibilityNotes = 'Mostly flat, some steps near Hoe',
+    @RouteType = 'Linear',
+    @NearestTown = 'Plymouth',
+    @IsPublic = 1;
+GO
+
 PRINT '=== Testing Soft Delete ==='
-EXEC CW2.sp_DeleteTrail 
+EXEC CW2.sp_DeleteTrail    -- Result = 1: trail 4 belongs to user 3
+    @TrailID = 4,
+    @UserID = 1;
+EXEC CW2.sp_DeleteTrail    -- Result = 0
+    @TrailID = 4,
+    @UserID = 3;
+EXEC CW2.sp_DeleteTrail    -- Result = 2: already deleted
     @TrailID = 4,
     @UserID = 3;
 GO
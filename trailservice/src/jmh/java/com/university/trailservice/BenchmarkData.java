@@ -0,0 +1,85 @@
+package com.university.trailservice;
+
+import com.university.trailservice.model.Trail;
+import com.university.trailservice.repository.TrailPopularity;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic trail data for benchmarks
+ * Seeded so every run sees exactly the same input
+ */
+public final class BenchmarkData {
+
+    public static final String[] DIFFICULTIES = {"Easy", "Moderate", "Hard", "Challenging"};
+    public static final String[] ROUTE_TYPES = {"Circular", "Linear", "Out and Back"};
+    public static final String[] TOWNS = {"Plymouth", "Shaugh Prior", "Princetown", "Tavistock", "Ivybridge"};
+    private static final String[] WORDS = {"moor", "river", "wood", "coast", "tor", "valley",
+        "bridge", "harbour", "ridge", "meadow", "quarry", "viaduct", "cliff", "estuary"};
+
+    private BenchmarkData() {}
+
+    public static List<Trail> trails(int count) {
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        List<Trail> trails = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Trail trail = new Trail();
+            trail.setTrailId(i + 1);
+            trail.setUserId(1 + random.nextInt(50));
+            trail.setTrailName(capitalise(word(random)) + " " + capitalise(word(random)) + " Walk " + i);
+            trail.setSummary("A walk past the " + word(random) + " and the " + word(random));
+            trail.setTrailDescription(sentence(random, 40));
+            trail.setLengthMiles(BigDecimal.valueOf(10 + random.nextInt(1500), 2));
+            trail.setLengthKm(trail.getLengthMiles().multiply(BigDecimal.valueOf(1.61)).setScale(2, java.math.RoundingMode.HALF_UP));
+            trail.setDifficulty(DIFFICULTIES[random.nextInt(DIFFICULTIES.length)]);
+            trail.setAccessibilityNotes("Some uneven paths");
+            trail.setRouteType(ROUTE_TYPES[random.nextInt(ROUTE_TYPES.length)]);
+            trail.setNearestTown(TOWNS[random.nextInt(TOWNS.length)]);
+            trail.setStartPostcode("PL" + random.nextInt(10) + " " + random.nextInt(10) + "AB");
+            trail.setFinishLocation(capitalise(word(random)) + " Car Park");
+            trail.setFinishPostcode("PL" + random.nextInt(10) + " " + random.nextInt(10) + "CD");
+            trail.setCreatedDate(start.plusMinutes(i));
+            trail.setLastModifiedDate(start.plusMinutes(i).plusDays(1));
+            trail.setLastModifiedBy(trail.getUserId());
+            trail.setIsPublic(true);
+            trail.setIsDeleted(false);
+            trails.add(trail);
+        }
+        return trails;
+    }
+
+    /**
+     * Name, town and rating totals only, for indexes that need nothing else
+     */
+    public static List<TrailPopularity> popularity(int count) {
+        Random random = new Random(42);
+        List<TrailPopularity> trails = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int reviews = random.nextInt(20);
+            trails.add(new TrailPopularity(i + 1,
+                capitalise(word(random)) + " " + capitalise(word(random)) + " Walk " + i,
+                TOWNS[random.nextInt(TOWNS.length)], reviews * (1 + random.nextInt(5)), reviews));
+        }
+        return trails;
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            text.append(i == 0 ? "" : " ").append(word(random));
+        }
+        return text.append('.').toString();
+    }
+
+    private static String capitalise(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
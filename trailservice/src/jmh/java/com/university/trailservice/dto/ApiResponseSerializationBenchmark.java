@@ -0,0 +1,64 @@
+package com.university.trailservice.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.university.trailservice.BenchmarkData;
+import com.university.trailservice.model.Trail;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks for Jackson serialisation of the trail list response
+ * The mapper is configured like Spring Boot's (ISO dates, JSR-310 module)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int trails;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<List<Trail>> response;
+
+    @Setup
+    public void setup() {
+        objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        response = ApiResponse.success("Trails retrieved successfully", BenchmarkData.trails(trails));
+    }
+
+    @Benchmark
+    public long serialise() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        objectMapper.writeValue(out, response);
+        return out.count;
+    }
+
+    /**
+     * Discards bytes so only encoding cost is measured
+     */
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
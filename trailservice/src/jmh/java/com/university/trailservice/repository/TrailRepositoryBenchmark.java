@@ -0,0 +1,193 @@
+package com.university.trailservice.repository;
+
+import com.university.trailservice.BenchmarkData;
+import com.university.trailservice.dto.TrailField;
+import com.university.trailservice.dto.TrailFields;
+import com.university.trailservice.model.Trail;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for JdbcTrailRepository row mapping and search SQL assembly
+ * Row mappers run over an in-memory CachedRowSet with the CW2.Trail / vw_PublicTrails columns,
+ * or with the columns of a typical list fieldset (?fields=trailName,difficulty,lengthKm)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TrailRepositoryBenchmark {
+
+    private static final int ROWS = 1000;
+
+    private static final String[] TRAIL_COLUMNS = {"TrailID", "UserID", "TrailName", "Summary",
+        "TrailDescription", "Length_Miles", "Length_Km", "Difficulty", "AccessibilityNotes",
+        "RouteType", "NearestTown", "StartPostcode", "FinishLocation", "FinishPostcode",
+        "CreatedDate", "LastModifiedDate", "LastModifiedBy", "IsPublic", "IsDeleted"};
+    private static final int[] TRAIL_TYPES = {Types.INTEGER, Types.INTEGER, Types.NVARCHAR, Types.NVARCHAR,
+        Types.NVARCHAR, Types.DECIMAL, Types.DECIMAL, Types.NVARCHAR, Types.NVARCHAR,
+        Types.NVARCHAR, Types.NVARCHAR, Types.NVARCHAR, Types.NVARCHAR, Types.NVARCHAR,
+        Types.TIMESTAMP, Types.TIMESTAMP, Types.INTEGER, Types.BIT, Types.BIT};
+
+    private static final String[] PUBLIC_COLUMNS = {"TrailID", "TrailName", "Summary", "Length_Miles",
+        "Length_Km", "Difficulty", "RouteType", "NearestTown", "CreatedBy", "CreatedDate"};
+    private static final int[] PUBLIC_TYPES = {Types.INTEGER, Types.NVARCHAR, Types.NVARCHAR, Types.DECIMAL,
+        Types.DECIMAL, Types.NVARCHAR, Types.NVARCHAR, Types.NVARCHAR, Types.NVARCHAR, Types.TIMESTAMP};
+
+    private static final TrailFields LIST_FIELDS = TrailFields.parseListed("trailName,difficulty,lengthKm");
+
+    private JdbcTrailRepository repository;
+    private CachedRowSet trailRows;
+    private CachedRowSet publicRows;
+    private CachedRowSet projectedRows;
+    private JdbcTrailRepository.Projection projection;
+
+    /**
+     * Search criteria as "term|difficulty"
+     */
+    @State(Scope.Benchmark)
+    public static class SearchCriteria {
+        @Param({"", "moor", "moor|Easy"})
+        public String criteria;
+
+        private String searchTerm;
+        private String difficulty;
+
+        @Setup
+        public void setup() {
+            String[] parts = criteria.split("\\|", -1);
+            searchTerm = parts[0];
+            difficulty = parts.length > 1 ? parts[1] : null;
+        }
+    }
+
+    @Setup
+    public void setup() throws SQLException {
+        repository = new SqlServerTrailRepository();
+        List<Trail> trails = BenchmarkData.trails(ROWS);
+        trailRows = rowSet(TRAIL_COLUMNS, TRAIL_TYPES, trails, false);
+        publicRows = rowSet(PUBLIC_COLUMNS, PUBLIC_TYPES, trails, true);
+        projection = repository.projection(LIST_FIELDS);
+        projectedRows = projectedRowSet(projection.columns().split(", "), trails);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void trailRowMapper(Blackhole blackhole) throws SQLException {
+        trailRows.beforeFirst();
+        int row = 0;
+        while (trailRows.next()) {
+            blackhole.consume(repository.trailRowMapper.mapRow(trailRows, row++));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void publicTrailRowMapper(Blackhole blackhole) throws SQLException {
+        publicRows.beforeFirst();
+        int row = 0;
+        while (publicRows.next()) {
+            blackhole.consume(repository.publicTrailRowMapper.mapRow(publicRows, row++));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void projectedRowMapper(Blackhole blackhole) throws SQLException {
+        projectedRows.beforeFirst();
+        int row = 0;
+        while (projectedRows.next()) {
+            blackhole.consume(projection.rowMapper().mapRow(projectedRows, row++));
+        }
+    }
+
+    @Benchmark
+    public String buildSearchSql(SearchCriteria search) {
+        return JdbcTrailRepository.buildSearchSql(search.searchTerm, search.difficulty);
+    }
+
+    private static CachedRowSet projectedRowSet(String[] columns, List<Trail> trails) throws SQLException {
+        TrailField[] fields = new TrailField[columns.length];
+        int[] types = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            for (TrailField field : TrailField.values()) {
+                if (field.column().equals(columns[i])) {
+                    fields[i] = field;
+                }
+            }
+            types[i] = TRAIL_TYPES[List.of(TRAIL_COLUMNS).indexOf(columns[i])];
+        }
+
+        CachedRowSet rowSet = emptyRowSet(columns, types);
+        for (Trail trail : trails) {
+            rowSet.moveToInsertRow();
+            for (int i = 0; i < columns.length; i++) {
+                Object value = fields[i].valueOf(trail);
+                rowSet.updateObject(i + 1, value instanceof LocalDateTime date ? Timestamp.valueOf(date) : value);
+            }
+            rowSet.insertRow();
+        }
+        rowSet.moveToCurrentRow();
+        return rowSet;
+    }
+
+    private static CachedRowSet emptyRowSet(String[] columns, int[] types) throws SQLException {
+        CachedRowSet rowSet = RowSetProvider.newFactory().createCachedRowSet();
+        RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(columns.length);
+        for (int i = 0; i < columns.length; i++) {
+            metaData.setColumnName(i + 1, columns[i]);
+            metaData.setColumnLabel(i + 1, columns[i]);
+            metaData.setColumnType(i + 1, types[i]);
+            metaData.setNullable(i + 1, RowSetMetaDataImpl.columnNullable);
+        }
+        rowSet.setMetaData(metaData);
+        return rowSet;
+    }
+
+    private static CachedRowSet rowSet(String[] columns, int[] types, List<Trail> trails,
+                                       boolean publicView) throws SQLException {
+        CachedRowSet rowSet = emptyRowSet(columns, types);
+
+        for (Trail trail : trails) {
+            rowSet.moveToInsertRow();
+            rowSet.updateInt("TrailID", trail.getTrailId());
+            rowSet.updateString("TrailName", trail.getTrailName());
+            rowSet.updateString("Summary", trail.getSummary());
+            rowSet.updateBigDecimal("Length_Miles", trail.getLengthMiles());
+            rowSet.updateBigDecimal("Length_Km", trail.getLengthKm());
+            rowSet.updateString("Difficulty", trail.getDifficulty());
+            rowSet.updateString("RouteType", trail.getRouteType());
+            rowSet.updateString("NearestTown", trail.getNearestTown());
+            rowSet.updateTimestamp("CreatedDate", Timestamp.valueOf(trail.getCreatedDate()));
+            if (publicView) {
+                rowSet.updateString("CreatedBy", "user" + trail.getUserId());
+            } else {
+                rowSet.updateInt("UserID", trail.getUserId());
+                rowSet.updateString("TrailDescription", trail.getTrailDescription());
+                rowSet.updateString("AccessibilityNotes", trail.getAccessibilityNotes());
+                rowSet.updateString("StartPostcode", trail.getStartPostcode());
+                rowSet.updateString("FinishLocation", trail.getFinishLocation());
+                rowSet.updateString("FinishPostcode", trail.getFinishPostcode());
+                rowSet.updateTimestamp("LastModifiedDate", Timestamp.valueOf(trail.getLastModifiedDate()));
+                rowSet.updateInt("LastModifiedBy", trail.getLastModifiedBy());
+                rowSet.updateBoolean("IsPublic", trail.getIsPublic());
+                rowSet.updateBoolean("IsDeleted", trail.getIsDeleted());
+            }
+            rowSet.insertRow();
+        }
+        rowSet.moveToCurrentRow();
+        return rowSet;
+    }
+}
@@ -0,0 +1,74 @@
+package com.university.trailservice.security;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Benchmarks for JWT generation and validation
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET =
+        "TrailServiceSecureJwtSigningKeyForHS512Algorithm2025MinimumSixtyFourCharactersRequired!!";
+
+    private JwtTokenProvider tokenProvider;
+    private String token;
+
+    @Setup
+    public void setup() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpiration", 86400000L);
+        tokenProvider.init();
+        token = tokenProvider.generateToken(42, "john_hiker");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenProvider.generateToken(42, "john_hiker");
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    /**
+     * Per-request filter work for a token seen before (verified-token cache hit)
+     */
+    @Benchmark
+    public Optional<UserPrincipal> authenticateCached() {
+        return tokenProvider.authenticate(token);
+    }
+
+    /**
+     * Per-request filter work for a token not seen before (single parse)
+     */
+    @Benchmark
+    public Optional<UserPrincipal> authenticateUncached(FreshToken fresh) {
+        return tokenProvider.authenticate(fresh.token);
+    }
+
+    /**
+     * A newly issued token for every invocation, so the cache never hits
+     */
+    @State(Scope.Thread)
+    public static class FreshToken {
+        private String token;
+
+        @Setup(Level.Invocation)
+        public void issue(JwtTokenProviderBenchmark benchmark) {
+            token = benchmark.tokenProvider.generateToken(
+                ThreadLocalRandom.current().nextInt(1, Integer.MAX_VALUE), "john_hiker");
+        }
+    }
+}
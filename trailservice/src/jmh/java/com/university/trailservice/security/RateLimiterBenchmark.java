@@ -0,0 +1,56 @@
+package com.university.trailservice.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Benchmarks for the per-client token buckets
+ * oneClient: four threads sharing a bucket (CAS contention); manyClients: 10k distinct buckets
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    private static final int CLIENTS = 10_000;
+
+    private RateLimiter rateLimiter;
+    private String[] clients;
+
+    @Setup
+    public void setup() {
+        rateLimiter = new RateLimiter();
+        ReflectionTestUtils.setField(rateLimiter, "authCapacity", 10);
+        ReflectionTestUtils.setField(rateLimiter, "authRefillPerSecond", 0.2);
+        ReflectionTestUtils.setField(rateLimiter, "readCapacity", 100);
+        ReflectionTestUtils.setField(rateLimiter, "readRefillPerSecond", 50.0);
+        ReflectionTestUtils.setField(rateLimiter, "writeCapacity", 20);
+        ReflectionTestUtils.setField(rateLimiter, "writeRefillPerSecond", 2.0);
+        ReflectionTestUtils.setField(rateLimiter, "maxKeys", 100_000L);
+        ReflectionTestUtils.setField(rateLimiter, "idleExpirySeconds", 600L);
+        ReflectionTestUtils.setField(rateLimiter, "meterRegistry", new SimpleMeterRegistry());
+        rateLimiter.init();
+        clients = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = "ip:10.0." + (i >> 8) + "." + (i & 0xFF);
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long oneClient() {
+        return rateLimiter.tryAcquire(RateLimiter.Route.READ, "user:42");
+    }
+
+    @Benchmark
+    public long manyClients() {
+        return rateLimiter.tryAcquire(RateLimiter.Route.READ,
+            clients[ThreadLocalRandom.current().nextInt(CLIENTS)]);
+    }
+}
@@ -0,0 +1,48 @@
+package com.university.trailservice.service;
+
+import com.university.trailservice.BenchmarkData;
+import com.university.trailservice.dto.FacetedTrails;
+import com.university.trailservice.dto.TrailFacetQuery;
+import com.university.trailservice.model.Trail;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks for faceted search over the columnar facet index
+ * unfiltered: every facet over the whole catalogue; filtered: three filters plus facets
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TrailFacetIndexBenchmark {
+
+    @Param({"1000", "100000"})
+    public int trails;
+
+    private TrailFacetIndex index;
+    private TrailFacetQuery unfiltered;
+    private TrailFacetQuery filtered;
+
+    @Setup
+    public void setup() {
+        index = new TrailFacetIndex();
+        index.rebuild(BenchmarkData.trails(trails));
+        unfiltered = new TrailFacetQuery(null, null, null, null, null, null, null, null, null);
+        filtered = new TrailFacetQuery(null, List.of("Easy", "Moderate"), List.of("Circular"), null,
+            5.0, 15.0, null, null, true);
+    }
+
+    @Benchmark
+    public FacetedTrails<Trail> unfiltered() {
+        return index.search(unfiltered, null, 50);
+    }
+
+    @Benchmark
+    public FacetedTrails<Trail> filtered() {
+        return index.search(filtered, null, 50);
+    }
+}
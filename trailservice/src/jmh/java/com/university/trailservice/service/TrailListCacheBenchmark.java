@@ -0,0 +1,67 @@
+package com.university.trailservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.university.trailservice.BenchmarkData;
+import com.university.trailservice.dto.ApiResponse;
+import com.university.trailservice.model.Trail;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks for the serialised trail list cache
+ * hit: an unchanged collection; rebuild: serialise and gzip a page after a change
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TrailListCacheBenchmark {
+
+    @Param({"50", "500"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private TrailListCache cache;
+    private List<Trail> page;
+    private TrailListCache.Key key;
+    private long changeSequence;
+
+    @Setup
+    public void setup() {
+        objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        cache = new TrailListCache(32 * 1024 * 1024, 600, new SimpleMeterRegistry());
+        page = BenchmarkData.trails(pageSize);
+        key = new TrailListCache.Key(null, pageSize, null);
+        cache.get(key, changeSequence, this::serialise);
+    }
+
+    @Benchmark
+    public int hit() {
+        return cache.get(key, changeSequence, this::serialise).json().length;
+    }
+
+    @Benchmark
+    public int rebuild() {
+        return cache.get(key, ++changeSequence, this::serialise).gzip().length;
+    }
+
+    private TrailListCache.Serialized serialise() {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(ApiResponse.success("Trails retrieved successfully", page));
+            return new TrailListCache.Serialized(json, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
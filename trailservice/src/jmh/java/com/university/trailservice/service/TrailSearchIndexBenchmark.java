@@ -0,0 +1,38 @@
+package com.university.trailservice.service;
+
+import com.university.trailservice.BenchmarkData;
+import com.university.trailservice.model.Trail;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks for /api/trails/search served from the in-memory index
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TrailSearchIndexBenchmark {
+
+    @Param({"10000"})
+    public int trails;
+
+    @Param({"moor", "plym", "ridge walk", "iaduc"})
+    public String query;
+
+    private TrailSearchIndex index;
+
+    @Setup
+    public void setup() {
+        index = new TrailSearchIndex();
+        index.rebuild(BenchmarkData.trails(trails));
+    }
+
+    @Benchmark
+    public List<Trail> search() {
+        return index.search(query, null);
+    }
+}
@@ -0,0 +1,55 @@
+package com.university.trailservice.service;
+
+import com.university.trailservice.BenchmarkData;
+import com.university.trailservice.dto.TrailSuggestion;
+import com.university.trailservice.repository.TrailPopularity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks for typeahead over the radix trie
+ * shortPrefix: one letter (large subtree); longPrefix: a near-complete name; update: re-weigh a trail
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+public class TrailSuggestIndexBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int trails;
+
+    private TrailSuggestIndex index;
+    private List<TrailPopularity> data;
+    private int next;
+
+    @Setup
+    public void setup() {
+        index = new TrailSuggestIndex(new SimpleMeterRegistry());
+        data = BenchmarkData.popularity(trails);
+        index.rebuild(data);
+        System.out.printf("%n%d names, ~%d MB%n", trails, index.estimatedBytes() / (1024 * 1024));
+    }
+
+    @Benchmark
+    public List<TrailSuggestion> shortPrefix() {
+        return index.suggest("r", 10);
+    }
+
+    @Benchmark
+    public List<TrailSuggestion> longPrefix() {
+        return index.suggest("river moor walk 1", 10);
+    }
+
+    @Benchmark
+    public int update() {
+        TrailPopularity trail = data.get(next++ % data.size());
+        index.put(new TrailPopularity(trail.trailId(), trail.trailName(), trail.nearestTown(),
+            trail.ratingSum() + next % 5, trail.reviewCount() + 1));
+        return index.size();
+    }
+}
@@ -0,0 +1,125 @@
+package com.university.trailservice.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load test for the read endpoints
+ * Each client repeatedly calls GET /api/trails/{id} and GET /api/trails/search
+ * against a running service and the run reports throughput and latency percentiles.
+ *
+ * Compare the two threading modes by starting the service with
+ * VIRTUAL_THREADS=true and VIRTUAL_THREADS=false and running the same load.
+ * Start it with RATE_LIMIT_ENABLED=false too: every client shares one IP, so one bucket.
+ * Any status other than 2xx or 304 is an error; 429s are also counted on their own.
+ *
+ * Arguments (all optional): baseUrl clients seconds maxTrailId
+ */
+public class TrailLoadTest {
+
+    private static final String[] SEARCH_TERMS = {"plym", "moor", "river", "wood", "circular", "coast"};
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int maxTrailId = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+
+        HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+        long started = System.nanoTime();
+        long deadline = started + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicLong errors = new AtomicLong();
+        AtomicLong rateLimited = new AtomicLong();
+        List<long[]> latencies = new ArrayList<>();
+
+        System.out.printf("Load test: %d clients for %ds against %s%n", clients, seconds, baseUrl);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                long[] samples = new long[1 << 16];
+                latencies.add(samples);
+                executor.submit(() ->
+                    runClient(httpClient, baseUrl, maxTrailId, deadline, samples, errors, rateLimited));
+            }
+        }
+
+        report(latencies, errors.get(), rateLimited.get(), (System.nanoTime() - started) / 1e9);
+    }
+
+    private static void runClient(HttpClient httpClient, String baseUrl, int maxTrailId,
+                                  long deadline, long[] samples, AtomicLong errors, AtomicLong rateLimited) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int count = 0;
+        while (System.nanoTime() < deadline) {
+            String path = random.nextBoolean()
+                ? "/api/trails/" + random.nextInt(1, maxTrailId + 1)
+                : "/api/trails/search?q=" + SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)];
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                int status = response.statusCode();
+                if (status / 100 != 2 && status != 304) {
+                    errors.incrementAndGet();
+                }
+                if (status == 429) {
+                    rateLimited.incrementAndGet();
+                }
+            } catch (Exception e) {
+                errors.incrementAndGet();
+            }
+            if (count + 1 < samples.length) {
+                samples[++count] = System.nanoTime() - start;
+            }
+            samples[0] = count;
+        }
+    }
+
+    private static void report(List<long[]> latencies, long errors, long rateLimited, double elapsedSeconds) {
+        long total = 0;
+        for (long[] samples : latencies) {
+            total += samples[0];
+        }
+        long[] all = new long[(int) total];
+        int position = 0;
+        for (long[] samples : latencies) {
+            int count = (int) samples[0];
+            System.arraycopy(samples, 1, all, position, count);
+            position += count;
+        }
+        Arrays.sort(all);
+
+        System.out.printf(Locale.ROOT, "Requests:   %d (%d errors)%n", total, errors);
+        System.out.printf(Locale.ROOT, "Limited:    %d (429 Too Many Requests)%n", rateLimited);
+        System.out.printf(Locale.ROOT, "Throughput: %.1f req/s%n", total / elapsedSeconds);
+        if (all.length > 0) {
+            System.out.printf(Locale.ROOT, "Latency:    p50 %.1f ms, p95 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                percentile(all, 0.50), percentile(all, 0.95), percentile(all, 0.99), all[all.length - 1] / 1e6);
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.min(sorted.length - 1, Math.round(p * (sorted.length - 1)));
+        return sorted[index] / 1e6;
+    }
+}
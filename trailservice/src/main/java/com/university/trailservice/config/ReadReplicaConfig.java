@@ -0,0 +1,63 @@
+package com.university.trailservice.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read Replica Configuration
+ * Only active when trails.read-replicas.urls is set. The primary pool is built from
+ * spring.datasource.* as usual; each replica URL gets its own pool with the same
+ * credentials and Hikari settings, and the application uses the routing DataSource.
+ */
+@Configuration
+@ConditionalOnExpression("!'${trails.read-replicas.urls:}'.isBlank()")
+public class ReadReplicaConfig {
+
+    @Value("${trails.read-replicas.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${trails.read-replicas.pool-size:10}")
+    private int replicaPoolSize;
+
+    @Value("${trails.read-replicas.connection-timeout-ms:250}")
+    private long replicaConnectionTimeoutMillis;
+
+    @Value("${trails.read-replicas.health-check-interval-ms:5000}")
+    private long healthCheckIntervalMillis;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public ReplicaRoutingDataSource dataSource(HikariDataSource primaryDataSource, MeterRegistry meterRegistry) {
+        List<HikariDataSource> replicas = new ArrayList<>(replicaUrls.size());
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setJdbcUrl(replicaUrls.get(i).trim());
+            config.setPoolName("replica-" + (i + 1));
+            config.setMaximumPoolSize(replicaPoolSize);
+            config.setMinimumIdle(Math.min(config.getMinimumIdle(), replicaPoolSize));
+            config.setConnectionTimeout(replicaConnectionTimeoutMillis);
+            // Start even if the replica is down; the health check keeps it out of rotation
+            config.setInitializationFailTimeout(-1);
+            config.setMetricRegistry(meterRegistry);
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, healthCheckIntervalMillis, meterRegistry);
+    }
+}
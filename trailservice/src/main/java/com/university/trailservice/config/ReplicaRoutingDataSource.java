@@ -0,0 +1,201 @@
+package com.university.trailservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Replica Routing DataSource
+ * Delegates to the primary; connections taken inside onReplica(...) come from the read
+ * replica pools in turn instead (never inside a transaction).
+ * A background thread checks each replica every interval; replicas take reads from
+ * their first passed check. A replica that fails the check, or cannot hand out a
+ * connection, is skipped until it passes again; with no healthy replica, reads fall
+ * back to the primary.
+ */
+public class ReplicaRoutingDataSource extends DelegatingDataSource implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    // Seconds a health check waits for Connection.isValid
+    private static final int VALID_TIMEOUT_SECONDS = 2;
+
+    // Set while the current thread runs a read that may be served by a replica
+    private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+
+    private final List<Replica> replicas;
+    private final long healthCheckIntervalMillis;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private Thread healthCheckThread;
+    private volatile boolean running;
+    private Counter failovers;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicaPools,
+                                    long healthCheckIntervalMillis, MeterRegistry meterRegistry) {
+        super(primary);
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.healthCheckIntervalMillis = healthCheckIntervalMillis;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Run a read that may be served by a replica
+     */
+    public static <T> T onReplica(Supplier<T> read) {
+        Boolean outer = REPLICA_READ.get();
+        REPLICA_READ.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            if (outer == null) {
+                REPLICA_READ.remove();
+            }
+        }
+    }
+
+    /**
+     * Register the replica meters and start the health check thread
+     */
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        Gauge.builder("trailservice.replicas.healthy", replicas, r -> r.stream().filter(Replica::isHealthy).count())
+            .description("Read replicas currently taking reads")
+            .register(meterRegistry);
+        failovers = meterRegistry.counter("trailservice.replicas.failovers");
+
+        running = true;
+        healthCheckThread = new Thread(this::run, "replica-health-check");
+        healthCheckThread.setDaemon(true);
+        healthCheckThread.start();
+    }
+
+    /**
+     * Stop the health check thread and close the replica pools (the primary is its own bean)
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        healthCheckThread.interrupt();
+        healthCheckThread.join(TimeUnit.SECONDS.toMillis(5));
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    /**
+     * A replica connection for replica reads, the primary otherwise
+     * A replica that cannot hand out a connection within its timeout is marked down
+     * and the read goes to the primary instead of failing.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = pickReplica();
+        if (replica == null) {
+            return obtainTargetDataSource().getConnection();
+        }
+        try {
+            return replica.pool.getConnection();
+        } catch (SQLException e) {
+            markDown(replica, e);
+            failovers.increment();
+            return obtainTargetDataSource().getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Pools are created with their credentials; per-call credentials are not supported
+        throw new SQLException("getConnection(username, password) is not supported");
+    }
+
+    /**
+     * Next healthy replica in turn for a replica read outside a transaction, else null (primary)
+     */
+    private Replica pickReplica() {
+        if (!Boolean.TRUE.equals(REPLICA_READ.get()) || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return null;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                Thread.sleep(healthCheckIntervalMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            replicas.forEach(this::check);
+        }
+    }
+
+    /**
+     * Take a connection from the replica's pool and validate it
+     */
+    private void check(Replica replica) {
+        try (Connection connection = replica.pool.getConnection()) {
+            if (!connection.isValid(VALID_TIMEOUT_SECONDS)) {
+                throw new SQLException("Connection is not valid");
+            }
+            replica.checked = true;
+            if (!replica.healthy) {
+                replica.healthy = true;
+                logger.info("Read replica {} is healthy, taking reads", replica.name());
+            }
+        } catch (SQLException e) {
+            markDown(replica, e);
+        }
+    }
+
+    private void markDown(Replica replica, SQLException e) {
+        if (replica.healthy || !replica.checked) {
+            replica.healthy = false;
+            replica.checked = true;
+            logger.warn("Read replica {} is down, reads go to the primary until it recovers: {}",
+                replica.name(), e.getMessage());
+        }
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource pool;
+        private volatile boolean healthy;
+        // False until the first check, so a replica that never comes up is still logged
+        private volatile boolean checked;
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        private String name() {
+            return pool.getPoolName();
+        }
+
+        private boolean isHealthy() {
+            return healthy;
+        }
+    }
+}
@@ -5,8 +5,10 @@ import com.university.trailservice.dto.AuthResponse;
 import com.university.trailservice.dto.LoginRequest;
 import com.university.trailservice.dto.RegisterRequest;
 import com.university.trailservice.service.AuthService;
+import com.university.trailservice.service.PasswordHashingBusyException;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -32,6 +34,8 @@ public class AuthController {
             AuthResponse authResponse = authService.register(request);
             return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success("User registered successfully", authResponse));
+        } catch (PasswordHashingBusyException e) {
+            return busy(e);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error(e.getMessage()));
@@ -47,9 +51,20 @@ public class AuthController {
         try {
             AuthResponse authResponse = authService.login(request);
             return ResponseEntity.ok(ApiResponse.success("Login successful", authResponse));
+        } catch (PasswordHashingBusyException e) {
+            return busy(e);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                 .body(ApiResponse.error(e.getMessage()));
         }
     }
+
+    /**
+     * BCrypt pool saturated: shed load instead of queueing without bound
+     */
+    private ResponseEntity<ApiResponse<AuthResponse>> busy(PasswordHashingBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(ApiResponse.error(e.getMessage()));
+    }
 }
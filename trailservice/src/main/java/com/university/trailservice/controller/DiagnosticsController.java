@@ -0,0 +1,41 @@
+package com.university.trailservice.controller;
+
+import com.university.trailservice.dto.ApiResponse;
+import com.university.trailservice.dto.QueryPlanReport;
+import com.university.trailservice.service.QueryPlanAdvisor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import java.util.List;
+
+/**
+ * Diagnostics Controller
+ * Development checks against a local database; disabled (404) unless configured
+ */
+@RestController
+@RequestMapping("/api/diagnostics")
+public class DiagnosticsController {
+
+    @Autowired
+    private QueryPlanAdvisor queryPlanAdvisor;
+
+    /**
+     * Capture the plan SQL Server uses for each repository query
+     * GET /api/diagnostics/query-plans
+     * Needs trails.diagnostics.query-plans.enabled=true and VIEW SERVER STATE
+     */
+    @GetMapping("/query-plans")
+    public ResponseEntity<ApiResponse<List<QueryPlanReport>>> getQueryPlans() {
+        if (!queryPlanAdvisor.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error("Query plan diagnostics are disabled"));
+        }
+        List<QueryPlanReport> reports = queryPlanAdvisor.capture();
+        long regressions = reports.stream().filter(QueryPlanReport::regression).count();
+        return ResponseEntity.ok(ApiResponse.success(
+            "Query plans captured, " + regressions + " regressions", reports));
+    }
+}
@@ -1,5 +1,7 @@
 package com.university.trailservice.controller;
 
+import com.university.trailservice.service.TrailCache;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -15,6 +17,9 @@ import java.util.Map;
 @RequestMapping("/api")
 public class HealthController {
 
+    @Autowired
+    private TrailCache trailCache;
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> health() {
         Map<String, Object> response = new HashMap<>();
@@ -23,6 +28,7 @@ public class HealthController {
         response.put("version", "1.0.0");
         response.put("timestamp", LocalDateTime.now());
         response.put("message", "Service is running successfully");
+        response.put("trailCache", trailCache.stats());
         
         return ResponseEntity.ok(response);
     }
@@ -1,17 +1,45 @@
 package com.university.trailservice.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.university.trailservice.dto.ApiResponse;
+import com.university.trailservice.dto.BatchRowResult;
+import com.university.trailservice.dto.FacetedTrails;
+import com.university.trailservice.dto.NearbyTrail;
+import com.university.trailservice.dto.TrailChanges;
+import com.university.trailservice.dto.TrailCursor;
+import com.university.trailservice.dto.TrailDetail;
+import com.university.trailservice.dto.TrailFacetQuery;
+import com.university.trailservice.dto.TrailFields;
 import com.university.trailservice.dto.TrailRequest;
+import com.university.trailservice.dto.TrailSuggestion;
 import com.university.trailservice.model.Trail;
+import com.university.trailservice.repository.CollectionVersion;
+import com.university.trailservice.repository.TrailVersion;
 import com.university.trailservice.security.UserPrincipal;
+import com.university.trailservice.service.TrailListCache;
 import com.university.trailservice.service.TrailService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Trail Controller
@@ -21,28 +49,205 @@ import java.util.List;
 @RequestMapping("/api/trails")
 public class TrailController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
+    // Collection responses are negotiated on both, so caches must key on both
+    private static final String[] COLLECTION_VARY = {HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING};
+
     @Autowired
     private TrailService trailService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${trails.http.max-age-seconds:0}")
+    private long maxAgeSeconds;
+
+    @Value("${trails.http.shared-max-age-seconds:30}")
+    private long sharedMaxAgeSeconds;
+
     /**
-     * Get all public trails
-     * GET /api/trails
+     * Get public trails, newest first, one page at a time
+     * GET /api/trails?after=2024-11-01T10:15:30.123,42&limit=50&fields=trailName,difficulty
+     * The cursor for the next page is returned in the X-Next-Cursor header.
+     * Supports If-None-Match / If-Modified-Since against the collection version (304 Not Modified).
+     * The serialised body (gzip when accepted) is cached until the collection changes.
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Trail>>> getAllTrails() {
-        List<Trail> trails = trailService.getAllTrails();
-        return ResponseEntity.ok(ApiResponse.success("Trails retrieved successfully", trails));
+    public ResponseEntity<?> getAllTrails(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        try {
+            TrailCursor cursor = after != null ? TrailCursor.parse(after) : null;
+            TrailFields fieldset = TrailFields.parseListed(fields);
+
+            // checkNotModified also writes the ETag and Last-Modified response headers;
+            // gzip and identity bodies differ in bytes, so each gets its own ETag
+            boolean gzip = acceptsGzip(webRequest);
+            CollectionVersion version = trailService.getCollectionVersion();
+            if (webRequest.checkNotModified(etag(version, gzip), epochMillis(version))) {
+                return notModified(publicCacheControl(), COLLECTION_VARY);
+            }
+
+            TrailListCache.Page page = trailService.getSerializedTrailPage(cursor, limit, fieldset,
+                trailPage -> serialize(ApiResponse.success("Trails retrieved successfully",
+                    project(trailPage.trails(), fieldset))));
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(publicCacheControl())
+                .varyBy(COLLECTION_VARY)
+                .contentType(MediaType.APPLICATION_JSON);
+            if (page.nextCursor() != null) {
+                response.header("X-Next-Cursor", page.nextCursor());
+            }
+            if (gzip) {
+                return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(page.gzip());
+            }
+            return response.body(page.json());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Stream all public trails as newline-delimited JSON
+     * GET /api/trails with Accept: application/x-ndjson (optionally &fields=...)
+     * Rows are written as they are read, so memory use does not grow with the catalogue
+     */
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAllTrails(
+            @RequestParam(required = false) String fields) {
+        TrailFields fieldset;
+        try {
+            fieldset = TrailFields.parseListed(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> trailService.streamAllTrails(fieldset, trail -> {
+            try {
+                Object row = fieldset != null ? fieldset.project(trail) : trail;
+                out.write(objectMapper.writeValueAsBytes(row));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+            .header("Content-Type", NDJSON)
+            .body(body);
+    }
+
+    /**
+     * Delta sync: trails changed since a token from a previous call
+     * GET /api/trails/changes?since=123456 (omit since for a full snapshot)
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<TrailChanges>> getChanges(
+            @RequestParam(required = false) String since) {
+        try {
+            TrailChanges changes = trailService.getChangesSince(since);
+            return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(ApiResponse.success("Changes retrieved successfully", changes));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Typeahead suggestions for the search box
+     * GET /api/trails/suggest?prefix=lake&limit=10
+     * Trail names and nearest towns starting with the prefix, most popular first
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<List<TrailSuggestion>>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            List<TrailSuggestion> suggestions = trailService.suggest(prefix, limit);
+            return ResponseEntity.ok()
+                .cacheControl(publicCacheControl())
+                .body(ApiResponse.success("Suggestions retrieved successfully", suggestions));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Find public trails starting near a point, nearest first
+     * GET /api/trails/nearby?lat=50.37&lon=-4.14&radiusKm=10&limit=20
+     * Without radiusKm the limit nearest trails are returned
+     */
+    @GetMapping("/nearby")
+    public ResponseEntity<ApiResponse<List<NearbyTrail>>> getNearbyTrails(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            List<NearbyTrail> trails = trailService.getNearbyTrails(lat, lon, radiusKm, limit);
+            return ResponseEntity.ok(ApiResponse.success("Nearby trails retrieved successfully", trails));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage()));
+        }
     }
 
     /**
      * Get trail by ID
-     * GET /api/trails/{id}
+     * GET /api/trails/{id}?fields=trailName,summary
+     * Supports If-None-Match / If-Modified-Since (304 Not Modified)
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<Trail>> getTrailById(@PathVariable Integer id) {
+    public ResponseEntity<ApiResponse<Object>> getTrailById(
+            @PathVariable Integer id,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
         try {
+            TrailFields fieldset = TrailFields.parse(fields);
+
+            // Validators come from a version lookup, so a 304 never loads the trail itself;
+            // checkNotModified also writes the ETag and Last-Modified response headers
+            Optional<TrailVersion> version = trailService.getTrailVersion(id);
+            if (version.isPresent()
+                    && webRequest.checkNotModified(etag(version.get()), epochMillis(version.get()))) {
+                return notModified(cacheControl(version.get()));
+            }
+
             Trail trail = trailService.getTrailById(id);
-            return ResponseEntity.ok(ApiResponse.success("Trail retrieved successfully", trail));
+            Object body = fieldset != null ? fieldset.project(trail) : trail;
+            return ResponseEntity.ok()
+                .cacheControl(cacheControl(TrailVersion.of(trail)))
+                .body(ApiResponse.success("Trail retrieved successfully", body));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Get trail detail with route locations and rating aggregates
+     * GET /api/trails/{id}/details?include=description
+     * The long description is omitted unless requested; private trails are visible to their owner only
+     */
+    @GetMapping("/{id}/details")
+    public ResponseEntity<ApiResponse<TrailDetail>> getTrailDetail(
+            @PathVariable Integer id,
+            @RequestParam(required = false) String include,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        boolean includeDescription = include != null
+            && Arrays.stream(include.split(",")).map(String::trim).anyMatch("description"::equalsIgnoreCase);
+        Integer userId = userPrincipal != null ? userPrincipal.userId() : null;
+        try {
+            TrailDetail detail = trailService.getTrailDetail(id, userId, includeDescription);
+            return ResponseEntity.ok(ApiResponse.success("Trail details retrieved successfully", detail));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(ApiResponse.error(e.getMessage()));
@@ -67,6 +272,45 @@ public class TrailController {
         }
     }
 
+    /**
+     * Import many trails at once (requires authentication)
+     * POST /api/trails/batch with a JSON array body
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<List<BatchRowResult>>> importTrails(
+            @RequestBody List<TrailRequest> requests,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return importTrails(requests.iterator(), userPrincipal);
+    }
+
+    /**
+     * Import many trails from a newline-delimited JSON body (requires authentication)
+     * POST /api/trails/batch with Content-Type: application/x-ndjson
+     * Rows are inserted chunk by chunk as they are read from the request
+     */
+    @PostMapping(value = "/batch", consumes = NDJSON)
+    public ResponseEntity<ApiResponse<List<BatchRowResult>>> importTrailStream(
+            HttpServletRequest request,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) throws IOException {
+        try (MappingIterator<TrailRequest> requests =
+                 objectMapper.readerFor(TrailRequest.class).readValues(request.getInputStream())) {
+            return importTrails(requests, userPrincipal);
+        }
+    }
+
+    private ResponseEntity<ApiResponse<List<BatchRowResult>>> importTrails(
+            Iterator<TrailRequest> requests, UserPrincipal userPrincipal) {
+        try {
+            List<BatchRowResult> results = trailService.importTrails(requests, userPrincipal.userId());
+            long created = results.stream().filter(r -> r.trailId() != null).count();
+            return ResponseEntity.ok(ApiResponse.success(
+                "Imported " + created + " of " + results.size() + " trails", results));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     /**
      * Update trail (requires authentication and ownership)
      * PUT /api/trails/{id}
@@ -112,13 +356,159 @@ public class TrailController {
 
     /**
      * Search trails
-     * GET /api/trails/search?q=searchTerm&difficulty=Easy
+     * GET /api/trails/search?q=searchTerm&difficulty=Easy&fields=trailName,difficulty
+     * Supports conditional requests against the collection version
      */
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<List<Trail>>> searchTrails(
+    public ResponseEntity<ApiResponse<List<?>>> searchTrails(
             @RequestParam(required = false) String q,
-            @RequestParam(required = false) String difficulty) {
-        List<Trail> trails = trailService.searchTrails(q, difficulty);
-        return ResponseEntity.ok(ApiResponse.success("Search completed successfully", trails));
+            @RequestParam(required = false) String difficulty,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        try {
+            TrailFields fieldset = TrailFields.parseListed(fields);
+
+            CollectionVersion version = trailService.getCollectionVersion();
+            if (webRequest.checkNotModified(etag(version, false), epochMillis(version))) {
+                return notModified(publicCacheControl(), COLLECTION_VARY);
+            }
+
+            List<Trail> trails = trailService.searchTrails(q, difficulty, fieldset);
+            return ResponseEntity.ok()
+                .cacheControl(publicCacheControl())
+                .varyBy(COLLECTION_VARY)
+                .body(ApiResponse.success("Search completed successfully", project(trails, fieldset)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Faceted search: filtered trails plus facet counts in one call
+     * GET /api/trails/search/facets?q=moor&difficulty=Easy,Moderate&routeType=Circular
+     *     &town=Plymouth&minKm=5&maxKm=15&hasAccessibilityNotes=true&limit=20&fields=trailName
+     * Facets: difficulty, routeType, nearestTown, lengthKm (buckets), hasAccessibilityNotes
+     */
+    @GetMapping("/search/facets")
+    public ResponseEntity<ApiResponse<FacetedTrails<?>>> facetedSearch(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) List<String> difficulty,
+            @RequestParam(required = false) List<String> routeType,
+            @RequestParam(required = false) List<String> town,
+            @RequestParam(required = false) Double minKm,
+            @RequestParam(required = false) Double maxKm,
+            @RequestParam(required = false) Double minMiles,
+            @RequestParam(required = false) Double maxMiles,
+            @RequestParam(required = false) Boolean hasAccessibilityNotes,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        try {
+            TrailFields fieldset = TrailFields.parseListed(fields);
+
+            CollectionVersion version = trailService.getCollectionVersion();
+            if (webRequest.checkNotModified(etag(version, false), epochMillis(version))) {
+                return notModified(publicCacheControl(), COLLECTION_VARY);
+            }
+
+            TrailFacetQuery query = new TrailFacetQuery(q, difficulty, routeType, town,
+                minKm, maxKm, minMiles, maxMiles, hasAccessibilityNotes);
+            FacetedTrails<Trail> result = trailService.facetedSearch(query, limit);
+            return ResponseEntity.ok()
+                .cacheControl(publicCacheControl())
+                .varyBy(COLLECTION_VARY)
+                .body(ApiResponse.success("Search completed successfully",
+                    result.withTrails(project(result.trails(), fieldset))));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Apply a sparse fieldset to a list of trails (null returns the trails unchanged)
+     */
+    private static List<?> project(List<Trail> trails, TrailFields fields) {
+        if (fields == null) {
+            return trails;
+        }
+        return trails.stream().map(fields::project).toList();
+    }
+
+    private byte[] serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Whether the client lists gzip in Accept-Encoding (and does not refuse it with q=0)
+     */
+    private static boolean acceptsGzip(WebRequest webRequest) {
+        String acceptEncoding = webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Strong ETag of a single trail: its ID and last change time
+     */
+    private static String etag(TrailVersion version) {
+        return "\"" + version.trailId() + "-" + epochMillis(version) + "\"";
+    }
+
+    /**
+     * Strong ETag of the trail collection: its change sequence, plus the content coding
+     * for gzip bodies (a strong ETag is only shared by byte-identical representations)
+     */
+    private static String etag(CollectionVersion version, boolean gzip) {
+        return "\"c" + version.changeSequence() + (gzip ? "-gz" : "") + "\"";
+    }
+
+    private static long epochMillis(TrailVersion version) {
+        return version.lastModified().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static long epochMillis(CollectionVersion version) {
+        return version.lastModified().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Public responses: clients revalidate, a CDN may serve them for shared-max-age seconds
+     */
+    private CacheControl publicCacheControl() {
+        return CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS)
+            .sMaxAge(sharedMaxAgeSeconds, TimeUnit.SECONDS)
+            .cachePublic();
+    }
+
+    /**
+     * Private trails must never be stored by a shared cache
+     */
+    private CacheControl cacheControl(TrailVersion version) {
+        return version.isPublic() ? publicCacheControl() : CacheControl.noCache().cachePrivate();
+    }
+
+    /**
+     * A 304 carries the same Cache-Control and Vary as the full response it stands for
+     */
+    private static <T> ResponseEntity<T> notModified(CacheControl cacheControl, String... vary) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+            .cacheControl(cacheControl);
+        if (vary.length > 0) {
+            response.varyBy(vary);
+        }
+        return response.build();
     }
 }
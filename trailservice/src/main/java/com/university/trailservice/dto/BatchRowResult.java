@@ -0,0 +1,20 @@
+package com.university.trailservice.dto;
+
+/**
+ * Outcome of one row in a batch trail import
+ * Exactly one of trailId or error is set
+ */
+public record BatchRowResult(
+    int index,
+    Integer trailId,
+    String error
+) {
+
+    public static BatchRowResult created(int index, Integer trailId) {
+        return new BatchRowResult(index, trailId, null);
+    }
+
+    public static BatchRowResult failed(int index, String error) {
+        return new BatchRowResult(index, null, error);
+    }
+}
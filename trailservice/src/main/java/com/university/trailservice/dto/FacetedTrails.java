@@ -0,0 +1,23 @@
+package com.university.trailservice.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Faceted search response: the first page of hits, the total hit count and,
+ * per facet, the number of trails for each value. A facet's counts apply every
+ * filter except its own, so they show what selecting another value would return.
+ */
+public record FacetedTrails<T>(
+    List<T> trails,
+    int total,
+    Map<String, Map<String, Integer>> facets
+) {
+
+    /**
+     * Same result with the hits replaced (e.g. by a sparse fieldset projection)
+     */
+    public <R> FacetedTrails<R> withTrails(List<R> projected) {
+        return new FacetedTrails<>(projected, total, facets);
+    }
+}
@@ -0,0 +1,16 @@
+package com.university.trailservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.university.trailservice.model.Trail;
+
+/**
+ * A trail returned by the nearby search with its start point coordinates
+ * and great-circle distance from the query point
+ */
+public record NearbyTrail(
+    @JsonUnwrapped Trail trail,
+    double latitude,
+    double longitude,
+    double distanceKm
+) {
+}
@@ -0,0 +1,25 @@
+package com.university.trailservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+
+/**
+ * Plan captured for one repository query: every data access operator
+ * ("Index Seek [CW2].[Trail].[PK_Trail]") and those flagged as scan regressions
+ */
+public record QueryPlanReport(
+    String query,
+    AllowedScans allowedScans,
+    boolean regression,
+    List<String> operators,
+    List<String> regressions,
+    List<String> statements,
+    @JsonInclude(JsonInclude.Include.NON_NULL) String error
+) {
+
+    /**
+     * NONE for point lookups; NARROW_INDEX for list reads that may scan a filtered
+     * or nonclustered index but never the table; ANY for reads of every column
+     */
+    public enum AllowedScans { NONE, NARROW_INDEX, ANY }
+}
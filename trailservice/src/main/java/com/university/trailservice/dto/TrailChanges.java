@@ -0,0 +1,17 @@
+package com.university.trailservice.dto;
+
+import com.university.trailservice.model.Trail;
+import java.util.List;
+
+/**
+ * Delta-sync response for GET /api/trails/changes
+ * Clients upsert changed trails, drop removed IDs (made private or deleted)
+ * and pass nextToken as ?since= on the next poll; hasMore means poll again now
+ */
+public record TrailChanges(
+    List<Trail> changed,
+    List<Integer> removed,
+    String nextToken,
+    boolean hasMore
+) {
+}
@@ -0,0 +1,44 @@
+package com.university.trailservice.dto;
+
+import com.university.trailservice.model.Trail;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Keyset pagination cursor for the public trail list
+ * Encoded as "createdDate,trailId" (e.g. 2024-11-01T10:15:30.123,42)
+ */
+public record TrailCursor(
+    LocalDateTime createdDate,
+    Integer trailId
+) {
+
+    /**
+     * Parse cursor from the ?after= query parameter
+     */
+    public static TrailCursor parse(String value) {
+        int comma = value.lastIndexOf(',');
+        if (comma <= 0 || comma == value.length() - 1) {
+            throw new IllegalArgumentException("Invalid cursor: expected <createdDate,trailId>");
+        }
+        try {
+            LocalDateTime createdDate = LocalDateTime.parse(value.substring(0, comma).trim());
+            Integer trailId = Integer.valueOf(value.substring(comma + 1).trim());
+            return new TrailCursor(createdDate, trailId);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: expected <createdDate,trailId>");
+        }
+    }
+
+    /**
+     * Cursor pointing just after the given trail
+     */
+    public static TrailCursor after(Trail trail) {
+        return new TrailCursor(trail.getCreatedDate(), trail.getTrailId());
+    }
+
+    @Override
+    public String toString() {
+        return createdDate + "," + trailId;
+    }
+}
@@ -0,0 +1,32 @@
+package com.university.trailservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Trail detail page: trail, owner, route locations and rating aggregates
+ * trailDescription is only loaded (and serialised) when requested
+ */
+public record TrailDetail(
+    Integer trailId,
+    String trailName,
+    String summary,
+    @JsonInclude(JsonInclude.Include.NON_NULL) String trailDescription,
+    BigDecimal lengthMiles,
+    BigDecimal lengthKm,
+    String difficulty,
+    String accessibilityNotes,
+    String routeType,
+    String nearestTown,
+    String createdBy,
+    String startLocation,
+    String startPostcode,
+    String finishLocation,
+    String finishPostcode,
+    LocalDateTime createdDate,
+    LocalDateTime lastModifiedDate,
+    Double averageRating,
+    int reviewCount
+) {
+}
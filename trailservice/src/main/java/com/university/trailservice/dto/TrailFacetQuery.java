@@ -0,0 +1,28 @@
+package com.university.trailservice.dto;
+
+import java.util.List;
+
+/**
+ * Filters for GET /api/trails/search/facets
+ * Each list matches any of its values (null or empty: no filter); different
+ * filters must all match. Length bounds are inclusive.
+ */
+public record TrailFacetQuery(
+    String q,
+    List<String> difficulties,
+    List<String> routeTypes,
+    List<String> towns,
+    Double minKm,
+    Double maxKm,
+    Double minMiles,
+    Double maxMiles,
+    Boolean hasAccessibilityNotes
+) {
+
+    /**
+     * Whether any length bound is set
+     */
+    public boolean hasLengthFilter() {
+        return minKm != null || maxKm != null || minMiles != null || maxMiles != null;
+    }
+}
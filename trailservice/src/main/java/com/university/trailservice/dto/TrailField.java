@@ -0,0 +1,64 @@
+package com.university.trailservice.dto;
+
+import com.university.trailservice.model.Trail;
+import java.util.function.Function;
+
+/**
+ * Trail fields selectable with ?fields=
+ * Each field knows its JSON property, its CW2.Trail column and how to read it from a Trail.
+ * Only listed fields (the vw_PublicTrails columns) may be selected for lists and searches;
+ * owner, audit and deletion columns are only selectable on a single trail.
+ */
+public enum TrailField {
+    TRAIL_ID("trailId", "TrailID", Trail::getTrailId, true),
+    USER_ID("userId", "UserID", Trail::getUserId, false),
+    TRAIL_NAME("trailName", "TrailName", Trail::getTrailName, true),
+    SUMMARY("summary", "Summary", Trail::getSummary, true),
+    TRAIL_DESCRIPTION("trailDescription", "TrailDescription", Trail::getTrailDescription, false),
+    LENGTH_MILES("lengthMiles", "Length_Miles", Trail::getLengthMiles, true),
+    LENGTH_KM("lengthKm", "Length_Km", Trail::getLengthKm, true),
+    DIFFICULTY("difficulty", "Difficulty", Trail::getDifficulty, true),
+    ACCESSIBILITY_NOTES("accessibilityNotes", "AccessibilityNotes", Trail::getAccessibilityNotes, false),
+    ROUTE_TYPE("routeType", "RouteType", Trail::getRouteType, true),
+    NEAREST_TOWN("nearestTown", "NearestTown", Trail::getNearestTown, true),
+    START_POSTCODE("startPostcode", "StartPostcode", Trail::getStartPostcode, false),
+    FINISH_LOCATION("finishLocation", "FinishLocation", Trail::getFinishLocation, false),
+    FINISH_POSTCODE("finishPostcode", "FinishPostcode", Trail::getFinishPostcode, false),
+    CREATED_DATE("createdDate", "CreatedDate", Trail::getCreatedDate, true),
+    LAST_MODIFIED_DATE("lastModifiedDate", "LastModifiedDate", Trail::getLastModifiedDate, false),
+    LAST_MODIFIED_BY("lastModifiedBy", "LastModifiedBy", Trail::getLastModifiedBy, false),
+    IS_PUBLIC("isPublic", "IsPublic", Trail::getIsPublic, false),
+    IS_DELETED("isDeleted", "IsDeleted", Trail::getIsDeleted, false);
+
+    private final String property;
+    private final String column;
+    private final Function<Trail, Object> getter;
+    private final boolean listed;
+
+    TrailField(String property, String column, Function<Trail, Object> getter, boolean listed) {
+        this.property = property;
+        this.column = column;
+        this.getter = getter;
+        this.listed = listed;
+    }
+
+    public String property() { return property; }
+    public String column() { return column; }
+    public boolean listed() { return listed; }
+
+    public Object valueOf(Trail trail) {
+        return getter.apply(trail);
+    }
+
+    /**
+     * Look up a field by its JSON property name (case-insensitive)
+     */
+    public static TrailField fromProperty(String property) {
+        for (TrailField field : values()) {
+            if (field.property.equalsIgnoreCase(property)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field: " + property);
+    }
+}
@@ -0,0 +1,73 @@
+package com.university.trailservice.dto;
+
+import com.university.trailservice.model.Trail;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sparse fieldset requested with ?fields=trailName,difficulty,lengthKm
+ * Trails are serialised with only these properties, in declaration order
+ */
+public record TrailFields(
+    Set<TrailField> fields
+) {
+
+    public TrailFields {
+        fields = Collections.unmodifiableSet(EnumSet.copyOf(fields));
+    }
+
+    /**
+     * Parse the ?fields= query parameter of a single trail; null or blank means all fields
+     */
+    public static TrailFields parse(String value) {
+        return parse(value, false);
+    }
+
+    /**
+     * Parse the ?fields= query parameter of a list or search; only listed fields are accepted
+     */
+    public static TrailFields parseListed(String value) {
+        return parse(value, true);
+    }
+
+    private static TrailFields parse(String value, boolean listedOnly) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        Set<TrailField> fields = EnumSet.noneOf(TrailField.class);
+        for (String property : value.split(",")) {
+            if (!property.isBlank()) {
+                TrailField field = TrailField.fromProperty(property.trim());
+                if (listedOnly && !field.listed()) {
+                    throw new IllegalArgumentException("Field not available in trail lists: " + field.property());
+                }
+                fields.add(field);
+            }
+        }
+        if (fields.isEmpty()) {
+            return null;
+        }
+        return new TrailFields(fields);
+    }
+
+    /**
+     * Whether the field was requested
+     */
+    public boolean contains(TrailField field) {
+        return fields.contains(field);
+    }
+
+    /**
+     * JSON view of a trail with only the requested properties
+     */
+    public Map<String, Object> project(Trail trail) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        for (TrailField field : fields) {
+            json.put(field.property(), field.valueOf(trail));
+        }
+        return json;
+    }
+}
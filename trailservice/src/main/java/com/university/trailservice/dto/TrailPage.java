@@ -0,0 +1,14 @@
+package com.university.trailservice.dto;
+
+import com.university.trailservice.model.Trail;
+import java.util.List;
+
+/**
+ * One page of trails plus the cursor for the next page
+ * nextCursor is null on the last page
+ */
+public record TrailPage(
+    List<Trail> trails,
+    TrailCursor nextCursor
+) {
+}
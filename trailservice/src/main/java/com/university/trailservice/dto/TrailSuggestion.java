@@ -0,0 +1,15 @@
+package com.university.trailservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One typeahead suggestion: a trail name (with its trailId) or a nearest-town name
+ */
+public record TrailSuggestion(
+    String text,
+    Type type,
+    @JsonInclude(JsonInclude.Include.NON_NULL) Integer trailId
+) {
+
+    public enum Type { TRAIL, TOWN }
+}
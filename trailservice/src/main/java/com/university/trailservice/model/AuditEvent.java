@@ -0,0 +1,59 @@
+package com.university.trailservice.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Audit Event
+ * One row destined for CW2.AuditLog (field changes, soft deletes) or
+ * CW2.TrailLog (trail creation), captured when the write happens
+ */
+public record AuditEvent(
+    Target target,
+    String tableName,
+    Integer recordId,
+    String action,
+    String fieldChanged,
+    String oldValue,
+    String newValue,
+    String changedBy,
+    LocalDateTime changedDate,
+    String ipAddress
+) {
+
+    public enum Target { AUDIT_LOG, TRAIL_LOG }
+
+    /**
+     * A single field of a trail changed (one AuditLog row per field)
+     */
+    public static AuditEvent fieldChanged(Integer trailId, String field, Object oldValue, Object newValue,
+                                          String changedBy, String ipAddress) {
+        return new AuditEvent(Target.AUDIT_LOG, "Trail", trailId, "UPDATE", field,
+            oldValue != null ? oldValue.toString() : null,
+            newValue != null ? newValue.toString() : null,
+            changedBy, LocalDateTime.now(), ipAddress);
+    }
+
+    /**
+     * A trail was created (AuditLog row with the client address)
+     */
+    public static AuditEvent created(Integer trailId, String trailName, String changedBy, String ipAddress) {
+        return new AuditEvent(Target.AUDIT_LOG, "Trail", trailId, "INSERT", "TrailName",
+            null, trailName, changedBy, LocalDateTime.now(), ipAddress);
+    }
+
+    /**
+     * A trail was created (TrailLog row)
+     */
+    public static AuditEvent trailLog(Integer trailId, String trailName, String actionBy) {
+        return new AuditEvent(Target.TRAIL_LOG, "Trail", trailId, "INSERT", null,
+            null, trailName, actionBy, LocalDateTime.now(), null);
+    }
+
+    /**
+     * A trail was soft deleted
+     */
+    public static AuditEvent softDeleted(Integer trailId, String changedBy, String ipAddress) {
+        return new AuditEvent(Target.AUDIT_LOG, "Trail", trailId, "SOFT_DELETE", null,
+            null, null, changedBy, LocalDateTime.now(), ipAddress);
+    }
+}
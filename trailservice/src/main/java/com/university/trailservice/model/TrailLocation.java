@@ -0,0 +1,12 @@
+package com.university.trailservice.model;
+
+/**
+ * Trail Location
+ * A public trail (list columns only) with the coordinates of its start location
+ */
+public record TrailLocation(
+    Trail trail,
+    double latitude,
+    double longitude
+) {
+}
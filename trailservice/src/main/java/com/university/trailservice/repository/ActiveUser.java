@@ -0,0 +1,10 @@
+package com.university.trailservice.repository;
+
+/**
+ * Narrow projection of an active user (no email or password hash)
+ */
+public record ActiveUser(
+    Integer userId,
+    String username
+) {
+}
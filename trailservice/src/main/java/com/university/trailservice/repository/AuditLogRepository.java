@@ -0,0 +1,56 @@
+package com.university.trailservice.repository;
+
+import com.university.trailservice.model.AuditEvent;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Audit Log Repository
+ * Batched inserts into CW2.AuditLog and CW2.TrailLog
+ */
+@Repository
+@Timed(value = "trailservice.repository", description = "SQL time per repository method")
+public class AuditLogRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert a batch of audit events, each into its own table, in one JDBC batch per table
+     */
+    public void insertAll(List<AuditEvent> events) {
+        List<Object[]> auditRows = new ArrayList<>();
+        List<Object[]> trailLogRows = new ArrayList<>();
+        for (AuditEvent event : events) {
+            Timestamp changedDate = Timestamp.valueOf(event.changedDate());
+            if (event.target() == AuditEvent.Target.TRAIL_LOG) {
+                trailLogRows.add(new Object[] {
+                    event.recordId(), event.newValue(), event.action(), event.changedBy(), changedDate
+                });
+            } else {
+                auditRows.add(new Object[] {
+                    event.tableName(), event.recordId(), event.action(), event.fieldChanged(),
+                    event.oldValue(), event.newValue(), event.changedBy(), changedDate, event.ipAddress()
+                });
+            }
+        }
+
+        if (!auditRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO CW2.AuditLog (TableName, RecordID, Action, FieldChanged, OldValue, " +
+                "NewValue, ChangedBy, ChangedDate, IPAddress) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                auditRows);
+        }
+        if (!trailLogRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO CW2.TrailLog (TrailID, TrailName, Action, ActionBy, ActionDate) " +
+                "VALUES (?, ?, ?, ?, ?)",
+                trailLogRows);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.university.trailservice.repository;
+
+/**
+ * A statement from the plan cache and its showplan XML
+ */
+public record CachedPlan(
+    String sqlText,
+    String planXml
+) {
+}
@@ -0,0 +1,13 @@
+package com.university.trailservice.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Version of the trail collection (list and search) for HTTP validators
+ * changeSequence is the highest RowVer, which moves on every insert, update or soft delete
+ */
+public record CollectionVersion(
+    LocalDateTime lastModified,
+    long changeSequence
+) {
+}
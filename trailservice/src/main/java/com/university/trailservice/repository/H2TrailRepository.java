@@ -0,0 +1,228 @@
+package com.university.trailservice.repository;
+
+import com.university.trailservice.model.Trail;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * H2 Trail Repository (profile h2)
+ * The CW2 schema on an embedded H2 database in MSSQLServer mode (db/migration/h2).
+ * H2 has no APPLY, ROWVERSION or T-SQL procedures, so this class reproduces them:
+ * first-route joins use NOT EXISTS, RowVer is a BIGINT taken from the CW2.TrailRowVer
+ * sequence on every write, and the sp_InsertTrail / sp_UpdateTrail / sp_DeleteTrail
+ * checks and result codes are applied here.
+ */
+@Repository
+@Profile("h2")
+@Timed(value = "trailservice.repository", description = "SQL time per repository method")
+public class H2TrailRepository extends JdbcTrailRepository {
+
+    // Rows per multi-row insert statement, as on SQL Server
+    private static final int ROWS_PER_INSERT = 100;
+
+    private static final String INSERT_COLUMNS =
+        "UserID, TrailName, Summary, TrailDescription, Length_Miles, Length_Km, Difficulty, " +
+        "AccessibilityNotes, RouteType, NearestTown, StartPostcode, FinishLocation, FinishPostcode, IsPublic";
+
+    // Public trails joined to the coordinates of their first located start location
+    // (no earlier route with coordinates exists for the same trail)
+    private static final String TRAIL_LOCATION_SQL =
+        "SELECT t.TrailID, t.TrailName, t.Summary, t.Length_Miles, t.Length_Km, t.Difficulty, " +
+        "t.RouteType, t.NearestTown, t.CreatedDate, l.Latitude, l.Longitude " +
+        "FROM CW2.Trail t " +
+        "INNER JOIN CW2.TrailRoute tr ON tr.TrailID = t.TrailID " +
+        "INNER JOIN CW2.Location l ON tr.StartLocationID = l.LocationID " +
+        "WHERE t.IsPublic = 1 AND t.IsDeleted = 0 " +
+        "AND l.Latitude IS NOT NULL AND l.Longitude IS NOT NULL " +
+        "AND NOT EXISTS (SELECT 1 FROM CW2.TrailRoute e " +
+        "INNER JOIN CW2.Location el ON e.StartLocationID = el.LocationID " +
+        "WHERE e.TrailID = tr.TrailID AND el.Latitude IS NOT NULL AND el.Longitude IS NOT NULL " +
+        "AND (e.CreatedDate < tr.CreatedDate OR (e.CreatedDate = tr.CreatedDate " +
+        "AND e.StartLocationID < tr.StartLocationID)))";
+
+    // Start location of the updated trail's first located route (after SELECT TOP 1 <column>)
+    private static final String FIRST_LOCATED_ROUTE_SQL =
+        "FROM CW2.TrailRoute tr INNER JOIN CW2.Location l ON tr.StartLocationID = l.LocationID " +
+        "WHERE tr.TrailID = o.TrailID AND l.Latitude IS NOT NULL AND l.Longitude IS NOT NULL " +
+        "ORDER BY tr.CreatedDate, tr.StartLocationID";
+
+    // Trail detail with its first route (if any) and the rating summary
+    // %s is replaced by the TrailDescription column when requested
+    private static final String TRAIL_DETAIL_SQL =
+        "SELECT t.TrailID, t.TrailName, t.Summary, %s t.Length_Miles, t.Length_Km, t.Difficulty, " +
+        "t.AccessibilityNotes, t.RouteType, t.NearestTown, u.Username AS CreatedBy, " +
+        "sl.LocationName AS StartLocation, COALESCE(sl.Postcode, t.StartPostcode) AS StartPostcode, " +
+        "COALESCE(fl.LocationName, t.FinishLocation) AS FinishLocation, " +
+        "COALESCE(fl.Postcode, t.FinishPostcode) AS FinishPostcode, " +
+        "t.CreatedDate, t.LastModifiedDate, rs.RatingSum, rs.ReviewCount " +
+        "FROM CW2.Trail t " +
+        "INNER JOIN CW2.[User] u ON t.UserID = u.UserID " +
+        "LEFT JOIN CW2.TrailRoute tr ON tr.TrailID = t.TrailID " +
+        "AND NOT EXISTS (SELECT 1 FROM CW2.TrailRoute e WHERE e.TrailID = tr.TrailID " +
+        "AND (e.CreatedDate < tr.CreatedDate OR (e.CreatedDate = tr.CreatedDate " +
+        "AND e.StartLocationID < tr.StartLocationID))) " +
+        "LEFT JOIN CW2.Location sl ON tr.StartLocationID = sl.LocationID " +
+        "LEFT JOIN CW2.Location fl ON tr.FinishLocationID = fl.LocationID " +
+        "LEFT JOIN CW2.TrailRatingSummary rs ON t.TrailID = rs.TrailID " +
+        "WHERE t.TrailID = ? AND t.IsDeleted = 0 AND (t.IsPublic = 1 OR t.UserID = ?)";
+
+    @Override
+    protected String trailLocationSql() {
+        return TRAIL_LOCATION_SQL;
+    }
+
+    @Override
+    protected String trailDetailSql(boolean includeDescription) {
+        return String.format(TRAIL_DETAIL_SQL, includeDescription ? "t.TrailDescription," : "");
+    }
+
+    /**
+     * Highest RowVer written so far
+     * H2 has no MIN_ACTIVE_ROWVERSION(): a write still in flight with a lower RowVer
+     * can be missed by a reader that syncs past it. Acceptable for local load tests.
+     */
+    @Override
+    public long findChangeHorizon() {
+        return jdbcTemplate.queryForObject("SELECT ISNULL(MAX(RowVer), 0) FROM CW2.Trail", Long.class);
+    }
+
+    /**
+     * Trails whose RowVer is in (since, upTo], oldest change first
+     */
+    @Override
+    public List<TrailChange> findChanges(long since, long upTo, int limit) {
+        String sql = "SELECT TOP (?) *, RowVer AS Version FROM CW2.Trail " +
+                     "WHERE RowVer > ? AND RowVer <= ? ORDER BY RowVer";
+        return jdbcTemplate.query(sql, trailChangeRowMapper, limit, since, upTo);
+    }
+
+    /**
+     * Insert a trail for an active user (the sp_InsertTrail check, then the insert)
+     */
+    @Override
+    public Integer createTrail(Trail trail) {
+        Integer active = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM CW2.[User] WHERE UserID = ? AND IsActive = 1", Integer.class, trail.getUserId());
+        if (active == 0) {
+            throw new DataIntegrityViolationException("Invalid or inactive user");
+        }
+        return createTrails(List.of(trail)).get(0);
+    }
+
+    /**
+     * Insert many trails with one multi-row INSERT per 100 rows
+     * H2 returns the generated keys in row order, so no row number is needed.
+     */
+    @Override
+    public List<Integer> createTrails(List<Trail> trails) {
+        List<Integer> trailIds = new ArrayList<>(trails.size());
+
+        for (int from = 0; from < trails.size(); from += ROWS_PER_INSERT) {
+            List<Trail> slice = trails.subList(from, Math.min(from + ROWS_PER_INSERT, trails.size()));
+
+            StringBuilder sql = new StringBuilder("INSERT INTO CW2.Trail (" + INSERT_COLUMNS + ") VALUES ");
+            List<Object> args = new ArrayList<>(slice.size() * 14);
+            for (int i = 0; i < slice.size(); i++) {
+                Trail trail = slice.get(i);
+                sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+                args.add(trail.getUserId());
+                args.add(trail.getTrailName());
+                args.add(trail.getSummary());
+                args.add(trail.getTrailDescription());
+                args.add(trail.getLengthMiles());
+                args.add(trail.getLengthKm());
+                args.add(trail.getDifficulty());
+                args.add(trail.getAccessibilityNotes());
+                args.add(trail.getRouteType());
+                args.add(trail.getNearestTown());
+                args.add(trail.getStartPostcode());
+                args.add(trail.getFinishLocation());
+                args.add(trail.getFinishPostcode());
+                args.add(trail.getIsPublic());
+            }
+
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(sql.toString(), new String[] {"TrailID"});
+                for (int i = 0; i < args.size(); i++) {
+                    ps.setObject(i + 1, args.get(i));
+                }
+                return ps;
+            }, keyHolder);
+            for (Map<String, Object> key : keyHolder.getKeyList()) {
+                trailIds.add(((Number) key.get("TrailID")).intValue());
+            }
+        }
+
+        return trailIds;
+    }
+
+    /**
+     * Update a trail if the user owns it (sp_UpdateTrail)
+     * OLD TABLE returns the previous values of the updated row, like OUTPUT deleted.*,
+     * joined to its review totals and first start point as sp_UpdateTrail returns them
+     */
+    @Override
+    public TrailUpdate updateTrail(Integer trailId, Integer userId, Trail trail) {
+        String sql = "SELECT 0 AS Result, o.TrailName, o.Summary, o.TrailDescription, o.Length_Miles, o.Length_Km, " +
+                     "o.Difficulty, o.AccessibilityNotes, o.RouteType, o.NearestTown, o.StartPostcode, " +
+                     "o.FinishLocation, o.FinishPostcode, o.IsPublic, o.CreatedDate, rs.RatingSum, rs.ReviewCount, " +
+                     "(SELECT TOP 1 l.Latitude " + FIRST_LOCATED_ROUTE_SQL + ") AS Latitude, " +
+                     "(SELECT TOP 1 l.Longitude " + FIRST_LOCATED_ROUTE_SQL + ") AS Longitude " +
+                     "FROM OLD TABLE (UPDATE CW2.Trail SET TrailName = ?, Summary = ?, TrailDescription = ?, " +
+                     "Length_Miles = ?, Length_Km = ?, Difficulty = ?, AccessibilityNotes = ?, RouteType = ?, " +
+                     "NearestTown = ?, StartPostcode = ?, FinishLocation = ?, FinishPostcode = ?, IsPublic = ?, " +
+                     "LastModifiedDate = GETDATE(), LastModifiedBy = ?, RowVer = NEXT VALUE FOR CW2.TrailRowVer " +
+                     "WHERE TrailID = ? AND UserID = ? AND IsDeleted = 0) o " +
+                     "LEFT JOIN CW2.TrailRatingSummary rs ON rs.TrailID = o.TrailID";
+
+        List<TrailUpdate> updates = jdbcTemplate.query(sql, (rs, rowNum) -> mapTrailUpdate(rs, trailId),
+            trail.getTrailName(),
+            trail.getSummary(),
+            trail.getTrailDescription(),
+            trail.getLengthMiles(),
+            trail.getLengthKm(),
+            trail.getDifficulty(),
+            trail.getAccessibilityNotes(),
+            trail.getRouteType(),
+            trail.getNearestTown(),
+            trail.getStartPostcode(),
+            trail.getFinishLocation(),
+            trail.getFinishPostcode(),
+            trail.getIsPublic(),
+            userId,
+            trailId,
+            userId
+        );
+        return updates.isEmpty() ? TrailUpdate.failed(missingTrailResult(trailId)) : updates.get(0);
+    }
+
+    /**
+     * Soft delete a trail if the user owns it (sp_DeleteTrail)
+     */
+    @Override
+    public TrailWriteResult deleteTrail(Integer trailId, Integer userId) {
+        String sql = "UPDATE CW2.Trail SET IsDeleted = 1, LastModifiedDate = GETDATE(), LastModifiedBy = ?, " +
+                     "RowVer = NEXT VALUE FOR CW2.TrailRowVer " +
+                     "WHERE TrailID = ? AND UserID = ? AND IsDeleted = 0";
+        int updated = jdbcTemplate.update(sql, userId, trailId, userId);
+        return updated > 0 ? TrailWriteResult.SUCCESS : missingTrailResult(trailId);
+    }
+
+    /**
+     * Why an ownership-checked write matched no row: someone else's trail, or no such trail
+     */
+    private TrailWriteResult missingTrailResult(Integer trailId) {
+        Integer existing = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM CW2.Trail WHERE TrailID = ? AND IsDeleted = 0", Integer.class, trailId);
+        return existing > 0 ? TrailWriteResult.NOT_OWNER : TrailWriteResult.NOT_FOUND;
+    }
+}
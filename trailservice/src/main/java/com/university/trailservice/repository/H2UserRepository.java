@@ -0,0 +1,36 @@
+package com.university.trailservice.repository;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * H2 User Repository (profile h2)
+ * H2 has no UPDATE ... FROM, so last logins are written as one JDBC batch
+ */
+@Repository
+@Profile("h2")
+@Timed(value = "trailservice.repository", description = "SQL time per repository method")
+public class H2UserRepository extends JdbcUserRepository {
+
+    /**
+     * Set the last login date of many users in one batch, only ever moving it forward
+     */
+    @Override
+    public void updateLastLogins(Map<Integer, LocalDateTime> lastLogins) {
+        List<Object[]> rows = new ArrayList<>(lastLogins.size());
+        lastLogins.forEach((userId, loginDate) -> {
+            Timestamp login = Timestamp.valueOf(loginDate);
+            rows.add(new Object[] {login, userId, login});
+        });
+        jdbcTemplate.batchUpdate(
+            "UPDATE CW2.[User] SET LastLoginDate = ? " +
+            "WHERE UserID = ? AND (LastLoginDate IS NULL OR LastLoginDate < ?)",
+            rows);
+    }
+}
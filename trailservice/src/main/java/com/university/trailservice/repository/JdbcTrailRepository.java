@@ -0,0 +1,463 @@
+package com.university.trailservice.repository;
+
+import com.university.trailservice.dto.TrailCursor;
+import com.university.trailservice.dto.TrailDetail;
+import com.university.trailservice.dto.TrailField;
+import com.university.trailservice.dto.TrailFields;
+import com.university.trailservice.model.Trail;
+import com.university.trailservice.model.TrailLocation;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * JDBC Trail Repository
+ * Queries that SQL Server and H2 (MSSQLServer mode) both run as written, plus the
+ * row mappers; subclasses supply the dialect-specific SQL and the trail writes.
+ */
+@Timed(value = "trailservice.repository", description = "SQL time per repository method")
+public abstract class JdbcTrailRepository implements TrailRepository {
+
+    // Rows fetched per round-trip when streaming the public list
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    // Distinct ?fields= combinations whose SQL and row mapper are kept
+    private static final int MAX_CACHED_PROJECTIONS = 256;
+
+    // Public trail names and towns with their review totals (typeahead weights)
+    private static final String TRAIL_POPULARITY_SQL =
+        "SELECT t.TrailID, t.TrailName, t.NearestTown, " +
+        "ISNULL(rs.RatingSum, 0) AS RatingSum, ISNULL(rs.ReviewCount, 0) AS ReviewCount " +
+        "FROM CW2.Trail t " +
+        "LEFT JOIN CW2.TrailRatingSummary rs ON t.TrailID = rs.TrailID " +
+        "WHERE t.IsPublic = 1 AND t.IsDeleted = 0";
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    // Column list and positional row mapper for one sparse fieldset
+    record Projection(String columns, RowMapper<Trail> rowMapper) {
+    }
+
+    private final Map<TrailFields, Projection> projections = new ConcurrentHashMap<>();
+
+    // Row mapper for view vw_PublicTrails (limited fields)
+    // Package-private so the JMH benchmarks can exercise it directly
+    final RowMapper<Trail> publicTrailRowMapper = (rs, rowNum) -> {
+        Trail trail = new Trail();
+        trail.setTrailId(rs.getInt("TrailID"));
+        trail.setTrailName(rs.getString("TrailName"));
+        trail.setSummary(rs.getString("Summary"));
+        trail.setLengthMiles(rs.getBigDecimal("Length_Miles"));
+        trail.setLengthKm(rs.getBigDecimal("Length_Km"));
+        trail.setDifficulty(rs.getString("Difficulty"));
+        trail.setRouteType(rs.getString("RouteType"));
+        trail.setNearestTown(rs.getString("NearestTown"));
+        trail.setCreatedDate(rs.getTimestamp("CreatedDate").toLocalDateTime());
+        trail.setIsPublic(true); // View only shows public trails
+        trail.setIsDeleted(false); // View only shows non-deleted trails
+        return trail;
+    };
+
+    // Full row mapper for stored procedures and complete data
+    final RowMapper<Trail> trailRowMapper = (rs, rowNum) -> {
+        Trail trail = new Trail();
+        trail.setTrailId(rs.getInt("TrailID"));
+        trail.setUserId(rs.getInt("UserID"));
+        trail.setTrailName(rs.getString("TrailName"));
+        trail.setSummary(rs.getString("Summary"));
+        trail.setTrailDescription(rs.getString("TrailDescription"));
+        trail.setLengthMiles(rs.getBigDecimal("Length_Miles"));
+        trail.setLengthKm(rs.getBigDecimal("Length_Km"));
+        trail.setDifficulty(rs.getString("Difficulty"));
+        trail.setAccessibilityNotes(rs.getString("AccessibilityNotes"));
+        trail.setRouteType(rs.getString("RouteType"));
+        trail.setNearestTown(rs.getString("NearestTown"));
+        trail.setStartPostcode(rs.getString("StartPostcode"));
+        trail.setFinishLocation(rs.getString("FinishLocation"));
+        trail.setFinishPostcode(rs.getString("FinishPostcode"));
+        trail.setCreatedDate(rs.getTimestamp("CreatedDate").toLocalDateTime());
+        if (rs.getTimestamp("LastModifiedDate") != null) {
+            trail.setLastModifiedDate(rs.getTimestamp("LastModifiedDate").toLocalDateTime());
+        }
+        trail.setLastModifiedBy(rs.getInt("LastModifiedBy"));
+        trail.setIsPublic(rs.getBoolean("IsPublic"));
+        trail.setIsDeleted(rs.getBoolean("IsDeleted"));
+        return trail;
+    };
+
+    // Row mapper for trailLocationSql() (list columns plus start coordinates)
+    private final RowMapper<TrailLocation> trailLocationRowMapper = (rs, rowNum) ->
+        new TrailLocation(
+            publicTrailRowMapper.mapRow(rs, rowNum),
+            rs.getDouble("Latitude"),
+            rs.getDouble("Longitude")
+        );
+
+    private final RowMapper<TrailPopularity> trailPopularityRowMapper = (rs, rowNum) ->
+        new TrailPopularity(
+            rs.getInt("TrailID"),
+            rs.getString("TrailName"),
+            rs.getString("NearestTown"),
+            rs.getInt("RatingSum"),
+            rs.getInt("ReviewCount")
+        );
+
+    // Full row plus its change sequence as a BIGINT Version column
+    protected final RowMapper<TrailChange> trailChangeRowMapper = (rs, rowNum) ->
+        new TrailChange(trailRowMapper.mapRow(rs, rowNum), rs.getLong("Version"));
+
+    // Outcome of an ownership-checked update: a Result column (TrailWriteResult code)
+    // and, on success, the editable fields and CreatedDate as they were before the update,
+    // the review totals (RatingSum, ReviewCount) and the first start point (Latitude, Longitude)
+    protected static TrailUpdate mapTrailUpdate(ResultSet rs, Integer trailId) throws SQLException {
+        TrailWriteResult result = TrailWriteResult.fromCode(rs.getInt("Result"));
+        if (result != TrailWriteResult.SUCCESS) {
+            return TrailUpdate.failed(result);
+        }
+        Trail before = new Trail();
+        before.setTrailId(trailId);
+        before.setTrailName(rs.getString("TrailName"));
+        before.setSummary(rs.getString("Summary"));
+        before.setTrailDescription(rs.getString("TrailDescription"));
+        before.setLengthMiles(rs.getBigDecimal("Length_Miles"));
+        before.setLengthKm(rs.getBigDecimal("Length_Km"));
+        before.setDifficulty(rs.getString("Difficulty"));
+        before.setAccessibilityNotes(rs.getString("AccessibilityNotes"));
+        before.setRouteType(rs.getString("RouteType"));
+        before.setNearestTown(rs.getString("NearestTown"));
+        before.setStartPostcode(rs.getString("StartPostcode"));
+        before.setFinishLocation(rs.getString("FinishLocation"));
+        before.setFinishPostcode(rs.getString("FinishPostcode"));
+        before.setIsPublic(rs.getBoolean("IsPublic"));
+        before.setCreatedDate(rs.getTimestamp("CreatedDate").toLocalDateTime());
+        double latitude = rs.getDouble("Latitude");
+        Double startLatitude = rs.wasNull() ? null : latitude;
+        double longitude = rs.getDouble("Longitude");
+        Double startLongitude = rs.wasNull() ? null : longitude;
+        return new TrailUpdate(result, before, rs.getInt("RatingSum"), rs.getInt("ReviewCount"),
+            startLatitude, startLongitude);
+    }
+
+    /**
+     * Public trails joined to the coordinates of their first start location
+     * (list columns plus Latitude and Longitude, no ORDER BY so an IN list can be appended)
+     */
+    protected abstract String trailLocationSql();
+
+    /**
+     * Trail detail with its first route and rating summary for
+     * parameters (TrailID, requesting UserID)
+     */
+    protected abstract String trailDetailSql(boolean includeDescription);
+
+    /**
+     * Get one page of public trails using a keyset (seek) predicate
+     * Newest first; ties on CreatedDate are broken by TrailID so pages never overlap.
+     * With a fieldset only the requested columns are read, otherwise the vw_PublicTrails list columns.
+     */
+    @Override
+    public List<Trail> findPublicPage(TrailCursor after, int limit, TrailFields fields) {
+        if (fields != null) {
+            Projection projection = projection(fields);
+            String sql = "SELECT TOP (?) " + projection.columns() + " FROM CW2.Trail " +
+                         "WHERE IsPublic = 1 AND IsDeleted = 0" +
+                         (after == null ? "" : " AND (CreatedDate < ? OR (CreatedDate = ? AND TrailID < ?))") +
+                         " ORDER BY CreatedDate DESC, TrailID DESC";
+            if (after == null) {
+                return jdbcTemplate.query(sql, projection.rowMapper(), limit);
+            }
+            Timestamp createdDate = Timestamp.valueOf(after.createdDate());
+            return jdbcTemplate.query(sql, projection.rowMapper(),
+                limit, createdDate, createdDate, after.trailId());
+        }
+
+        if (after == null) {
+            String sql = "SELECT TOP (?) * FROM CW2.vw_PublicTrails " +
+                         "ORDER BY CreatedDate DESC, TrailID DESC";
+            return jdbcTemplate.query(sql, publicTrailRowMapper, limit);
+        }
+
+        String sql = "SELECT TOP (?) * FROM CW2.vw_PublicTrails " +
+                     "WHERE CreatedDate < ? OR (CreatedDate = ? AND TrailID < ?) " +
+                     "ORDER BY CreatedDate DESC, TrailID DESC";
+        Timestamp createdDate = Timestamp.valueOf(after.createdDate());
+        return jdbcTemplate.query(sql, publicTrailRowMapper,
+            limit, createdDate, createdDate, after.trailId());
+    }
+
+    /**
+     * Stream all public trails row by row without materialising a list
+     * Each row is handed to the consumer as soon as it is read from the ResultSet.
+     * With a fieldset only the requested columns are read.
+     */
+    @Override
+    public void streamAllPublic(TrailFields fields, Consumer<Trail> consumer) {
+        String sql;
+        RowMapper<Trail> rowMapper;
+        if (fields != null) {
+            Projection projection = projection(fields);
+            sql = "SELECT " + projection.columns() + " FROM CW2.Trail " +
+                  "WHERE IsPublic = 1 AND IsDeleted = 0 ORDER BY CreatedDate DESC, TrailID DESC";
+            rowMapper = projection.rowMapper();
+        } else {
+            sql = "SELECT * FROM CW2.vw_PublicTrails ORDER BY CreatedDate DESC, TrailID DESC";
+            rowMapper = publicTrailRowMapper;
+        }
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            return ps;
+        }, rs -> {
+            consumer.accept(rowMapper.mapRow(rs, rs.getRow()));
+        });
+    }
+
+    /**
+     * Get every public, non-deleted trail with all columns (used to build the search index)
+     */
+    @Override
+    public List<Trail> findAllPublicTrails() {
+        String sql = "SELECT * FROM CW2.Trail WHERE IsDeleted = 0 AND IsPublic = 1";
+        return jdbcTemplate.query(sql, trailRowMapper);
+    }
+
+    /**
+     * Get the start coordinates of every public trail that has a located route
+     * (used to build the nearby index)
+     */
+    @Override
+    public List<TrailLocation> findAllPublicTrailLocations() {
+        return jdbcTemplate.query(trailLocationSql(), trailLocationRowMapper);
+    }
+
+    /**
+     * Get the start coordinates of the given trails; private, deleted or unrouted trails are omitted
+     */
+    @Override
+    public List<TrailLocation> findPublicTrailLocations(List<Integer> trailIds) {
+        if (trailIds.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(trailIds.size(), "?"));
+        String sql = trailLocationSql() + " AND t.TrailID IN (" + placeholders + ")";
+        return jdbcTemplate.query(sql, trailLocationRowMapper, trailIds.toArray());
+    }
+
+    /**
+     * Get the name, town and review totals of every public trail (used to build the typeahead index)
+     */
+    @Override
+    public List<TrailPopularity> findAllPublicTrailPopularity() {
+        return jdbcTemplate.query(TRAIL_POPULARITY_SQL, trailPopularityRowMapper);
+    }
+
+    /**
+     * Find only the version columns of a non-deleted trail (clustered index seek, no text columns)
+     */
+    @Override
+    public Optional<TrailVersion> findVersion(Integer trailId) {
+        String sql = "SELECT COALESCE(LastModifiedDate, CreatedDate) AS Version, IsPublic " +
+                     "FROM CW2.Trail WHERE TrailID = ? AND IsDeleted = 0";
+        List<TrailVersion> versions = jdbcTemplate.query(sql, (rs, rowNum) ->
+            new TrailVersion(trailId, rs.getTimestamp("Version").toLocalDateTime(), rs.getBoolean("IsPublic")),
+            trailId);
+        return versions.stream().findFirst();
+    }
+
+    /**
+     * Change sequence and change date of the most recently written trail (including private
+     * and deleted, since hiding or deleting a trail changes the public list too)
+     * Reads one row from the top of IX_Trail_RowVer, whose included dates cover the query;
+     * every write stamps both RowVer and the change date, so this row has the latest date.
+     */
+    @Override
+    public CollectionVersion findCollectionVersion() {
+        String sql = "SELECT TOP 1 CAST(RowVer AS BIGINT) AS Sequence, " +
+                     "COALESCE(LastModifiedDate, CreatedDate) AS Version FROM CW2.Trail ORDER BY RowVer DESC";
+        List<CollectionVersion> versions = jdbcTemplate.query(sql, (rs, rowNum) ->
+            new CollectionVersion(rs.getTimestamp("Version").toLocalDateTime(), rs.getLong("Sequence")));
+        return versions.isEmpty() ? new CollectionVersion(LocalDateTime.of(1970, 1, 1, 0, 0), 0) : versions.get(0);
+    }
+
+    /**
+     * Find trail by ID
+     */
+    @Override
+    public Optional<Trail> findById(Integer trailId) {
+        try {
+            String sql = "SELECT * FROM CW2.Trail WHERE TrailID = ? AND IsDeleted = 0";
+            Trail trail = jdbcTemplate.queryForObject(sql, trailRowMapper, trailId);
+            return Optional.ofNullable(trail);
+        } catch (EmptyResultDataAccessException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Find the detail view of a trail visible to the requesting user (public, or their own)
+     * The NVARCHAR(MAX) description is only read when includeDescription is set
+     */
+    @Override
+    public Optional<TrailDetail> findDetailById(Integer trailId, Integer requestingUserId,
+                                                boolean includeDescription) {
+        String sql = trailDetailSql(includeDescription);
+        List<TrailDetail> details = jdbcTemplate.query(sql, (rs, rowNum) -> {
+            int ratingSum = rs.getInt("RatingSum");
+            int reviewCount = rs.getInt("ReviewCount");
+            Timestamp lastModified = rs.getTimestamp("LastModifiedDate");
+            return new TrailDetail(
+                rs.getInt("TrailID"),
+                rs.getString("TrailName"),
+                rs.getString("Summary"),
+                includeDescription ? rs.getString("TrailDescription") : null,
+                rs.getBigDecimal("Length_Miles"),
+                rs.getBigDecimal("Length_Km"),
+                rs.getString("Difficulty"),
+                rs.getString("AccessibilityNotes"),
+                rs.getString("RouteType"),
+                rs.getString("NearestTown"),
+                rs.getString("CreatedBy"),
+                rs.getString("StartLocation"),
+                rs.getString("StartPostcode"),
+                rs.getString("FinishLocation"),
+                rs.getString("FinishPostcode"),
+                rs.getTimestamp("CreatedDate").toLocalDateTime(),
+                lastModified != null ? lastModified.toLocalDateTime() : null,
+                reviewCount > 0 ? (double) ratingSum / reviewCount : null,
+                reviewCount
+            );
+        }, trailId, requestingUserId);
+        return details.stream().findFirst();
+    }
+
+    /**
+     * Search trails by criteria
+     * With a fieldset only the requested columns are read, otherwise all columns
+     */
+    @Override
+    public List<Trail> searchTrails(String searchTerm, String difficulty, TrailFields fields) {
+        String sql = buildSearchSql(searchTerm, difficulty);
+        RowMapper<Trail> rowMapper = trailRowMapper;
+        if (fields != null) {
+            Projection projection = projection(fields);
+            sql = sql.replace("SELECT *", "SELECT " + projection.columns());
+            rowMapper = projection.rowMapper();
+        }
+
+        if (searchTerm != null && !searchTerm.isEmpty() && difficulty != null && !difficulty.isEmpty()) {
+            String search = "%" + searchTerm + "%";
+            return jdbcTemplate.query(sql, rowMapper, search, search, difficulty);
+        } else if (searchTerm != null && !searchTerm.isEmpty()) {
+            String search = "%" + searchTerm + "%";
+            return jdbcTemplate.query(sql, rowMapper, search, search);
+        } else if (difficulty != null && !difficulty.isEmpty()) {
+            return jdbcTemplate.query(sql, rowMapper, difficulty);
+        } else {
+            return jdbcTemplate.query(sql, rowMapper);
+        }
+    }
+
+    /**
+     * Build the search SQL for the given criteria
+     */
+    static String buildSearchSql(String searchTerm, String difficulty) {
+        StringBuilder sql = new StringBuilder(
+            "SELECT * FROM CW2.Trail WHERE IsDeleted = 0 AND IsPublic = 1"
+        );
+        
+        if (searchTerm != null && !searchTerm.isEmpty()) {
+            sql.append(" AND (TrailName LIKE ? OR NearestTown LIKE ?)");
+        }
+        
+        if (difficulty != null && !difficulty.isEmpty()) {
+            sql.append(" AND Difficulty = ?");
+        }
+        
+        sql.append(" ORDER BY CreatedDate DESC");
+        return sql.toString();
+    }
+
+    /**
+     * SQL column list and row mapper for a fieldset, built once per distinct set
+     * TrailID and CreatedDate are always read because ordering and cursors need them
+     */
+    Projection projection(TrailFields fields) {
+        Projection cached = projections.get(fields);
+        if (cached != null) {
+            return cached;
+        }
+        Projection projection = buildProjection(fields);
+        if (projections.size() < MAX_CACHED_PROJECTIONS) {
+            projections.putIfAbsent(fields, projection);
+        }
+        return projection;
+    }
+
+    private static Projection buildProjection(TrailFields fields) {
+        List<TrailField> columns = new ArrayList<>();
+        columns.add(TrailField.TRAIL_ID);
+        columns.add(TrailField.CREATED_DATE);
+        for (TrailField field : fields.fields()) {
+            if (!columns.contains(field)) {
+                columns.add(field);
+            }
+        }
+
+        String columnList = String.join(", ", columns.stream().map(TrailField::column).toList());
+        TrailField[] order = columns.toArray(new TrailField[0]);
+        RowMapper<Trail> rowMapper = (rs, rowNum) -> {
+            Trail trail = new Trail();
+            for (int i = 0; i < order.length; i++) {
+                readColumn(rs, i + 1, order[i], trail);
+            }
+            return trail;
+        };
+        return new Projection(columnList, rowMapper);
+    }
+
+    /**
+     * Read one projected column by position into the matching Trail property
+     */
+    private static void readColumn(ResultSet rs, int column, TrailField field, Trail trail) throws SQLException {
+        switch (field) {
+            case TRAIL_ID -> trail.setTrailId(rs.getInt(column));
+            case USER_ID -> trail.setUserId(rs.getInt(column));
+            case TRAIL_NAME -> trail.setTrailName(rs.getString(column));
+            case SUMMARY -> trail.setSummary(rs.getString(column));
+            case TRAIL_DESCRIPTION -> trail.setTrailDescription(rs.getString(column));
+            case LENGTH_MILES -> trail.setLengthMiles(rs.getBigDecimal(column));
+            case LENGTH_KM -> trail.setLengthKm(rs.getBigDecimal(column));
+            case DIFFICULTY -> trail.setDifficulty(rs.getString(column));
+            case ACCESSIBILITY_NOTES -> trail.setAccessibilityNotes(rs.getString(column));
+            case ROUTE_TYPE -> trail.setRouteType(rs.getString(column));
+            case NEAREST_TOWN -> trail.setNearestTown(rs.getString(column));
+            case START_POSTCODE -> trail.setStartPostcode(rs.getString(column));
+            case FINISH_LOCATION -> trail.setFinishLocation(rs.getString(column));
+            case FINISH_POSTCODE -> trail.setFinishPostcode(rs.getString(column));
+            case CREATED_DATE -> trail.setCreatedDate(rs.getTimestamp(column).toLocalDateTime());
+            case LAST_MODIFIED_DATE -> {
+                Timestamp lastModified = rs.getTimestamp(column);
+                trail.setLastModifiedDate(lastModified != null ? lastModified.toLocalDateTime() : null);
+            }
+            case LAST_MODIFIED_BY -> trail.setLastModifiedBy(rs.getObject(column, Integer.class));
+            case IS_PUBLIC -> trail.setIsPublic(rs.getBoolean(column));
+            case IS_DELETED -> trail.setIsDeleted(rs.getBoolean(column));
+        }
+    }
+}
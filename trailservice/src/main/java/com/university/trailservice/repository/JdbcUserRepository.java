@@ -0,0 +1,119 @@
+package com.university.trailservice.repository;
+
+import com.university.trailservice.model.User;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import java.sql.PreparedStatement;
+import java.util.Optional;
+
+/**
+ * JDBC User Repository
+ * User queries that SQL Server and H2 (MSSQLServer mode) both run as written;
+ * subclasses supply the set-based last login update
+ */
+@Timed(value = "trailservice.repository", description = "SQL time per repository method")
+public abstract class JdbcUserRepository implements UserRepository {
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    private final RowMapper<User> userRowMapper = (rs, rowNum) -> {
+        User user = new User();
+        user.setUserId(rs.getInt("UserID"));
+        user.setUsername(rs.getString("Username"));
+        user.setEmail(rs.getString("Email"));
+        user.setPasswordHash(rs.getString("PasswordHash"));
+        user.setCreatedDate(rs.getTimestamp("CreatedDate").toLocalDateTime());
+        if (rs.getTimestamp("LastLoginDate") != null) {
+            user.setLastLoginDate(rs.getTimestamp("LastLoginDate").toLocalDateTime());
+        }
+        user.setIsActive(rs.getBoolean("IsActive"));
+        return user;
+    };
+
+    private final RowMapper<ActiveUser> activeUserRowMapper = (rs, rowNum) ->
+        new ActiveUser(rs.getInt("UserID"), rs.getString("Username"));
+
+    /**
+     * Find user by username
+     */
+    @Override
+    public Optional<User> findByUsername(String username) {
+        try {
+            String sql = "SELECT * FROM CW2.[User] WHERE Username = ? AND IsActive = 1";
+            User user = jdbcTemplate.queryForObject(sql, userRowMapper, username);
+            return Optional.ofNullable(user);
+        } catch (EmptyResultDataAccessException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Find user by ID
+     */
+    @Override
+    public Optional<User> findById(Integer userId) {
+        try {
+            String sql = "SELECT * FROM CW2.[User] WHERE UserID = ? AND IsActive = 1";
+            User user = jdbcTemplate.queryForObject(sql, userRowMapper, userId);
+            return Optional.ofNullable(user);
+        } catch (EmptyResultDataAccessException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Find an active user by ID, reading only the ID and username
+     */
+    @Override
+    public Optional<ActiveUser> findActiveById(Integer userId) {
+        try {
+            String sql = "SELECT UserID, Username FROM CW2.[User] WHERE UserID = ? AND IsActive = 1";
+            return Optional.ofNullable(jdbcTemplate.queryForObject(sql, activeUserRowMapper, userId));
+        } catch (EmptyResultDataAccessException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Create new user using direct INSERT
+     */
+    @Override
+    public Integer createUser(String username, String email, String passwordHash) {
+        String sql = "INSERT INTO CW2.[User] (Username, Email, PasswordHash, CreatedDate, IsActive) " +
+                     "VALUES (?, ?, ?, GETDATE(), 1)";
+        
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, new String[] {"UserID"});
+            ps.setString(1, username);
+            ps.setString(2, email);
+            ps.setString(3, passwordHash);
+            return ps;
+        }, keyHolder);
+        
+        return keyHolder.getKey().intValue();
+    }
+
+    /**
+     * Check whether the username and/or email are taken, in one query
+     * Both columns are UNIQUE, so the OR is answered from their two indexes.
+     */
+    @Override
+    public RegistrationConflicts findRegistrationConflicts(String username, String email) {
+        String sql = "SELECT " +
+                     "MAX(CASE WHEN Username = ? THEN 1 ELSE 0 END) AS UsernameTaken, " +
+                     "MAX(CASE WHEN Email = ? THEN 1 ELSE 0 END) AS EmailTaken " +
+                     "FROM CW2.[User] WHERE Username = ? OR Email = ?";
+        // No matching rows gives NULLs, which getInt reads as 0
+        return jdbcTemplate.queryForObject(sql,
+            (rs, rowNum) -> new RegistrationConflicts(rs.getInt("UsernameTaken") == 1, rs.getInt("EmailTaken") == 1),
+            username, email, username, email);
+    }
+}
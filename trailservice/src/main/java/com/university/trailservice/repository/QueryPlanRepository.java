@@ -0,0 +1,42 @@
+package com.university.trailservice.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Query Plan Repository
+ * Reads compiled plans from the SQL Server plan cache (needs VIEW SERVER STATE,
+ * e.g. sa on a local container). Not @Timed: these are diagnostics, not app queries.
+ */
+@Repository
+public class QueryPlanRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Database server clock, used to mark the start of a probe
+     */
+    public LocalDateTime now() {
+        return jdbcTemplate.queryForObject("SELECT GETDATE()", Timestamp.class).toLocalDateTime();
+    }
+
+    /**
+     * Plans of statements in this database executed at or after the given server time
+     */
+    public List<CachedPlan> findPlansExecutedSince(LocalDateTime since) {
+        String sql = "SELECT DISTINCT st.text AS SqlText, CAST(qp.query_plan AS NVARCHAR(MAX)) AS PlanXml " +
+                     "FROM sys.dm_exec_query_stats qs " +
+                     "CROSS APPLY sys.dm_exec_sql_text(qs.sql_handle) st " +
+                     "CROSS APPLY sys.dm_exec_query_plan(qs.plan_handle) qp " +
+                     "WHERE qs.last_execution_time >= ? AND qp.dbid = DB_ID() " +
+                     "AND st.text NOT LIKE '%dm_exec_query_stats%' AND st.text NOT LIKE 'SELECT GETDATE()%'";
+        return jdbcTemplate.query(sql,
+            (rs, rowNum) -> new CachedPlan(rs.getString("SqlText"), rs.getString("PlanXml")),
+            Timestamp.valueOf(since));
+    }
+}
@@ -0,0 +1,10 @@
+package com.university.trailservice.repository;
+
+/**
+ * Which registration fields are already taken by an existing user
+ */
+public record RegistrationConflicts(
+    boolean usernameTaken,
+    boolean emailTaken
+) {
+}
@@ -0,0 +1,221 @@
+package com.university.trailservice.repository;
+
+import com.university.trailservice.model.Trail;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * SQL Server Trail Repository
+ * T-SQL parts of the trail data access: APPLY joins, ROWVERSION change tracking,
+ * the CW2 stored procedures and MERGE ... OUTPUT for batch inserts
+ */
+@Repository
+@Profile("!h2")
+@Timed(value = "trailservice.repository", description = "SQL time per repository method")
+public class SqlServerTrailRepository extends JdbcTrailRepository {
+
+    // Rows per multi-row insert statement (15 parameters each, SQL Server allows 2100)
+    private static final int ROWS_PER_INSERT = 100;
+
+    // Public trails joined to the coordinates of their first start location
+    private static final String TRAIL_LOCATION_SQL =
+        "SELECT t.TrailID, t.TrailName, t.Summary, t.Length_Miles, t.Length_Km, t.Difficulty, " +
+        "t.RouteType, t.NearestTown, t.CreatedDate, loc.Latitude, loc.Longitude " +
+        "FROM CW2.Trail t " +
+        "CROSS APPLY (SELECT TOP 1 l.Latitude, l.Longitude FROM CW2.TrailRoute tr " +
+        "INNER JOIN CW2.Location l ON tr.StartLocationID = l.LocationID " +
+        "WHERE tr.TrailID = t.TrailID AND l.Latitude IS NOT NULL AND l.Longitude IS NOT NULL " +
+        "ORDER BY tr.CreatedDate, tr.StartLocationID) loc " +
+        "WHERE t.IsPublic = 1 AND t.IsDeleted = 0";
+
+    // Trail detail with its first route and the maintained rating summary
+    // %s is replaced by the TrailDescription column when requested (NVARCHAR(MAX))
+    private static final String TRAIL_DETAIL_SQL =
+        "SELECT t.TrailID, t.TrailName, t.Summary, %s t.Length_Miles, t.Length_Km, t.Difficulty, " +
+        "t.AccessibilityNotes, t.RouteType, t.NearestTown, u.Username AS CreatedBy, " +
+        "r.StartLocation, COALESCE(r.StartPostcode, t.StartPostcode) AS StartPostcode, " +
+        "COALESCE(r.FinishLocation, t.FinishLocation) AS FinishLocation, " +
+        "COALESCE(r.FinishPostcode, t.FinishPostcode) AS FinishPostcode, " +
+        "t.CreatedDate, t.LastModifiedDate, rs.RatingSum, rs.ReviewCount " +
+        "FROM CW2.Trail t " +
+        "INNER JOIN CW2.[User] u ON t.UserID = u.UserID " +
+        "OUTER APPLY (SELECT TOP 1 sl.LocationName AS StartLocation, sl.Postcode AS StartPostcode, " +
+        "fl.LocationName AS FinishLocation, fl.Postcode AS FinishPostcode " +
+        "FROM CW2.TrailRoute tr " +
+        "INNER JOIN CW2.Location sl ON tr.StartLocationID = sl.LocationID " +
+        "LEFT JOIN CW2.Location fl ON tr.FinishLocationID = fl.LocationID " +
+        "WHERE tr.TrailID = t.TrailID " +
+        "ORDER BY tr.CreatedDate, tr.StartLocationID) r " +
+        "LEFT JOIN CW2.TrailRatingSummary rs ON t.TrailID = rs.TrailID " +
+        "WHERE t.TrailID = ? AND t.IsDeleted = 0 AND (t.IsPublic = 1 OR t.UserID = ?)";
+
+    @Override
+    protected String trailLocationSql() {
+        return TRAIL_LOCATION_SQL;
+    }
+
+    @Override
+    protected String trailDetailSql(boolean includeDescription) {
+        return String.format(TRAIL_DETAIL_SQL, includeDescription ? "t.TrailDescription," : "");
+    }
+
+    /**
+     * Highest change sequence that is safe to read up to
+     * Rows below MIN_ACTIVE_ROWVERSION() belong to committed transactions, so a
+     * reader never skips a change that commits later with a lower RowVer
+     */
+    @Override
+    public long findChangeHorizon() {
+        String sql = "SELECT CAST(MIN_ACTIVE_ROWVERSION() AS BIGINT) - 1";
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    /**
+     * Trails whose RowVer is in (since, upTo], oldest change first
+     */
+    @Override
+    public List<TrailChange> findChanges(long since, long upTo, int limit) {
+        String sql = "SELECT TOP (?) *, CAST(RowVer AS BIGINT) AS Version FROM CW2.Trail " +
+                     "WHERE RowVer > CAST(CAST(? AS BIGINT) AS BINARY(8)) " +
+                     "AND RowVer <= CAST(CAST(? AS BIGINT) AS BINARY(8)) " +
+                     "ORDER BY RowVer";
+        return jdbcTemplate.query(sql, trailChangeRowMapper, limit, since, upTo);
+    }
+
+    /**
+     * Create trail using stored procedure
+     */
+    @Override
+    public Integer createTrail(Trail trail) {
+        String sql = "{CALL CW2.sp_InsertTrail(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)}";
+        
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            ps.setInt(1, trail.getUserId());
+            ps.setString(2, trail.getTrailName());
+            ps.setString(3, trail.getSummary());
+            ps.setString(4, trail.getTrailDescription());
+            ps.setBigDecimal(5, trail.getLengthMiles());
+            ps.setBigDecimal(6, trail.getLengthKm());
+            ps.setString(7, trail.getDifficulty());
+            ps.setString(8, trail.getAccessibilityNotes());
+            ps.setString(9, trail.getRouteType());
+            ps.setString(10, trail.getNearestTown());
+            ps.setString(11, trail.getStartPostcode());
+            ps.setString(12, trail.getFinishLocation());
+            ps.setString(13, trail.getFinishPostcode());
+            ps.setBoolean(14, trail.getIsPublic());
+            return ps;
+        }, keyHolder);
+        
+        return keyHolder.getKey().intValue();
+    }
+
+    /**
+     * Insert many trails with one set-based statement per 100 rows
+     * Returns the new TrailIDs in the same order as the input list.
+     * MERGE is used because its OUTPUT clause can return the source row number
+     * alongside the generated identity; OUTPUT INTO is required because CW2.Trail has triggers.
+     */
+    @Override
+    public List<Integer> createTrails(List<Trail> trails) {
+        Integer[] trailIds = new Integer[trails.size()];
+
+        for (int from = 0; from < trails.size(); from += ROWS_PER_INSERT) {
+            List<Trail> slice = trails.subList(from, Math.min(from + ROWS_PER_INSERT, trails.size()));
+
+            StringBuilder sql = new StringBuilder(
+                "SET NOCOUNT ON; " +
+                "DECLARE @NewTrails TABLE (RowNum INT, TrailID INT); " +
+                "MERGE INTO CW2.Trail AS t USING (VALUES "
+            );
+            List<Object> args = new ArrayList<>(slice.size() * 15);
+            for (int i = 0; i < slice.size(); i++) {
+                Trail trail = slice.get(i);
+                sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+                args.add(from + i);
+                args.add(trail.getUserId());
+                args.add(trail.getTrailName());
+                args.add(trail.getSummary());
+                args.add(trail.getTrailDescription());
+                args.add(trail.getLengthMiles());
+                args.add(trail.getLengthKm());
+                args.add(trail.getDifficulty());
+                args.add(trail.getAccessibilityNotes());
+                args.add(trail.getRouteType());
+                args.add(trail.getNearestTown());
+                args.add(trail.getStartPostcode());
+                args.add(trail.getFinishLocation());
+                args.add(trail.getFinishPostcode());
+                args.add(trail.getIsPublic());
+            }
+            sql.append(") AS s (RowNum, UserID, TrailName, Summary, TrailDescription, " +
+                       "Length_Miles, Length_Km, Difficulty, AccessibilityNotes, RouteType, " +
+                       "NearestTown, StartPostcode, FinishLocation, FinishPostcode, IsPublic) " +
+                       "ON 1 = 0 " +
+                       "WHEN NOT MATCHED THEN INSERT (UserID, TrailName, Summary, TrailDescription, " +
+                       "Length_Miles, Length_Km, Difficulty, AccessibilityNotes, RouteType, " +
+                       "NearestTown, StartPostcode, FinishLocation, FinishPostcode, IsPublic) " +
+                       "VALUES (s.UserID, s.TrailName, s.Summary, s.TrailDescription, " +
+                       "s.Length_Miles, s.Length_Km, s.Difficulty, s.AccessibilityNotes, s.RouteType, " +
+                       "s.NearestTown, s.StartPostcode, s.FinishLocation, s.FinishPostcode, s.IsPublic) " +
+                       "OUTPUT s.RowNum, inserted.TrailID INTO @NewTrails; " +
+                       "SELECT RowNum, TrailID FROM @NewTrails");
+
+            jdbcTemplate.query(sql.toString(), rs -> {
+                trailIds[rs.getInt("RowNum")] = rs.getInt("TrailID");
+            }, args.toArray());
+        }
+
+        return Arrays.asList(trailIds);
+    }
+
+    /**
+     * Update trail using stored procedure
+     * Ownership is enforced by the procedure's UPDATE, so no pre-read is needed.
+     * On success the procedure also returns the previous field values.
+     */
+    @Override
+    public TrailUpdate updateTrail(Integer trailId, Integer userId, Trail trail) {
+        String sql = "{CALL CW2.sp_UpdateTrail(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)}";
+        
+        return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> mapTrailUpdate(rs, trailId),
+            trailId,
+            userId,
+            trail.getTrailName(),
+            trail.getSummary(),
+            trail.getTrailDescription(),
+            trail.getLengthMiles(),
+            trail.getLengthKm(),
+            trail.getDifficulty(),
+            trail.getAccessibilityNotes(),
+            trail.getRouteType(),
+            trail.getNearestTown(),
+            trail.getStartPostcode(),
+            trail.getFinishLocation(),
+            trail.getFinishPostcode(),
+            trail.getIsPublic()
+        );
+    }
+
+    /**
+     * Soft delete trail using stored procedure
+     * Ownership is enforced by the procedure's UPDATE, so no pre-read is needed
+     */
+    @Override
+    public TrailWriteResult deleteTrail(Integer trailId, Integer userId) {
+        String sql = "{CALL CW2.sp_DeleteTrail(?, ?)}";
+        Integer result = jdbcTemplate.queryForObject(sql, Integer.class, trailId, userId);
+        return TrailWriteResult.fromCode(result);
+    }
+}
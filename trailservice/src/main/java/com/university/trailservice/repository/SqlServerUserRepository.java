@@ -0,0 +1,48 @@
+package com.university.trailservice.repository;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL Server User Repository
+ * T-SQL parts of the user data access (UPDATE ... FROM a table value constructor)
+ */
+@Repository
+@Profile("!h2")
+@Timed(value = "trailservice.repository", description = "SQL time per repository method")
+public class SqlServerUserRepository extends JdbcUserRepository {
+
+    // Table value constructors are limited to 1000 rows (and 2100 parameters)
+    private static final int ROWS_PER_UPDATE = 1000;
+
+    /**
+     * Set the last login date of many users, one set-based UPDATE per 1000 users
+     * A date is only ever moved forward, so a late flush cannot overwrite a newer login.
+     */
+    @Override
+    public void updateLastLogins(Map<Integer, LocalDateTime> lastLogins) {
+        List<Map.Entry<Integer, LocalDateTime>> entries = new ArrayList<>(lastLogins.entrySet());
+        for (int from = 0; from < entries.size(); from += ROWS_PER_UPDATE) {
+            List<Map.Entry<Integer, LocalDateTime>> slice =
+                entries.subList(from, Math.min(from + ROWS_PER_UPDATE, entries.size()));
+
+            StringBuilder sql = new StringBuilder(
+                "UPDATE u SET LastLoginDate = v.LoginDate FROM CW2.[User] AS u JOIN (VALUES ");
+            List<Object> args = new ArrayList<>(slice.size() * 2);
+            for (int i = 0; i < slice.size(); i++) {
+                sql.append(i == 0 ? "" : ", ").append("(?, ?)");
+                args.add(slice.get(i).getKey());
+                args.add(Timestamp.valueOf(slice.get(i).getValue()));
+            }
+            sql.append(") AS v (UserID, LoginDate) ON u.UserID = v.UserID " +
+                       "WHERE u.LastLoginDate IS NULL OR u.LastLoginDate < v.LoginDate");
+            jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+    }
+}
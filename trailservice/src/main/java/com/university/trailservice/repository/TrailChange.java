@@ -0,0 +1,12 @@
+package com.university.trailservice.repository;
+
+import com.university.trailservice.model.Trail;
+
+/**
+ * A trail row read from the change feed with its change sequence (RowVer)
+ */
+public record TrailChange(
+    Trail trail,
+    long version
+) {
+}
@@ -0,0 +1,21 @@
+package com.university.trailservice.repository;
+
+/**
+ * Name, town and review totals of a public trail, used to weight typeahead suggestions
+ */
+public record TrailPopularity(
+    Integer trailId,
+    String trailName,
+    String nearestTown,
+    int ratingSum,
+    int reviewCount
+) {
+
+    /**
+     * Suggestion weight: the sum of all ratings, so both many reviews and high
+     * ratings rank a trail higher; unreviewed trails weigh 1
+     */
+    public int weight() {
+        return 1 + ratingSum;
+    }
+}
@@ -0,0 +1,27 @@
+package com.university.trailservice.repository;
+
+import com.university.trailservice.model.Trail;
+
+/**
+ * Outcome of sp_UpdateTrail
+ * On success, before holds the editable fields and CreatedDate as they were prior to
+ * the update (used to audit every changed field), along with the trail's review totals
+ * and first located start point (null if none) so the in-memory indexes can be updated
+ * without re-reading the row; otherwise before is null.
+ */
+public record TrailUpdate(
+    TrailWriteResult result,
+    Trail before,
+    int ratingSum,
+    int reviewCount,
+    Double startLatitude,
+    Double startLongitude
+) {
+
+    /**
+     * An update that matched no row (not the owner, or no such trail)
+     */
+    public static TrailUpdate failed(TrailWriteResult result) {
+        return new TrailUpdate(result, null, 0, 0, null, null);
+    }
+}
@@ -0,0 +1,25 @@
+package com.university.trailservice.repository;
+
+import com.university.trailservice.model.Trail;
+import java.time.LocalDateTime;
+
+/**
+ * Version of a single trail for HTTP validators
+ * lastModified is LastModifiedDate, or CreatedDate for a trail never updated
+ */
+public record TrailVersion(
+    Integer trailId,
+    LocalDateTime lastModified,
+    boolean isPublic
+) {
+
+    /**
+     * Version of an already loaded trail
+     */
+    public static TrailVersion of(Trail trail) {
+        LocalDateTime lastModified = trail.getLastModifiedDate() != null
+            ? trail.getLastModifiedDate()
+            : trail.getCreatedDate();
+        return new TrailVersion(trail.getTrailId(), lastModified, Boolean.TRUE.equals(trail.getIsPublic()));
+    }
+}
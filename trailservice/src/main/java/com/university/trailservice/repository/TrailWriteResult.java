@@ -0,0 +1,18 @@
+package com.university.trailservice.repository;
+
+/**
+ * Outcome of an ownership-checked trail write
+ * Matches the Result codes returned by sp_UpdateTrail and sp_DeleteTrail
+ */
+public enum TrailWriteResult {
+    SUCCESS,
+    NOT_OWNER,
+    NOT_FOUND;
+
+    static TrailWriteResult fromCode(Integer code) {
+        if (code == null || code < 0 || code >= values().length) {
+            throw new IllegalStateException("Unexpected trail write result: " + code);
+        }
+        return values()[code];
+    }
+}
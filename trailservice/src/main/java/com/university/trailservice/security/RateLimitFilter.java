@@ -0,0 +1,92 @@
+package com.university.trailservice.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.university.trailservice.dto.ApiResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate Limit Filter
+ * Runs after JwtAuthenticationFilter so authenticated callers are limited per user
+ * and everyone else per client IP. Over the limit: 429 with Retry-After (seconds).
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${trails.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RateLimiter.Route route = enabled ? routeOf(request) : null;
+        if (route != null) {
+            long waitNanos = rateLimiter.tryAcquire(route, clientOf(request));
+            if (waitNanos > 0) {
+                reject(response, waitNanos);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Route class of a request, or null for endpoints that are not limited
+     * (health, actuator, API docs and CORS preflight)
+     */
+    private static RateLimiter.Route routeOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/api/auth/")) {
+            return RateLimiter.Route.AUTH;
+        }
+        if (!path.equals("/api/trails") && !path.startsWith("/api/trails/")) {
+            return null;
+        }
+        String method = request.getMethod();
+        if (HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method)) {
+            return RateLimiter.Route.READ;
+        }
+        return HttpMethod.OPTIONS.matches(method) ? null : RateLimiter.Route.WRITE;
+    }
+
+    /**
+     * "user:{id}" for an authenticated request, otherwise "ip:{remote address}"
+     * Behind the CDN the remote address is the client's, resolved from X-Forwarded-For
+     * by server.forward-headers-strategy=native against the trusted proxies.
+     */
+    private static String clientOf(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return "user:" + principal.userId();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+            ApiResponse.error("Too many requests, please retry in " + retryAfterSeconds + "s"));
+    }
+}
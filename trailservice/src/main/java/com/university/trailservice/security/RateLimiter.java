@@ -0,0 +1,118 @@
+package com.university.trailservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket rate limiter, one bucket per client and route class
+ * Each bucket is a single AtomicLong updated by compare-and-set (GCRA: the state is
+ * the time at which the bucket will be full again), so checks never take a lock.
+ * Buckets live in size-bounded caches and are dropped once idle; a dropped bucket
+ * would have refilled by then anyway.
+ */
+@Component
+public class RateLimiter {
+
+    /**
+     * Route classes with separate limits
+     */
+    public enum Route {
+        AUTH, READ, WRITE
+    }
+
+    @Value("${trails.rate-limit.auth.capacity:10}")
+    private int authCapacity;
+
+    @Value("${trails.rate-limit.auth.refill-per-second:0.2}")
+    private double authRefillPerSecond;
+
+    @Value("${trails.rate-limit.read.capacity:100}")
+    private int readCapacity;
+
+    @Value("${trails.rate-limit.read.refill-per-second:50}")
+    private double readRefillPerSecond;
+
+    @Value("${trails.rate-limit.write.capacity:20}")
+    private int writeCapacity;
+
+    @Value("${trails.rate-limit.write.refill-per-second:2}")
+    private double writeRefillPerSecond;
+
+    @Value("${trails.rate-limit.max-keys:100000}")
+    private long maxKeys;
+
+    @Value("${trails.rate-limit.idle-expiry-seconds:600}")
+    private long idleExpirySeconds;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Route, Limit> limits = new EnumMap<>(Route.class);
+
+    // Nanoseconds between tokens, burst tolerance and the bucket of each client
+    private record Limit(long interval, long tolerance, Cache<String, AtomicLong> buckets, Counter rejected) {
+    }
+
+    @PostConstruct
+    void init() {
+        limits.put(Route.AUTH, limit(Route.AUTH, authCapacity, authRefillPerSecond));
+        limits.put(Route.READ, limit(Route.READ, readCapacity, readRefillPerSecond));
+        limits.put(Route.WRITE, limit(Route.WRITE, writeCapacity, writeRefillPerSecond));
+    }
+
+    /**
+     * Take a token for the client on this route class
+     * Returns 0 when allowed, otherwise the nanoseconds until a token is available.
+     */
+    public long tryAcquire(Route route, String client) {
+        Limit limit = limits.get(route);
+        AtomicLong bucket = limit.buckets().get(client, key -> new AtomicLong(Long.MIN_VALUE));
+        long now = System.nanoTime();
+        while (true) {
+            long full = bucket.get();
+            long next = Math.max(full, now) + limit.interval();
+            long excess = next - now - limit.tolerance();
+            if (excess > 0) {
+                limit.rejected().increment();
+                return excess;
+            }
+            if (bucket.compareAndSet(full, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private Limit limit(Route route, int capacity, double refillPerSecond) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate limit for " + route + " needs capacity >= 1 and refill > 0");
+        }
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+        long tolerance = interval * capacity;
+        String name = route.name().toLowerCase(Locale.ROOT);
+        // Never forget a bucket before it could have refilled completely
+        long idleNanos = Math.max(TimeUnit.SECONDS.toNanos(idleExpirySeconds), tolerance);
+        Cache<String, AtomicLong> buckets = Caffeine.newBuilder()
+            .maximumSize(maxKeys)
+            .expireAfterAccess(idleNanos, TimeUnit.NANOSECONDS)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "rateLimit." + name);
+        Counter rejected = Counter.builder("trailservice.ratelimit.rejected")
+            .description("Requests refused with 429 Too Many Requests")
+            .tag("route", name)
+            .register(meterRegistry);
+        return new Limit(interval, tolerance, buckets, rejected);
+    }
+}
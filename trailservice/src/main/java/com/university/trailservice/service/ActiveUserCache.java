@@ -0,0 +1,75 @@
+package com.university.trailservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.university.trailservice.repository.ActiveUser;
+import com.university.trailservice.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+
+/**
+ * Active User Cache
+ * Short-lived cache of users known to be active, so trail writes do not re-read the
+ * user row each time. Only the ID and username are held (never the password hash).
+ * Inactive or unknown users are not cached; a deactivated user drops out after the
+ * TTL at the latest, or as soon as a write for them is refused by the database.
+ */
+@Component
+public class ActiveUserCache {
+
+    private final Cache<Integer, ActiveUser> cache;
+    private final UserRepository userRepository;
+
+    public ActiveUserCache(@Value("${users.cache.max-size:10000}") long maxSize,
+                           @Value("${users.cache.ttl-seconds:60}") long ttlSeconds,
+                           UserRepository userRepository,
+                           MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "activeUsers");
+    }
+
+    /**
+     * The active user, from the cache when possible
+     * The load runs outside the cache's internal locks (see TrailCache).
+     */
+    public ActiveUser require(Integer userId) {
+        ActiveUser cached = cache.getIfPresent(userId);
+        return cached != null ? cached : requireFresh(userId);
+    }
+
+    /**
+     * The active user read from the database, refreshing the cache
+     * For writes that the database does not check again itself.
+     */
+    public ActiveUser requireFresh(Integer userId) {
+        ActiveUser user = userRepository.findActiveById(userId).orElse(null);
+        if (user == null) {
+            cache.invalidate(userId);
+            throw new RuntimeException("User not found or inactive");
+        }
+        cache.put(userId, user);
+        return user;
+    }
+
+    /**
+     * Remember a user just seen to be active (registration, login)
+     */
+    public void put(ActiveUser user) {
+        cache.put(user.userId(), user);
+    }
+
+    /**
+     * Forget a user, e.g. after the database refused a write for them
+     */
+    public void invalidate(Integer userId) {
+        cache.invalidate(userId);
+    }
+}
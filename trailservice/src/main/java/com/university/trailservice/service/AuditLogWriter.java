@@ -0,0 +1,310 @@
+package com.university.trailservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.university.trailservice.model.AuditEvent;
+import com.university.trailservice.repository.AuditLogRepository;
+import com.university.trailservice.security.UserPrincipal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Audit Log Writer
+ * Audit events are queued by the request thread and written to the database in
+ * batches by a single background thread, so auditing never holds locks on CW2.Trail.
+ * When the queue is full or the database is unavailable, events are appended to a
+ * local spill file (one JSON object per line) and replayed later. Only events that
+ * reached the database or the spill file survive a crash: anything still queued in
+ * memory (up to queue-capacity events) is lost. A clean shutdown drains the queue.
+ */
+@Component
+public class AuditLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${trails.audit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${trails.audit.batch-size:500}")
+    private int batchSize;
+
+    @Value("${trails.audit.flush-interval-ms:200}")
+    private long flushIntervalMillis;
+
+    @Value("${trails.audit.spill-file:logs/audit-spill.ndjson}")
+    private String spillFile;
+
+    @Value("${trails.audit.replay-interval-ms:30000}")
+    private long replayIntervalMillis;
+
+    // Spill appends come from request threads and the writer thread; ReentrantLock
+    // rather than synchronized so virtual threads are not pinned during file I/O
+    private final ReentrantLock spillLock = new ReentrantLock();
+
+    private BlockingQueue<AuditEvent> queue;
+    private Path spillPath;
+    private Thread writerThread;
+    private volatile boolean running;
+    private long nextReplayAt;
+    private Counter written;
+    private Counter spilled;
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        spillPath = Path.of(spillFile);
+
+        Gauge.builder("trailservice.audit.queue", queue, BlockingQueue::size)
+            .description("Audit events waiting to be written")
+            .register(meterRegistry);
+        written = meterRegistry.counter("trailservice.audit.events", "outcome", "written");
+        spilled = meterRegistry.counter("trailservice.audit.events", "outcome", "spilled");
+
+        running = true;
+        writerThread = new Thread(this::run, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Queue an event; never blocks the caller
+     */
+    public void record(AuditEvent event) {
+        if (!queue.offer(event)) {
+            spill(List.of(event));
+        }
+    }
+
+    /**
+     * Queue several events (e.g. one per changed field)
+     */
+    public void recordAll(List<AuditEvent> events) {
+        for (AuditEvent event : events) {
+            record(event);
+        }
+    }
+
+    /**
+     * Username of the authenticated caller, or null outside a request
+     */
+    public static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.username();
+        }
+        return null;
+    }
+
+    /**
+     * Client address of the current request, or null outside a request
+     */
+    public static String currentIpAddress() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            return request.getRemoteAddr();
+        }
+        return null;
+    }
+
+    /**
+     * Drain the queue on shutdown; anything the database will not take is spilled
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // No interrupt: the writer finishes its current batch and exits within one flush interval
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+
+        List<AuditEvent> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            write(remaining.subList(from, Math.min(from + batchSize, remaining.size())));
+        }
+    }
+
+    private void run() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                writeNextBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Replay the spill file when due, then write whatever is queued
+     * The replay is checked on every pass, not only when the queue is idle, so a
+     * steady stream of events cannot hold spilled events back indefinitely.
+     */
+    private void writeNextBatch(List<AuditEvent> batch) throws InterruptedException {
+        if (System.currentTimeMillis() >= nextReplayAt) {
+            nextReplayAt = System.currentTimeMillis() + replayIntervalMillis;
+            replaySpillFile();
+        }
+        AuditEvent first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        queue.drainTo(batch, batchSize - 1);
+        write(batch);
+    }
+
+    /**
+     * Write one batch, spilling it if the database rejects it
+     * Returns false when the batch was spilled
+     */
+    private boolean write(List<AuditEvent> batch) {
+        try {
+            auditLogRepository.insertAll(batch);
+            written.increment(batch.size());
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("Could not write {} audit events, spilling to {}: {}",
+                batch.size(), spillPath, e.getMessage());
+            spill(batch);
+            return false;
+        }
+    }
+
+    /**
+     * Append events to the spill file and fsync before returning
+     */
+    private void spill(List<AuditEvent> events) {
+        spillLock.lock();
+        try {
+            Path parent = spillPath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (FileChannel channel = FileChannel.open(spillPath,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                 OutputStream out = Channels.newOutputStream(channel)) {
+                for (AuditEvent event : events) {
+                    out.write(objectMapper.writeValueAsBytes(event));
+                    out.write('\n');
+                }
+                out.flush();
+                channel.force(false);
+            }
+            spilled.increment(events.size());
+        } catch (IOException e) {
+            logger.error("Could not spill {} audit events, they are lost", events.size(), e);
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    /**
+     * Move the spill file aside and write its events back in batches
+     * Once a batch fails the rest go straight back to the spill file, so an outage
+     * costs one failed write per replay rather than one per batch.
+     */
+    private void replaySpillFile() {
+        Path replayPath = spillPath.resolveSibling(spillPath.getFileName() + ".replay");
+        spillLock.lock();
+        try {
+            // A leftover .replay file means a previous replay was interrupted; retry it first
+            if (!Files.exists(replayPath)) {
+                if (!Files.exists(spillPath)) {
+                    return;
+                }
+                Files.move(spillPath, replayPath, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not open audit spill file for replay: {}", e.getMessage());
+            return;
+        } finally {
+            spillLock.unlock();
+        }
+
+        int replayed = 0;
+        boolean failed = false;
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        try (BufferedReader reader = Files.newBufferedReader(replayPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.add(objectMapper.readValue(line, AuditEvent.class));
+                } catch (IOException e) {
+                    logger.error("Skipping unreadable spilled audit event: {}", line);
+                    continue;
+                }
+                if (batch.size() == batchSize) {
+                    failed = replayBatch(batch, failed);
+                    replayed += failed ? 0 : batch.size();
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                failed = replayBatch(batch, failed);
+                replayed += failed ? 0 : batch.size();
+            }
+            Files.delete(replayPath);
+            if (replayed > 0) {
+                logger.info("Replayed {} spilled audit events", replayed);
+            }
+        } catch (IOException e) {
+            logger.error("Could not replay audit spill file {}", replayPath, e);
+        }
+    }
+
+    /**
+     * Write a replayed batch, or re-spill it if an earlier batch already failed
+     * Returns whether the replay has failed so far
+     */
+    private boolean replayBatch(List<AuditEvent> batch, boolean failed) {
+        if (failed) {
+            spill(batch);
+            return true;
+        }
+        return !write(batch);
+    }
+}
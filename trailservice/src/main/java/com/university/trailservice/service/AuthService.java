@@ -4,10 +4,11 @@ import com.university.trailservice.dto.AuthResponse;
 import com.university.trailservice.dto.LoginRequest;
 import com.university.trailservice.dto.RegisterRequest;
 import com.university.trailservice.model.User;
+import com.university.trailservice.repository.ActiveUser;
+import com.university.trailservice.repository.RegistrationConflicts;
 import com.university.trailservice.repository.UserRepository;
 import com.university.trailservice.security.JwtTokenProvider;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 /**
@@ -21,27 +22,32 @@ public class AuthService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
 
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
 
+    @Autowired
+    private ActiveUserCache activeUserCache;
+
+    @Autowired
+    private LastLoginWriter lastLoginWriter;
+
     /**
      * Register new user
      */
     public AuthResponse register(RegisterRequest request) {
-        // Check if username already exists
-        if (userRepository.existsByUsername(request.username())) {
+        // Check username and email uniqueness (one query)
+        RegistrationConflicts conflicts = userRepository.findRegistrationConflicts(request.username(), request.email());
+        if (conflicts.usernameTaken()) {
             throw new RuntimeException("Username already exists");
         }
-
-        // Check if email already exists
-        if (userRepository.existsByEmail(request.email())) {
+        if (conflicts.emailTaken()) {
             throw new RuntimeException("Email already exists");
         }
 
-        // Hash password
-        String passwordHash = passwordEncoder.encode(request.password());
+        // Hash password (bounded BCrypt pool)
+        String passwordHash = passwordHasher.encode(request.password());
 
         // Create user
         Integer userId = userRepository.createUser(
@@ -49,6 +55,7 @@ public class AuthService {
             request.email(),
             passwordHash
         );
+        activeUserCache.put(new ActiveUser(userId, request.username()));
 
         // Generate JWT token
         String token = jwtTokenProvider.generateToken(userId, request.username());
@@ -64,17 +71,19 @@ public class AuthService {
         User user = userRepository.findByUsername(request.username())
             .orElseThrow(() -> new RuntimeException("Invalid username or password"));
 
-        // Verify password
-        if (!passwordEncoder.matches(request.password(), user.getPasswordHash())) {
+        // Verify password (bounded BCrypt pool)
+        if (!passwordHasher.matches(request.password(), user.getPasswordHash())) {
             throw new RuntimeException("Invalid username or password");
         }
 
-        // Update last login
-        userRepository.updateLastLogin(user.getUserId());
+        // Update last login (buffered, written in the background)
+        lastLoginWriter.record(user.getUserId());
+        activeUserCache.put(new ActiveUser(user.getUserId(), user.getUsername()));
 
         // Generate JWT token
         String token = jwtTokenProvider.generateToken(user.getUserId(), user.getUsername());
 
         return new AuthResponse(user.getUserId(), user.getUsername(), user.getEmail(), token);
     }
+
 }
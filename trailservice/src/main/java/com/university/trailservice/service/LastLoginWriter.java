@@ -0,0 +1,120 @@
+package com.university.trailservice.service;
+
+import com.university.trailservice.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Last Login Writer
+ * Logins only note the time in memory (latest per user wins); a background thread
+ * writes everything pending as one set-based UPDATE per interval, so login latency
+ * excludes the write and CW2.[User] sees at most one write per user per interval.
+ * Pending dates are flushed on shutdown; a crash loses at most one interval.
+ */
+@Component
+public class LastLoginWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LastLoginWriter.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${users.last-login.flush-interval-ms:5000}")
+    private long flushIntervalMillis;
+
+    private final ConcurrentHashMap<Integer, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    private Thread writerThread;
+    private volatile boolean running;
+    private Counter logins;
+    private Counter written;
+
+    @PostConstruct
+    void start() {
+        Gauge.builder("trailservice.lastlogin.pending", pending, Map::size)
+            .description("Users whose last login date is waiting to be written")
+            .register(meterRegistry);
+        logins = meterRegistry.counter("trailservice.lastlogin.logins");
+        written = meterRegistry.counter("trailservice.lastlogin.written");
+
+        running = true;
+        writerThread = new Thread(this::run, "last-login-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Note a successful login; never touches the database
+     */
+    public void record(Integer userId) {
+        pending.merge(userId, LocalDateTime.now(), LastLoginWriter::latest);
+        logins.increment();
+    }
+
+    /**
+     * Write all pending dates on shutdown
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // No interrupt: the writer finishes its current flush and exits within one interval
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        flush();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                Thread.sleep(flushIntervalMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            flush();
+        }
+    }
+
+    /**
+     * Take everything pending and write it; on failure it is put back for the next flush
+     */
+    private void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Integer, LocalDateTime> batch = new HashMap<>();
+        for (Integer userId : pending.keySet()) {
+            LocalDateTime loggedIn = pending.remove(userId);
+            if (loggedIn != null) {
+                batch.put(userId, loggedIn);
+            }
+        }
+        try {
+            userRepository.updateLastLogins(batch);
+            written.increment(batch.size());
+        } catch (RuntimeException e) {
+            logger.warn("Could not write last login for {} users, retrying next interval: {}",
+                batch.size(), e.getMessage());
+            batch.forEach((userId, loggedIn) -> pending.merge(userId, loggedIn, LastLoginWriter::latest));
+        }
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
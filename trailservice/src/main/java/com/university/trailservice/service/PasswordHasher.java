@@ -0,0 +1,166 @@
+package com.university.trailservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Password Hasher
+ * Runs BCrypt on a small dedicated thread pool with a bounded queue, so login
+ * and registration storms cannot take over the threads serving trail reads.
+ * When the pool and queue are full, callers are rejected immediately.
+ * Optionally calibrates the BCrypt cost on startup to hit a target hash time.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHasher.class);
+
+    // Highest cost tried during calibration (each step doubles the work)
+    private static final int MAX_ADAPTIVE_STRENGTH = 16;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${bcrypt.pool.threads:0}")
+    private int threads;
+
+    @Value("${bcrypt.pool.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${bcrypt.pool.timeout-ms:5000}")
+    private long timeoutMillis;
+
+    @Value("${bcrypt.adaptive.target-ms:0}")
+    private long adaptiveTargetMillis;
+
+    @Value("${bcrypt.strength:10}")
+    private int minStrength;
+
+    private ThreadPoolExecutor executor;
+    private PasswordEncoder encoder;
+    private Counter rejected;
+    private Timer encodeTimer;
+    private Timer matchesTimer;
+    private volatile int calibratedStrength;
+
+    @PostConstruct
+    void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "bcrypt-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "bcrypt");
+        rejected = Counter.builder("trailservice.auth.password.rejected")
+            .description("Hashing requests rejected because the BCrypt pool was saturated")
+            .register(meterRegistry);
+        encodeTimer = hashTimer("encode");
+        matchesTimer = hashTimer("matches");
+
+        encoder = adaptiveTargetMillis > 0 ? calibrate() : passwordEncoder;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Hash a new password
+     */
+    public String encode(String rawPassword) {
+        return submit(encodeTimer, () -> encoder.encode(rawPassword));
+    }
+
+    /**
+     * Check a password against a stored hash (any BCrypt cost)
+     */
+    public boolean matches(String rawPassword, String passwordHash) {
+        return submit(matchesTimer, () -> encoder.matches(rawPassword, passwordHash));
+    }
+
+    private Timer hashTimer(String operation) {
+        return Timer.builder("trailservice.auth.password")
+            .description("BCrypt hashing time")
+            .tag("operation", operation)
+            .register(meterRegistry);
+    }
+
+    private <T> T submit(Timer timer, Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingBusyException();
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new PasswordHashingBusyException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Pick the highest BCrypt cost whose hash time stays within the target
+     * Never goes below bcrypt.strength
+     */
+    private PasswordEncoder calibrate() {
+        int strength = minStrength;
+        for (int candidate = minStrength; candidate <= MAX_ADAPTIVE_STRENGTH; candidate++) {
+            BCryptPasswordEncoder probe = new BCryptPasswordEncoder(candidate);
+            probe.encode("calibration-warmup");
+            long start = System.nanoTime();
+            probe.encode("calibration-password");
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (elapsedMillis > adaptiveTargetMillis) {
+                break;
+            }
+            strength = candidate;
+        }
+        calibratedStrength = strength;
+        logger.info("BCrypt cost calibrated to {} for a target of {} ms", strength, adaptiveTargetMillis);
+        Gauge.builder("trailservice.auth.password.strength", () -> calibratedStrength)
+            .description("BCrypt cost chosen by adaptive calibration")
+            .register(meterRegistry);
+        return new BCryptPasswordEncoder(strength);
+    }
+}
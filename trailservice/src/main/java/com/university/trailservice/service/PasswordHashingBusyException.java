@@ -0,0 +1,14 @@
+package com.university.trailservice.service;
+
+/**
+ * Thrown when the BCrypt worker pool is saturated
+ * Mapped to 503 Service Unavailable with a Retry-After header
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingBusyException() {
+        super("Authentication service is busy, please retry shortly");
+    }
+}
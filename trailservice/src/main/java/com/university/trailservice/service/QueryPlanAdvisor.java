@@ -0,0 +1,264 @@
+package com.university.trailservice.service;
+
+import com.university.trailservice.dto.QueryPlanReport;
+import com.university.trailservice.dto.QueryPlanReport.AllowedScans;
+import com.university.trailservice.dto.TrailCursor;
+import com.university.trailservice.dto.TrailFields;
+import com.university.trailservice.repository.CachedPlan;
+import com.university.trailservice.repository.QueryPlanRepository;
+import com.university.trailservice.repository.TrailRepository;
+import com.university.trailservice.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Query Plan Advisor
+ * Runs each repository query once with sample arguments and reads the plan SQL Server
+ * actually used from the plan cache, flagging scans of CW2 tables that the indexes in
+ * db/migration should have turned into seeks. Meant for a local SQL Server container
+ * with seeded data and no other traffic (other statements in the same window are
+ * attributed to the probe that was running).
+ */
+@Service
+public class QueryPlanAdvisor {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryPlanAdvisor.class);
+
+    private static final String SHOWPLAN_NS = "http://schemas.microsoft.com/sqlserver/2004/07/showplan";
+    private static final String APP_SCHEMA = "[CW2]";
+    private static final int PROBE_PAGE_SIZE = 20;
+    private static final int PROBE_ID = 1;
+    private static final String PROBE_USERNAME = "query-plan-probe";
+
+    @Autowired
+    private QueryPlanRepository queryPlanRepository;
+
+    @Autowired
+    private TrailRepository trailRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${trails.diagnostics.query-plans.enabled:false}")
+    private boolean enabled;
+
+    @Value("${trails.diagnostics.query-plans.on-startup:false}")
+    private boolean onStartup;
+
+    // One capture at a time, otherwise probes would see each other's plans
+    private final ReentrantLock captureLock = new ReentrantLock();
+
+    private record Probe(String query, AllowedScans allowedScans, Runnable run) {
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Capture the plan of every probed query
+     */
+    public List<QueryPlanReport> capture() {
+        captureLock.lock();
+        try {
+            List<QueryPlanReport> reports = new ArrayList<>();
+            for (Probe probe : probes()) {
+                reports.add(capture(probe));
+            }
+            return reports;
+        } finally {
+            captureLock.unlock();
+        }
+    }
+
+    /**
+     * Optionally check the plans once the application has started and log any regression
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkOnStartup() {
+        if (!enabled || !onStartup) {
+            return;
+        }
+        try {
+            List<QueryPlanReport> reports = capture();
+            long regressions = 0;
+            for (QueryPlanReport report : reports) {
+                if (report.error() != null) {
+                    logger.warn("Query plan probe {} failed: {}", report.query(), report.error());
+                } else if (report.regression()) {
+                    regressions++;
+                    logger.warn("Query plan regression in {}: {}", report.query(), report.regressions());
+                }
+            }
+            logger.info("Query plans checked for {} queries, {} regressions", reports.size(), regressions);
+        } catch (RuntimeException e) {
+            logger.error("Could not check query plans", e);
+        }
+    }
+
+    private List<Probe> probes() {
+        TrailCursor cursor = new TrailCursor(LocalDateTime.now(), Integer.MAX_VALUE);
+        TrailFields fields = TrailFields.parseListed("trailName,difficulty");
+        return List.of(
+            new Probe("TrailRepository.findPublicPage", AllowedScans.NARROW_INDEX,
+                () -> trailRepository.findPublicPage(null, PROBE_PAGE_SIZE, null)),
+            new Probe("TrailRepository.findPublicPage(after)", AllowedScans.NARROW_INDEX,
+                () -> trailRepository.findPublicPage(cursor, PROBE_PAGE_SIZE, null)),
+            new Probe("TrailRepository.findPublicPage(fields)", AllowedScans.NARROW_INDEX,
+                () -> trailRepository.findPublicPage(null, PROBE_PAGE_SIZE, fields)),
+            new Probe("TrailRepository.streamAllPublic", AllowedScans.NARROW_INDEX,
+                () -> trailRepository.streamAllPublic(null, trail -> { })),
+            new Probe("TrailRepository.findAllPublicTrailPopularity", AllowedScans.NARROW_INDEX,
+                trailRepository::findAllPublicTrailPopularity),
+            new Probe("TrailRepository.findAllPublicTrailLocations", AllowedScans.NARROW_INDEX,
+                trailRepository::findAllPublicTrailLocations),
+            new Probe("TrailRepository.findCollectionVersion", AllowedScans.NONE,
+                trailRepository::findCollectionVersion),
+            new Probe("TrailRepository.findChanges", AllowedScans.NONE,
+                () -> trailRepository.findChanges(0, Long.MAX_VALUE, PROBE_PAGE_SIZE)),
+            new Probe("TrailRepository.findById", AllowedScans.NONE,
+                () -> trailRepository.findById(PROBE_ID)),
+            new Probe("TrailRepository.findVersion", AllowedScans.NONE,
+                () -> trailRepository.findVersion(PROBE_ID)),
+            new Probe("TrailRepository.findDetailById", AllowedScans.NONE,
+                () -> trailRepository.findDetailById(PROBE_ID, null, false)),
+            new Probe("TrailRepository.findAllPublicTrails", AllowedScans.ANY,
+                trailRepository::findAllPublicTrails),
+            // Contains-search ('%term%') cannot seek
+            new Probe("TrailRepository.searchTrails", AllowedScans.ANY,
+                () -> trailRepository.searchTrails("moor", "Easy", null)),
+            new Probe("UserRepository.findByUsername", AllowedScans.NONE,
+                () -> userRepository.findByUsername(PROBE_USERNAME)),
+            new Probe("UserRepository.findActiveById", AllowedScans.NONE,
+                () -> userRepository.findActiveById(PROBE_ID)),
+            new Probe("UserRepository.findRegistrationConflicts", AllowedScans.NONE,
+                () -> userRepository.findRegistrationConflicts(PROBE_USERNAME, PROBE_USERNAME + "@example.com"))
+        );
+    }
+
+    private QueryPlanReport capture(Probe probe) {
+        Set<String> operators = new LinkedHashSet<>();
+        Set<String> regressions = new LinkedHashSet<>();
+        List<String> statements = new ArrayList<>();
+        try {
+            LocalDateTime start = queryPlanRepository.now();
+            probe.run().run();
+            for (CachedPlan plan : queryPlanRepository.findPlansExecutedSince(start)) {
+                statements.add(plan.sqlText());
+                for (Element relOp : relOps(plan.planXml())) {
+                    String physicalOp = relOp.getAttribute("PhysicalOp");
+                    Element object = accessedObject(relOp);
+                    if (object == null) {
+                        continue;
+                    }
+                    String operator = physicalOp + " " + object.getAttribute("Schema") + "." + object.getAttribute("Table") +
+                        (object.hasAttribute("Index") ? "." + object.getAttribute("Index") : "");
+                    operators.add(operator);
+                    if (isRegression(probe.allowedScans(), relOp, physicalOp, object)) {
+                        regressions.add(operator);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            return new QueryPlanReport(probe.query(), probe.allowedScans(), false,
+                List.copyOf(operators), List.of(), statements, e.getMessage());
+        }
+        return new QueryPlanReport(probe.query(), probe.allowedScans(), !regressions.isEmpty(),
+            List.copyOf(operators), List.copyOf(regressions), statements, null);
+    }
+
+    /**
+     * A scan of a CW2 table the probe does not allow; a scan of a filtered index is
+     * bounded by its filter, so list reads may use one. An ordered scan the plan expects
+     * to stop after one row (TOP 1 ... ORDER BY an index key) reads like a seek.
+     */
+    private static boolean isRegression(AllowedScans allowed, Element relOp, String physicalOp, Element object) {
+        boolean scan = physicalOp.equals("Table Scan") || physicalOp.endsWith("Index Scan");
+        if (!scan || allowed == AllowedScans.ANY || !APP_SCHEMA.equals(object.getAttribute("Schema"))) {
+            return false;
+        }
+        if (isTrue(((Element) object.getParentNode()).getAttribute("Ordered")) && estimatedRows(relOp) <= 1.0) {
+            return false;
+        }
+        if (allowed == AllowedScans.NONE) {
+            return true;
+        }
+        boolean wholeTable = physicalOp.equals("Table Scan") || physicalOp.startsWith("Clustered");
+        String filtered = object.getAttribute("Filtered");
+        return wholeTable && !isTrue(filtered);
+    }
+
+    private static double estimatedRows(Element relOp) {
+        try {
+            return Double.parseDouble(relOp.getAttribute("EstimateRows"));
+        } catch (NumberFormatException e) {
+            return Double.MAX_VALUE;
+        }
+    }
+
+    private static boolean isTrue(String attribute) {
+        return "1".equals(attribute) || "true".equals(attribute);
+    }
+
+    /**
+     * The table or index read by a data access operator (IndexScan, TableScan, ...), if any
+     */
+    private static Element accessedObject(Element relOp) {
+        for (Node child = relOp.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element operation) {
+                for (Node node = operation.getFirstChild(); node != null; node = node.getNextSibling()) {
+                    if (node instanceof Element element && "Object".equals(element.getLocalName())) {
+                        return element;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static List<Element> relOps(String planXml) {
+        List<Element> relOps = new ArrayList<>();
+        if (planXml == null) {
+            return relOps;
+        }
+        try {
+            NodeList nodes = newDocumentBuilder().parse(new InputSource(new StringReader(planXml)))
+                .getElementsByTagNameNS(SHOWPLAN_NS, "RelOp");
+            for (int i = 0; i < nodes.getLength(); i++) {
+                relOps.add((Element) nodes.item(i));
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Could not parse query plan: " + e.getMessage(), e);
+        }
+        return relOps;
+    }
+
+    private static DocumentBuilder newDocumentBuilder() throws ParserConfigurationException {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        factory.setExpandEntityReferences(false);
+        return factory.newDocumentBuilder();
+    }
+}
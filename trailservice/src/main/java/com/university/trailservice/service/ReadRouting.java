@@ -0,0 +1,98 @@
+package com.university.trailservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.university.trailservice.config.ReplicaRoutingDataSource;
+import com.university.trailservice.security.UserPrincipal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Read Routing
+ * Decides which trail reads may go to a read replica (trails.read-replicas.urls).
+ * For sticky-ms after a write on this instance, reads stay on the primary when they
+ * could see it: any read by the writing user, reads of the written trails, and list
+ * reads. This also keeps the trail and list caches from being refilled with rows a
+ * lagging replica has not caught up on. Writes on other instances are not tracked.
+ */
+@Component
+public class ReadRouting {
+
+    private final boolean enabled;
+    private final long stickyMillis;
+
+    // Users and trails written within the sticky window
+    private final Cache<Integer, Boolean> recentWriters;
+    private final Cache<Integer, Boolean> recentTrails;
+    private volatile long collectionStickyUntil;
+
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    public ReadRouting(@Value("${trails.read-replicas.urls:}") String replicaUrls,
+                       @Value("${trails.read-replicas.sticky-ms:5000}") long stickyMillis,
+                       MeterRegistry meterRegistry) {
+        this.enabled = !replicaUrls.isBlank();
+        this.stickyMillis = stickyMillis;
+        this.recentWriters = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(stickyMillis))
+            .build();
+        this.recentTrails = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(stickyMillis))
+            .build();
+        this.replicaReads = meterRegistry.counter("trailservice.reads", "route", "replica");
+        this.primaryReads = meterRegistry.counter("trailservice.reads", "route", "primary");
+    }
+
+    /**
+     * Read one trail, from a replica unless the caller or the trail was written recently
+     */
+    public <T> T readTrail(Integer trailId, Supplier<T> read) {
+        return route(recentTrails.getIfPresent(trailId) != null, read);
+    }
+
+    /**
+     * Read the public trail list, from a replica unless any trail was written recently
+     */
+    public <T> T readCollection(Supplier<T> read) {
+        return route(System.currentTimeMillis() < collectionStickyUntil, read);
+    }
+
+    /**
+     * Note a committed write so that reads which could see it stay on the primary
+     */
+    public void recordWrite(Integer userId, Collection<Integer> trailIds) {
+        if (!enabled) {
+            return;
+        }
+        recentWriters.put(userId, Boolean.TRUE);
+        trailIds.forEach(trailId -> recentTrails.put(trailId, Boolean.TRUE));
+        collectionStickyUntil = System.currentTimeMillis() + stickyMillis;
+    }
+
+    private <T> T route(boolean written, Supplier<T> read) {
+        if (!enabled) {
+            return read.get();
+        }
+        if (written || callerWroteRecently()) {
+            primaryReads.increment();
+            return read.get();
+        }
+        replicaReads.increment();
+        return ReplicaRoutingDataSource.onReplica(read);
+    }
+
+    private boolean callerWroteRecently() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null
+            && authentication.getPrincipal() instanceof UserPrincipal principal
+            && recentWriters.getIfPresent(principal.userId()) != null;
+    }
+}
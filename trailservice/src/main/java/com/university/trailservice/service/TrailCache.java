@@ -0,0 +1,119 @@
+package com.university.trailservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.university.trailservice.model.Trail;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Trail Cache
+ * Read-through cache for single trails, bounded by approximate memory size.
+ * Caffeine evicts with W-TinyLFU, so a few popular trails stay resident.
+ * Only public, non-deleted trails are ever stored.
+ */
+@Component
+public class TrailCache {
+
+    // Rough fixed cost of a cached Trail besides its text columns
+    private static final int ENTRY_OVERHEAD_BYTES = 512;
+
+    private final Cache<Integer, Trail> cache;
+
+    // Bumped on every invalidation so in-flight loads can detect they raced a write
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public TrailCache(@Value("${trails.cache.max-weight-bytes:67108864}") long maxWeightBytes,
+                      @Value("${trails.cache.ttl-seconds:300}") long ttlSeconds,
+                      MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maxWeightBytes)
+            .weigher((Integer trailId, Trail trail) -> weigh(trail))
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "trails");
+    }
+
+    /**
+     * Get a trail, loading it on a miss
+     * Private trails are returned to the caller but not cached.
+     * The load runs outside the cache's internal locks so a virtual thread
+     * blocked on JDBC never pins its carrier thread.
+     */
+    public Optional<Trail> get(Integer trailId, Function<Integer, Optional<Trail>> loader) {
+        Trail cached = cache.getIfPresent(trailId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        long generation = invalidations.get();
+        Optional<Trail> loaded = loader.apply(trailId);
+        if (loaded.isPresent() && isCacheable(loaded.get())) {
+            cache.put(trailId, loaded.get());
+            // A write landed while we were loading: the row may be stale, so drop it
+            if (invalidations.get() != generation) {
+                cache.invalidate(trailId);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Get a trail only if it is already cached
+     */
+    public Optional<Trail> getIfPresent(Integer trailId) {
+        return Optional.ofNullable(cache.getIfPresent(trailId));
+    }
+
+    /**
+     * Drop a trail after it has been written
+     */
+    public void invalidate(Integer trailId) {
+        invalidations.incrementAndGet();
+        cache.invalidate(trailId);
+    }
+
+    /**
+     * Hit/miss/eviction counters for monitoring
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("evictedBytes", stats.evictionWeight());
+        return result;
+    }
+
+    private static boolean isCacheable(Trail trail) {
+        return Boolean.TRUE.equals(trail.getIsPublic()) && !Boolean.TRUE.equals(trail.getIsDeleted());
+    }
+
+    /**
+     * Approximate heap cost in bytes (two bytes per character of text)
+     */
+    private static int weigh(Trail trail) {
+        long chars = length(trail.getTrailDescription())
+            + length(trail.getSummary())
+            + length(trail.getAccessibilityNotes())
+            + length(trail.getTrailName());
+        return (int) Math.min(Integer.MAX_VALUE, ENTRY_OVERHEAD_BYTES + chars * 2);
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
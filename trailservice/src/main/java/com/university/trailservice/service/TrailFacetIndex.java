@@ -0,0 +1,454 @@
+package com.university.trailservice.service;
+
+import com.university.trailservice.dto.FacetedTrails;
+import com.university.trailservice.dto.TrailFacetQuery;
+import com.university.trailservice.model.Trail;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.stereotype.Component;
+
+/**
+ * Trail Facet Index
+ * Columnar copy of the public trails for faceted search. Each trail owns a slot;
+ * categorical columns (difficulty, route type, town) are stored as dictionary
+ * ordinals, lengths as doubles (NaN when unknown) and "has accessibility notes"
+ * as a bitset.
+ * Filters are evaluated into bitsets and facet counts are tallied over the
+ * matching slots, so one call returns hits and every facet without SQL.
+ */
+@Component
+public class TrailFacetIndex {
+
+    // Upper bounds (exclusive) of the Length_Km facet buckets; the last bucket is open-ended
+    private static final double[] LENGTH_BUCKET_BOUNDS_KM = {5, 10, 20};
+    private static final String[] LENGTH_BUCKET_LABELS = {"0-5", "5-10", "10-20", "20+"};
+
+    // Positions of each facet's own filter in the filter array
+    private static final int DIFFICULTY = 0;
+    private static final int ROUTE_TYPE = 1;
+    private static final int TOWN = 2;
+    private static final int LENGTH = 3;
+    private static final int NOTES = 4;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Parallel column arrays indexed by slot
+    private Trail[] trails = new Trail[INITIAL_CAPACITY];
+    private int[] trailIds = new int[INITIAL_CAPACITY];
+    private long[] created = new long[INITIAL_CAPACITY];
+    private int[] difficulty = new int[INITIAL_CAPACITY];
+    private int[] routeType = new int[INITIAL_CAPACITY];
+    private int[] town = new int[INITIAL_CAPACITY];
+    private double[] lengthKm = new double[INITIAL_CAPACITY];
+    private double[] lengthMiles = new double[INITIAL_CAPACITY];
+    private final BitSet hasNotes = new BitSet();
+
+    // Slots holding a trail; freed slots are reused by later inserts
+    private final BitSet live = new BitSet();
+    private final Map<Integer, Integer> slots = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private int slotCount;
+
+    private final Dictionary difficulties = new Dictionary();
+    private final Dictionary routeTypes = new Dictionary();
+    private final Dictionary towns = new Dictionary();
+    private volatile boolean ready;
+
+    /**
+     * Replace the whole index (startup load)
+     */
+    public void rebuild(List<Trail> publicTrails) {
+        lock.writeLock().lock();
+        try {
+            Arrays.fill(trails, null);
+            live.clear();
+            hasNotes.clear();
+            slots.clear();
+            freeSlots.clear();
+            slotCount = 0;
+            difficulties.clear();
+            routeTypes.clear();
+            towns.clear();
+            for (Trail trail : publicTrails) {
+                store(trail);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the index has been loaded and can serve searches
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Number of indexed trails
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add or refresh a trail; private or deleted trails are removed instead
+     */
+    public void put(Trail trail) {
+        lock.writeLock().lock();
+        try {
+            if (Boolean.TRUE.equals(trail.getIsPublic()) && !Boolean.TRUE.equals(trail.getIsDeleted())) {
+                store(trail);
+            } else {
+                free(trail.getTrailId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a trail from the index
+     */
+    public void remove(Integer trailId) {
+        lock.writeLock().lock();
+        try {
+            free(trailId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Filter the indexed trails and count every facet
+     * ranked is the relevance-ordered result of the text query, or null when there is none
+     * (hits are then newest first). At most limit hits are returned.
+     */
+    public FacetedTrails<Trail> search(TrailFacetQuery query, List<Trail> ranked, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet base = (BitSet) live.clone();
+            if (ranked != null) {
+                BitSet text = new BitSet(slotCount);
+                for (Trail trail : ranked) {
+                    Integer slot = slots.get(trail.getTrailId());
+                    if (slot != null) {
+                        text.set(slot);
+                    }
+                }
+                base.and(text);
+            }
+
+            BitSet[] filters = new BitSet[5];
+            filters[DIFFICULTY] = categoryFilter(base, difficulty, difficulties, query.difficulties());
+            filters[ROUTE_TYPE] = categoryFilter(base, routeType, routeTypes, query.routeTypes());
+            filters[TOWN] = categoryFilter(base, town, towns, query.towns());
+            filters[LENGTH] = query.hasLengthFilter() ? lengthFilter(base, query) : null;
+            filters[NOTES] = notesFilter(base, query.hasAccessibilityNotes());
+
+            BitSet matches = intersect(base, filters, -1);
+
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            facets.put("difficulty", countCategory(intersect(base, filters, DIFFICULTY), difficulty, difficulties));
+            facets.put("routeType", countCategory(intersect(base, filters, ROUTE_TYPE), routeType, routeTypes));
+            facets.put("nearestTown", countCategory(intersect(base, filters, TOWN), town, towns));
+            facets.put("lengthKm", countLengthBuckets(intersect(base, filters, LENGTH)));
+            facets.put("hasAccessibilityNotes", countNotes(intersect(base, filters, NOTES)));
+
+            List<Trail> hits = ranked != null ? rankedHits(ranked, matches, limit) : newestHits(matches, limit);
+            return new FacetedTrails<>(hits, matches.cardinality(), facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Slots whose ordinal is one of the requested values; null when there is no filter
+     */
+    private static BitSet categoryFilter(BitSet base, int[] column, Dictionary dictionary, List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        boolean[] allowed = new boolean[dictionary.size()];
+        for (String value : values) {
+            int ordinal = dictionary.find(value);
+            if (ordinal >= 0) {
+                allowed[ordinal] = true;
+            }
+        }
+        BitSet result = new BitSet();
+        for (int slot = base.nextSetBit(0); slot >= 0; slot = base.nextSetBit(slot + 1)) {
+            int ordinal = column[slot];
+            if (ordinal >= 0 && allowed[ordinal]) {
+                result.set(slot);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Slots within every given length bound; trails without a length never match
+     */
+    private BitSet lengthFilter(BitSet base, TrailFacetQuery query) {
+        BitSet result = new BitSet();
+        for (int slot = base.nextSetBit(0); slot >= 0; slot = base.nextSetBit(slot + 1)) {
+            if (inRange(lengthKm[slot], query.minKm(), query.maxKm())
+                    && inRange(lengthMiles[slot], query.minMiles(), query.maxMiles())) {
+                result.set(slot);
+            }
+        }
+        return result;
+    }
+
+    private BitSet notesFilter(BitSet base, Boolean wanted) {
+        if (wanted == null) {
+            return null;
+        }
+        BitSet result = (BitSet) base.clone();
+        if (wanted) {
+            result.and(hasNotes);
+        } else {
+            result.andNot(hasNotes);
+        }
+        return result;
+    }
+
+    /**
+     * AND of the base set and every filter except the one at position skip
+     */
+    private static BitSet intersect(BitSet base, BitSet[] filters, int skip) {
+        BitSet result = (BitSet) base.clone();
+        for (int i = 0; i < filters.length; i++) {
+            if (i != skip && filters[i] != null) {
+                result.and(filters[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Trails per value, most common first
+     */
+    private static Map<String, Integer> countCategory(BitSet slotsToCount, int[] column, Dictionary dictionary) {
+        int[] counts = new int[dictionary.size()];
+        for (int slot = slotsToCount.nextSetBit(0); slot >= 0; slot = slotsToCount.nextSetBit(slot + 1)) {
+            if (column[slot] >= 0) {
+                counts[column[slot]]++;
+            }
+        }
+        List<Integer> ordinals = new ArrayList<>();
+        for (int ordinal = 0; ordinal < counts.length; ordinal++) {
+            if (counts[ordinal] > 0) {
+                ordinals.add(ordinal);
+            }
+        }
+        ordinals.sort(Comparator.<Integer>comparingInt(ordinal -> counts[ordinal]).reversed()
+            .thenComparing(dictionary::valueOf));
+
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (int ordinal : ordinals) {
+            result.put(dictionary.valueOf(ordinal), counts[ordinal]);
+        }
+        return result;
+    }
+
+    /**
+     * Trails per Length_Km bucket, in bucket order (empty buckets included)
+     */
+    private Map<String, Integer> countLengthBuckets(BitSet slotsToCount) {
+        int[] counts = new int[LENGTH_BUCKET_LABELS.length];
+        for (int slot = slotsToCount.nextSetBit(0); slot >= 0; slot = slotsToCount.nextSetBit(slot + 1)) {
+            double km = lengthKm[slot];
+            if (!Double.isNaN(km)) {
+                counts[lengthBucket(km)]++;
+            }
+        }
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            result.put(LENGTH_BUCKET_LABELS[bucket], counts[bucket]);
+        }
+        return result;
+    }
+
+    private Map<String, Integer> countNotes(BitSet slotsToCount) {
+        BitSet withNotes = (BitSet) slotsToCount.clone();
+        withNotes.and(hasNotes);
+        int with = withNotes.cardinality();
+        Map<String, Integer> result = new LinkedHashMap<>();
+        result.put("true", with);
+        result.put("false", slotsToCount.cardinality() - with);
+        return result;
+    }
+
+    /**
+     * Matching trails in text-relevance order
+     */
+    private List<Trail> rankedHits(List<Trail> ranked, BitSet matches, int limit) {
+        List<Trail> hits = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (Trail trail : ranked) {
+            if (hits.size() == limit) {
+                break;
+            }
+            Integer slot = slots.get(trail.getTrailId());
+            if (slot != null && matches.get(slot)) {
+                hits.add(trails[slot]);
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * The limit newest matching trails (CreatedDate, then TrailID, descending like the list)
+     * Kept in a small sorted array of slots; most slots cost one comparison with the oldest kept.
+     * Slots are visited from the end because trails added later are usually newer.
+     */
+    private List<Trail> newestHits(BitSet matches, int limit) {
+        int[] top = new int[Math.min(limit, matches.cardinality())];
+        int count = 0;
+        for (int slot = matches.previousSetBit(slotCount - 1); slot >= 0; slot = matches.previousSetBit(slot - 1)) {
+            if (count == top.length && !newer(slot, top[count - 1])) {
+                continue;
+            }
+            int i = count == top.length ? count - 1 : count++;
+            while (i > 0 && newer(slot, top[i - 1])) {
+                top[i] = top[i - 1];
+                i--;
+            }
+            top[i] = slot;
+        }
+        List<Trail> hits = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            hits.add(trails[top[i]]);
+        }
+        return hits;
+    }
+
+    private boolean newer(int slot, int other) {
+        if (created[slot] != created[other]) {
+            return created[slot] > created[other];
+        }
+        return trailIds[slot] > trailIds[other];
+    }
+
+    private void store(Trail trail) {
+        Integer slot = slots.get(trail.getTrailId());
+        if (slot == null) {
+            slot = freeSlots.isEmpty() ? nextSlot() : freeSlots.pop();
+            slots.put(trail.getTrailId(), slot);
+        }
+        trails[slot] = trail;
+        trailIds[slot] = trail.getTrailId();
+        created[slot] = trail.getCreatedDate() != null
+            ? trail.getCreatedDate().toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + trail.getCreatedDate().getNano()
+            : Long.MIN_VALUE;
+        difficulty[slot] = difficulties.ordinalOf(trail.getDifficulty());
+        routeType[slot] = routeTypes.ordinalOf(trail.getRouteType());
+        town[slot] = towns.ordinalOf(trail.getNearestTown());
+        lengthKm[slot] = trail.getLengthKm() != null ? trail.getLengthKm().doubleValue() : Double.NaN;
+        lengthMiles[slot] = trail.getLengthMiles() != null ? trail.getLengthMiles().doubleValue() : Double.NaN;
+        hasNotes.set(slot, trail.getAccessibilityNotes() != null && !trail.getAccessibilityNotes().isBlank());
+        live.set(slot);
+    }
+
+    private void free(Integer trailId) {
+        Integer slot = slots.remove(trailId);
+        if (slot == null) {
+            return;
+        }
+        trails[slot] = null;
+        live.clear(slot);
+        hasNotes.clear(slot);
+        freeSlots.push(slot);
+    }
+
+    private int nextSlot() {
+        if (slotCount == trails.length) {
+            int capacity = trails.length * 2;
+            trails = Arrays.copyOf(trails, capacity);
+            trailIds = Arrays.copyOf(trailIds, capacity);
+            created = Arrays.copyOf(created, capacity);
+            difficulty = Arrays.copyOf(difficulty, capacity);
+            routeType = Arrays.copyOf(routeType, capacity);
+            town = Arrays.copyOf(town, capacity);
+            lengthKm = Arrays.copyOf(lengthKm, capacity);
+            lengthMiles = Arrays.copyOf(lengthMiles, capacity);
+        }
+        return slotCount++;
+    }
+
+    private static boolean inRange(double value, Double min, Double max) {
+        if (min == null && max == null) {
+            return true;
+        }
+        return !Double.isNaN(value) && (min == null || value >= min) && (max == null || value <= max);
+    }
+
+    private static int lengthBucket(double km) {
+        for (int bucket = 0; bucket < LENGTH_BUCKET_BOUNDS_KM.length; bucket++) {
+            if (km < LENGTH_BUCKET_BOUNDS_KM[bucket]) {
+                return bucket;
+            }
+        }
+        return LENGTH_BUCKET_BOUNDS_KM.length;
+    }
+
+    /**
+     * Case-insensitive value dictionary; ordinals are stable until the next rebuild
+     * and the first spelling seen is the one reported in facet counts
+     */
+    private static final class Dictionary {
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Integer> ordinals = new HashMap<>();
+
+        int ordinalOf(String value) {
+            if (value == null || value.isBlank()) {
+                return -1;
+            }
+            return ordinals.computeIfAbsent(key(value), k -> {
+                values.add(value.trim());
+                return values.size() - 1;
+            });
+        }
+
+        int find(String value) {
+            return value == null ? -1 : ordinals.getOrDefault(key(value), -1);
+        }
+
+        String valueOf(int ordinal) {
+            return values.get(ordinal);
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        void clear() {
+            values.clear();
+            ordinals.clear();
+        }
+
+        private static String key(String value) {
+            return value.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.university.trailservice.service;
+
+import com.university.trailservice.dto.NearbyTrail;
+import com.university.trailservice.model.TrailLocation;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.stereotype.Component;
+
+/**
+ * Trail Geo Index
+ * In-memory grid of public trail start points (CW2.Location joined through CW2.TrailRoute).
+ * Points are bucketed into fixed latitude/longitude cells; a radius query only
+ * visits the cells overlapping the circle's bounding box, and k-nearest queries
+ * widen the radius until k trails are found.
+ */
+@Component
+public class TrailGeoIndex {
+
+    // Cell size in degrees (about 11 km north-south)
+    private static final double CELL_DEGREES = 0.1;
+    private static final int LAT_CELLS = (int) Math.round(180 / CELL_DEGREES);
+    private static final int LON_CELLS = (int) Math.round(360 / CELL_DEGREES);
+
+    // Mean Earth radius used for haversine distances
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    // Largest possible distance between two points (half the circumference)
+    static final double MAX_DISTANCE_KM = Math.PI * EARTH_RADIUS_KM;
+
+    // First radius tried by k-nearest queries; doubled until enough trails are found
+    private static final double INITIAL_KNN_RADIUS_KM = 10;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, List<TrailLocation>> cells = new HashMap<>();
+    private final Map<Integer, TrailLocation> locations = new HashMap<>();
+    private volatile boolean ready;
+
+    /**
+     * Replace the whole index (startup load)
+     */
+    public void rebuild(List<TrailLocation> trailLocations) {
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            locations.clear();
+            for (TrailLocation location : trailLocations) {
+                addLocation(location);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the index has been loaded and can serve queries
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Number of indexed trails
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return locations.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add or move a trail's start point
+     */
+    public void put(TrailLocation location) {
+        lock.writeLock().lock();
+        try {
+            removeLocation(location.trail().getTrailId());
+            addLocation(location);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a trail from the index
+     */
+    public void remove(Integer trailId) {
+        lock.writeLock().lock();
+        try {
+            removeLocation(trailId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Trails starting within radiusKm of the point, nearest first
+     */
+    public List<NearbyTrail> within(double latitude, double longitude, double radiusKm, int limit) {
+        lock.readLock().lock();
+        try {
+            return nearestFirst(collect(latitude, longitude, radiusKm), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The k trails starting closest to the point, nearest first
+     */
+    public List<NearbyTrail> nearest(double latitude, double longitude, int k) {
+        lock.readLock().lock();
+        try {
+            double radiusKm = INITIAL_KNN_RADIUS_KM;
+            while (true) {
+                // Every trail within the radius is closer than every trail outside it,
+                // so once k are inside, the k nearest are among them
+                List<NearbyTrail> candidates = collect(latitude, longitude, radiusKm);
+                if (candidates.size() >= k || radiusKm >= MAX_DISTANCE_KM) {
+                    return nearestFirst(candidates, k);
+                }
+                radiusKm = Math.min(radiusKm * 2, MAX_DISTANCE_KM);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Every trail within radiusKm, scanning only cells that overlap the bounding box
+     */
+    private List<NearbyTrail> collect(double latitude, double longitude, double radiusKm) {
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        double south = latitude - latSpan;
+        double north = latitude + latSpan;
+        int latFrom = latCell(Math.max(south, -90));
+        int latTo = latCell(Math.min(north, 90));
+
+        // Longitude span widens towards the poles; at a pole every longitude is in range
+        double widestLatitude = Math.max(Math.abs(south), Math.abs(north));
+        double lonSpan = widestLatitude >= 90 ? 360
+            : latSpan / Math.cos(Math.toRadians(widestLatitude));
+        int lonFrom = 0;
+        int lonCount = LON_CELLS;
+        if (lonSpan < 180) {
+            // Cells are walked eastwards from lonFrom, wrapping across the antimeridian
+            lonFrom = lonCell(longitude - lonSpan);
+            int lonTo = lonCell(longitude + lonSpan);
+            lonCount = Math.floorMod(lonTo - lonFrom, LON_CELLS) + 1;
+        }
+
+        List<NearbyTrail> results = new ArrayList<>();
+        long boxCells = (long) (latTo - latFrom + 1) * lonCount;
+        if (boxCells > cells.size()) {
+            // Huge radius: walking the occupied cells is cheaper than walking the box
+            for (List<TrailLocation> cell : cells.values()) {
+                addWithin(cell, latitude, longitude, radiusKm, results);
+            }
+            return results;
+        }
+
+        for (int lat = latFrom; lat <= latTo; lat++) {
+            for (int i = 0; i < lonCount; i++) {
+                int lon = (lonFrom + i) % LON_CELLS;
+                List<TrailLocation> cell = cells.get(cellKey(lat, lon));
+                if (cell != null) {
+                    addWithin(cell, latitude, longitude, radiusKm, results);
+                }
+            }
+        }
+        return results;
+    }
+
+    private static void addWithin(Collection<TrailLocation> cell, double latitude, double longitude,
+                                  double radiusKm, List<NearbyTrail> results) {
+        for (TrailLocation location : cell) {
+            double distance = distanceKm(latitude, longitude, location.latitude(), location.longitude());
+            if (distance <= radiusKm) {
+                results.add(new NearbyTrail(location.trail(), location.latitude(),
+                    location.longitude(), Math.round(distance * 1000) / 1000.0));
+            }
+        }
+    }
+
+    private static List<NearbyTrail> nearestFirst(List<NearbyTrail> results, int limit) {
+        results.sort(Comparator.comparingDouble(NearbyTrail::distanceKm)
+            .thenComparing(result -> result.trail().getTrailId()));
+        return results.size() > limit ? new ArrayList<>(results.subList(0, limit)) : results;
+    }
+
+    private void addLocation(TrailLocation location) {
+        locations.put(location.trail().getTrailId(), location);
+        cells.computeIfAbsent(cellKey(location), key -> new ArrayList<>()).add(location);
+    }
+
+    private void removeLocation(Integer trailId) {
+        TrailLocation location = locations.remove(trailId);
+        if (location == null) {
+            return;
+        }
+        long key = cellKey(location);
+        List<TrailLocation> cell = cells.get(key);
+        cell.remove(location);
+        if (cell.isEmpty()) {
+            cells.remove(key);
+        }
+    }
+
+    /**
+     * Great-circle distance between two points (haversine formula)
+     */
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+            * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static long cellKey(TrailLocation location) {
+        return cellKey(latCell(location.latitude()), lonCell(location.longitude()));
+    }
+
+    private static long cellKey(int latCell, int lonCell) {
+        return (long) latCell * LON_CELLS + lonCell;
+    }
+
+    private static int latCell(double latitude) {
+        return Math.min(LAT_CELLS - 1, (int) Math.floor((latitude + 90) / CELL_DEGREES));
+    }
+
+    private static int lonCell(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / CELL_DEGREES), LON_CELLS);
+    }
+}
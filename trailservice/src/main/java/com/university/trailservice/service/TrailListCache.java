@@ -0,0 +1,101 @@
+package com.university.trailservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.university.trailservice.dto.TrailCursor;
+import com.university.trailservice.dto.TrailFields;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Trail List Cache
+ * Fully serialised GET /api/trails responses (plain and gzip), keyed by query shape.
+ * Each entry remembers the collection change sequence it was built from and is only
+ * served while that is still current; local writes also clear the whole cache.
+ */
+@Component
+public class TrailListCache {
+
+    private final Cache<Key, Page> cache;
+
+    // Bumped on every invalidation so in-flight loads can detect they raced a write
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Query shape: cursor, requested limit and fieldset (each may be null)
+     */
+    public record Key(TrailCursor after, Integer limit, TrailFields fields) {
+    }
+
+    /**
+     * A serialised response body, its gzip encoding and the X-Next-Cursor value
+     */
+    public record Page(byte[] json, byte[] gzip, String nextCursor, long changeSequence) {
+    }
+
+    /**
+     * A freshly serialised response body and its X-Next-Cursor value (may be null)
+     */
+    public record Serialized(byte[] json, String nextCursor) {
+    }
+
+    public TrailListCache(@Value("${trails.list-cache.max-weight-bytes:33554432}") long maxWeightBytes,
+                          @Value("${trails.list-cache.ttl-seconds:600}") long ttlSeconds,
+                          MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maxWeightBytes)
+            .weigher((Key key, Page page) -> page.json().length + page.gzip().length)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "trailList");
+    }
+
+    /**
+     * Get a serialised page, building it on a miss or when the collection has changed
+     * The loader runs outside the cache's internal locks (see TrailCache).
+     */
+    public Page get(Key key, long changeSequence, Supplier<Serialized> loader) {
+        Page cached = cache.getIfPresent(key);
+        if (cached != null && cached.changeSequence() == changeSequence) {
+            return cached;
+        }
+
+        long generation = invalidations.get();
+        Serialized serialized = loader.get();
+        Page page = new Page(serialized.json(), gzip(serialized.json()), serialized.nextCursor(), changeSequence);
+        cache.put(key, page);
+        // A write landed while we were loading: the page may be stale, so drop it
+        if (invalidations.get() != generation) {
+            cache.invalidate(key);
+        }
+        return page;
+    }
+
+    /**
+     * Drop every page after a trail write
+     */
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,311 @@
+package com.university.trailservice.service;
+
+import com.university.trailservice.model.Trail;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.stereotype.Component;
+
+/**
+ * Trail Search Index
+ * In-memory inverted index over public trails with BM25 ranking.
+ * Query terms match whole words, word prefixes (sorted term dictionary)
+ * and infixes (trigram dictionary), mirroring the old LIKE '%term%' behaviour.
+ * A multi-word query matches documents containing every term in any order (not the
+ * old phrase LIKE '%word word%', which the SQL fallback still uses).
+ */
+@Component
+public class TrailSearchIndex {
+
+    // BM25 tuning constants
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Field boosts applied to term frequencies
+    private static final int NAME_BOOST = 3;
+    private static final int TOWN_BOOST = 2;
+    private static final int SUMMARY_BOOST = 1;
+    private static final int DESCRIPTION_BOOST = 1;
+
+    // Expanded (prefix/infix) matches score lower than exact word matches
+    private static final double EXPANDED_MATCH_WEIGHT = 0.5;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Integer, Trail> trails = new HashMap<>();
+    private final Map<Integer, Integer> docLengths = new HashMap<>();
+    private final Map<Integer, Set<String>> docTerms = new HashMap<>();
+    private final Map<String, Map<Integer, Integer>> postings = new HashMap<>();
+    private final NavigableSet<String> dictionary = new TreeSet<>();
+    private final Map<String, Set<String>> trigrams = new HashMap<>();
+    private long totalLength;
+    private volatile boolean ready;
+
+    /**
+     * Replace the whole index (startup load)
+     */
+    public void rebuild(List<Trail> publicTrails) {
+        lock.writeLock().lock();
+        try {
+            trails.clear();
+            docLengths.clear();
+            docTerms.clear();
+            postings.clear();
+            dictionary.clear();
+            trigrams.clear();
+            totalLength = 0;
+            for (Trail trail : publicTrails) {
+                addDocument(trail);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the index has been loaded and can serve searches
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Number of indexed trails
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return trails.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add or refresh a trail; private or deleted trails are removed instead
+     */
+    public void put(Trail trail) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(trail.getTrailId());
+            if (Boolean.TRUE.equals(trail.getIsPublic()) && !Boolean.TRUE.equals(trail.getIsDeleted())) {
+                addDocument(trail);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a trail from the index
+     */
+    public void remove(Integer trailId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(trailId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Search public trails ranked by relevance
+     * An empty query returns every trail (newest first) matching the difficulty filter
+     */
+    public List<Trail> search(String query, String difficulty) {
+        List<String> queryTerms = tokenize(query);
+
+        lock.readLock().lock();
+        try {
+            if (queryTerms.isEmpty()) {
+                List<Trail> results = new ArrayList<>();
+                for (Trail trail : trails.values()) {
+                    if (matchesDifficulty(trail, difficulty)) {
+                        results.add(trail);
+                    }
+                }
+                results.sort(Comparator.comparing(Trail::getCreatedDate).reversed());
+                return results;
+            }
+
+            Map<Integer, Double> scores = null;
+            for (String queryTerm : queryTerms) {
+                Map<Integer, Double> termScores = scoreTerm(queryTerm);
+                // Every query term must match (AND semantics)
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + termScores.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<Map.Entry<Integer, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Integer, Double>comparingByValue().reversed());
+
+            List<Trail> results = new ArrayList<>(ranked.size());
+            for (Map.Entry<Integer, Double> entry : ranked) {
+                Trail trail = trails.get(entry.getKey());
+                if (matchesDifficulty(trail, difficulty)) {
+                    results.add(trail);
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * BM25 score of every document matching a query term (exact, prefix or infix)
+     */
+    private Map<Integer, Double> scoreTerm(String queryTerm) {
+        Map<Integer, Double> scores = new HashMap<>();
+        for (String term : expand(queryTerm)) {
+            double weight = term.equals(queryTerm) ? 1.0 : EXPANDED_MATCH_WEIGHT;
+            Map<Integer, Integer> docs = postings.get(term);
+            double idf = Math.log(1 + (trails.size() - docs.size() + 0.5) / (docs.size() + 0.5));
+            double avgLength = trails.isEmpty() ? 1 : (double) totalLength / trails.size();
+
+            for (Map.Entry<Integer, Integer> posting : docs.entrySet()) {
+                double tf = posting.getValue();
+                double norm = K1 * (1 - B + B * docLengths.get(posting.getKey()) / avgLength);
+                double score = weight * idf * (tf * (K1 + 1)) / (tf + norm);
+                // A document matched by several expansions keeps its best one
+                scores.merge(posting.getKey(), score, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Dictionary terms matched by a query term: the term itself, terms it prefixes,
+     * and (for 3+ characters) terms containing it
+     */
+    private Set<String> expand(String queryTerm) {
+        Set<String> matches = new HashSet<>(
+            dictionary.subSet(queryTerm, true, queryTerm + Character.MAX_VALUE, false));
+
+        if (queryTerm.length() >= 3) {
+            Set<String> candidates = null;
+            for (String trigram : trigramsOf(queryTerm)) {
+                Set<String> terms = trigrams.getOrDefault(trigram, Set.of());
+                if (candidates == null) {
+                    candidates = new HashSet<>(terms);
+                } else {
+                    candidates.retainAll(terms);
+                }
+                if (candidates.isEmpty()) {
+                    break;
+                }
+            }
+            for (String candidate : candidates) {
+                if (candidate.contains(queryTerm)) {
+                    matches.add(candidate);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private void addDocument(Trail trail) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+        length += countTerms(trail.getTrailName(), NAME_BOOST, frequencies);
+        length += countTerms(trail.getNearestTown(), TOWN_BOOST, frequencies);
+        length += countTerms(trail.getSummary(), SUMMARY_BOOST, frequencies);
+        length += countTerms(trail.getTrailDescription(), DESCRIPTION_BOOST, frequencies);
+
+        Integer trailId = trail.getTrailId();
+        trails.put(trailId, trail);
+        docLengths.put(trailId, length);
+        docTerms.put(trailId, frequencies.keySet());
+        totalLength += length;
+
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            String term = entry.getKey();
+            postings.computeIfAbsent(term, t -> new HashMap<>()).put(trailId, entry.getValue());
+            if (dictionary.add(term)) {
+                for (String trigram : trigramsOf(term)) {
+                    trigrams.computeIfAbsent(trigram, t -> new HashSet<>()).add(term);
+                }
+            }
+        }
+    }
+
+    private void removeDocument(Integer trailId) {
+        if (trails.remove(trailId) == null) {
+            return;
+        }
+        totalLength -= docLengths.remove(trailId);
+
+        for (String term : docTerms.remove(trailId)) {
+            Map<Integer, Integer> docs = postings.get(term);
+            docs.remove(trailId);
+            if (docs.isEmpty()) {
+                // Last document using this term: drop it from every dictionary
+                postings.remove(term);
+                dictionary.remove(term);
+                for (String trigram : trigramsOf(term)) {
+                    Set<String> terms = trigrams.get(trigram);
+                    terms.remove(term);
+                    if (terms.isEmpty()) {
+                        trigrams.remove(trigram);
+                    }
+                }
+            }
+        }
+    }
+
+    private int countTerms(String text, int boost, Map<String, Integer> frequencies) {
+        List<String> terms = tokenize(text);
+        for (String term : terms) {
+            frequencies.merge(term, boost, Integer::sum);
+        }
+        return terms.size() * boost;
+    }
+
+    private static boolean matchesDifficulty(Trail trail, String difficulty) {
+        return difficulty == null || difficulty.isEmpty()
+            || difficulty.equalsIgnoreCase(trail.getDifficulty());
+    }
+
+    /**
+     * Lower-case words split on anything that is not a letter or digit
+     */
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+
+    private static List<String> trigramsOf(String term) {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i + 3 <= term.length(); i++) {
+            result.add(term.substring(i, i + 3));
+        }
+        return result;
+    }
+}
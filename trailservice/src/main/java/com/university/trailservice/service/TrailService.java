@@ -1,38 +1,279 @@
 package com.university.trailservice.service;
 
+import com.university.trailservice.dto.BatchRowResult;
+import com.university.trailservice.dto.FacetedTrails;
+import com.university.trailservice.dto.NearbyTrail;
+import com.university.trailservice.dto.TrailChanges;
+import com.university.trailservice.dto.TrailCursor;
+import com.university.trailservice.dto.TrailDetail;
+import com.university.trailservice.dto.TrailFacetQuery;
+import com.university.trailservice.dto.TrailField;
+import com.university.trailservice.dto.TrailFields;
+import com.university.trailservice.dto.TrailPage;
 import com.university.trailservice.dto.TrailRequest;
+import com.university.trailservice.dto.TrailSuggestion;
+import com.university.trailservice.model.AuditEvent;
 import com.university.trailservice.model.Trail;
+import com.university.trailservice.model.TrailLocation;
+import com.university.trailservice.repository.CollectionVersion;
+import com.university.trailservice.repository.TrailChange;
+import com.university.trailservice.repository.TrailPopularity;
 import com.university.trailservice.repository.TrailRepository;
-import com.university.trailservice.repository.UserRepository;
+import com.university.trailservice.repository.TrailUpdate;
+import com.university.trailservice.repository.TrailVersion;
+import com.university.trailservice.repository.TrailWriteResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Trail Service
- * Business logic for trail operations
+ * Business logic for trail operations. List, detail and search reads may be served
+ * by a read replica (see ReadRouting); writes and index refreshes use the primary.
  */
 @Service
 public class TrailService {
 
+    private static final Logger logger = LoggerFactory.getLogger(TrailService.class);
+
+    // Fields a trail update can change, each audited as its own AuditLog row
+    private static final Set<TrailField> AUDITED_FIELDS = EnumSet.of(
+        TrailField.TRAIL_NAME, TrailField.SUMMARY, TrailField.TRAIL_DESCRIPTION,
+        TrailField.LENGTH_MILES, TrailField.LENGTH_KM, TrailField.DIFFICULTY,
+        TrailField.ACCESSIBILITY_NOTES, TrailField.ROUTE_TYPE, TrailField.NEAREST_TOWN,
+        TrailField.START_POSTCODE, TrailField.FINISH_LOCATION, TrailField.FINISH_POSTCODE,
+        TrailField.IS_PUBLIC);
+
     @Autowired
     private TrailRepository trailRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private ActiveUserCache activeUserCache;
+
+    @Autowired
+    private TrailSearchIndex searchIndex;
+
+    @Autowired
+    private TrailGeoIndex geoIndex;
+
+    @Autowired
+    private TrailFacetIndex facetIndex;
+
+    @Autowired
+    private TrailSuggestIndex suggestIndex;
+
+    @Autowired
+    private ReadRouting readRouting;
+
+    @Autowired
+    private TrailCache trailCache;
+
+    @Autowired
+    private TrailListCache trailListCache;
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${trails.page.default-limit:50}")
+    private int defaultPageLimit;
+
+    @Value("${trails.page.max-limit:500}")
+    private int maxPageLimit;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${trails.batch.chunk-size:500}")
+    private int batchChunkSize;
+
+    @Value("${trails.batch.max-rows:10000}")
+    private int batchMaxRows;
+
+    @Value("${trails.http.collection-version-ttl-ms:1000}")
+    private long collectionVersionTtlMillis;
+
+    // Collection version memoised briefly so polling clients cost at most one query per TTL
+    private volatile CollectionVersion collectionVersion;
+    private volatile long collectionVersionExpiresAt;
+
+    @Value("${trails.changes.max-rows:1000}")
+    private int maxChangeRows;
+
+    @Value("${trails.facets.default-limit:50}")
+    private int defaultFacetLimit;
+
+    @Value("${trails.facets.max-limit:500}")
+    private int maxFacetLimit;
+
+    @Value("${trails.suggest.default-limit:10}")
+    private int defaultSuggestLimit;
+
+    @Value("${trails.suggest.max-limit:50}")
+    private int maxSuggestLimit;
+
+    @Value("${trails.nearby.default-limit:20}")
+    private int defaultNearbyLimit;
+
+    @Value("${trails.nearby.max-limit:200}")
+    private int maxNearbyLimit;
+
+    // One load at a time per in-memory index: requests that arrive before an index is
+    // ready wait for the load in progress instead of each reading every public trail
+    private final ReentrantLock facetLoadLock = new ReentrantLock();
+    private final ReentrantLock suggestLoadLock = new ReentrantLock();
+    private final ReentrantLock geoLoadLock = new ReentrantLock();
+
+    /**
+     * Get one page of public trails (keyset pagination)
+     * Limit falls back to the configured default and is capped at the configured maximum.
+     * A fieldset (may be null) limits the columns read.
+     */
+    public TrailPage getTrailPage(TrailCursor after, Integer limit, TrailFields fields) {
+        int pageSize = limit == null ? defaultPageLimit : limit;
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        pageSize = Math.min(pageSize, maxPageLimit);
+
+        // Fetch one extra row to know whether another page exists
+        int fetchRows = pageSize + 1;
+        List<Trail> trails = readRouting.readCollection(() -> trailRepository.findPublicPage(after, fetchRows, fields));
+        if (trails.size() <= pageSize) {
+            return new TrailPage(trails, null);
+        }
+        List<Trail> page = trails.subList(0, pageSize);
+        return new TrailPage(page, TrailCursor.after(page.get(pageSize - 1)));
+    }
 
     /**
-     * Get all public trails
+     * Stream all public trails to the consumer in constant memory
      */
-    public List<Trail> getAllTrails() {
-        return trailRepository.findAllPublic();
+    public void streamAllTrails(TrailFields fields, Consumer<Trail> consumer) {
+        readRouting.readCollection(() -> {
+            trailRepository.streamAllPublic(fields, consumer);
+            return null;
+        });
     }
 
     /**
      * Get trail by ID
      */
     public Trail getTrailById(Integer trailId) {
-        return trailRepository.findById(trailId)
+        return trailCache.get(trailId, id -> readRouting.readTrail(id, () -> trailRepository.findById(id)))
+            .orElseThrow(() -> new RuntimeException("Trail not found"));
+    }
+
+    /**
+     * Get the version of a trail without loading its text columns
+     * Answered from the trail cache when the trail is cached
+     */
+    public Optional<TrailVersion> getTrailVersion(Integer trailId) {
+        Optional<Trail> cached = trailCache.getIfPresent(trailId);
+        if (cached.isPresent()) {
+            return Optional.of(TrailVersion.of(cached.get()));
+        }
+        return readRouting.readTrail(trailId, () -> trailRepository.findVersion(trailId));
+    }
+
+    /**
+     * Get the version of the public trail collection (list and search results)
+     */
+    public CollectionVersion getCollectionVersion() {
+        CollectionVersion version = collectionVersion;
+        if (version == null || System.currentTimeMillis() >= collectionVersionExpiresAt) {
+            version = readRouting.readCollection(trailRepository::findCollectionVersion);
+            collectionVersion = version;
+            collectionVersionExpiresAt = System.currentTimeMillis() + collectionVersionTtlMillis;
+        }
+        return version;
+    }
+
+    /**
+     * Get one page of public trails as a ready-to-send response body
+     * Served from the serialised list cache while the collection is unchanged;
+     * otherwise the page is loaded and passed to the serializer once.
+     */
+    public TrailListCache.Page getSerializedTrailPage(TrailCursor after, Integer limit, TrailFields fields,
+                                                      Function<TrailPage, byte[]> serializer) {
+        long changeSequence = getCollectionVersion().changeSequence();
+        return trailListCache.get(new TrailListCache.Key(after, limit, fields), changeSequence, () -> {
+            TrailPage page = getTrailPage(after, limit, fields);
+            String nextCursor = page.nextCursor() != null ? page.nextCursor().toString() : null;
+            return new TrailListCache.Serialized(serializer.apply(page), nextCursor);
+        });
+    }
+
+    /**
+     * Trails changed since a sync token (null for a full snapshot), in change order
+     * Public, non-deleted trails are returned in full; trails made private or deleted are
+     * returned as removed IDs. At most trails.changes.max-rows rows are read per call.
+     */
+    public TrailChanges getChangesSince(String sinceToken) {
+        long since = parseSyncToken(sinceToken);
+        long horizon = trailRepository.findChangeHorizon();
+        if (horizon <= since) {
+            return new TrailChanges(List.of(), List.of(), Long.toString(since), false);
+        }
+
+        List<TrailChange> rows = trailRepository.findChanges(since, horizon, maxChangeRows + 1);
+        boolean hasMore = rows.size() > maxChangeRows;
+        if (hasMore) {
+            rows = rows.subList(0, maxChangeRows);
+        }
+
+        List<Trail> changed = new ArrayList<>();
+        List<Integer> removed = new ArrayList<>();
+        for (TrailChange row : rows) {
+            Trail trail = row.trail();
+            if (Boolean.TRUE.equals(trail.getIsPublic()) && !Boolean.TRUE.equals(trail.getIsDeleted())) {
+                changed.add(trail);
+            } else {
+                removed.add(trail.getTrailId());
+            }
+        }
+
+        long next = hasMore ? rows.get(rows.size() - 1).version() : horizon;
+        return new TrailChanges(changed, removed, Long.toString(next), hasMore);
+    }
+
+    /**
+     * Get trail detail with route locations and rating aggregates
+     * Private trails are only visible to their owner (requestingUserId may be null)
+     */
+    public TrailDetail getTrailDetail(Integer trailId, Integer requestingUserId, boolean includeDescription) {
+        return readRouting.readTrail(trailId,
+                () -> trailRepository.findDetailById(trailId, requestingUserId, includeDescription))
             .orElseThrow(() -> new RuntimeException("Trail not found"));
     }
 
@@ -40,44 +281,423 @@ public class TrailService {
      * Create new trail
      */
     public Integer createTrail(TrailRequest request, Integer userId) {
-        // Verify user exists and is active
-        userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found or inactive"));
+        // Verify user exists and is active (cached; sp_InsertTrail checks again)
+        activeUserCache.require(userId);
 
         // Create trail entity
-        Trail trail = new Trail();
+        Trail trail = toTrail(request);
         trail.setUserId(userId);
-        trail.setTrailName(request.getTrailName());
-        trail.setSummary(request.getSummary());
-        trail.setTrailDescription(request.getTrailDescription());
-        trail.setLengthMiles(request.getLengthMiles());
-        trail.setLengthKm(request.getLengthKm());
-        trail.setDifficulty(request.getDifficulty());
-        trail.setAccessibilityNotes(request.getAccessibilityNotes());
-        trail.setRouteType(request.getRouteType());
-        trail.setNearestTown(request.getNearestTown());
-        trail.setStartPostcode(request.getStartPostcode());
-        trail.setFinishLocation(request.getFinishLocation());
-        trail.setFinishPostcode(request.getFinishPostcode());
-        trail.setIsPublic(request.getIsPublic() != null ? request.getIsPublic() : true);
 
-        return trailRepository.createTrail(trail);
+        Integer trailId;
+        try {
+            trailId = trailRepository.createTrail(trail);
+        } catch (DataAccessException e) {
+            // Possibly deactivated since it was cached: look the user up again next time
+            activeUserCache.invalidate(userId);
+            throw e;
+        }
+        readRouting.recordWrite(userId, List.of(trailId));
+        auditCreated(trailId, trail.getTrailName(), userId);
+        collectionChanged();
+        trailCache.invalidate(trailId);
+
+        // Index the new row as written (no reviews or route yet) instead of re-reading it
+        trail.setTrailId(trailId);
+        trail.setCreatedDate(LocalDateTime.now());
+        trail.setIsDeleted(false);
+        indexWrittenTrail(trail, 0, 0, null, null);
+        return trailId;
+    }
+
+    /**
+     * Import many trails for one user
+     * Rows are validated individually, then inserted in chunks (one transaction per chunk).
+     * If a chunk is rejected by the database its rows are retried one at a time
+     * so that only the offending rows are reported as failed.
+     */
+    public List<BatchRowResult> importTrails(Iterator<TrailRequest> requests, Integer userId) {
+        // Verify user exists and is active (once for the whole batch, not cached:
+        // the set-based insert does not check the user again)
+        activeUserCache.requireFresh(userId);
+
+        List<BatchRowResult> results = new ArrayList<>();
+        List<Trail> chunk = new ArrayList<>(batchChunkSize);
+        List<Integer> chunkIndexes = new ArrayList<>(batchChunkSize);
+        int index = 0;
+
+        while (true) {
+            TrailRequest request;
+            try {
+                if (!requests.hasNext()) {
+                    break;
+                }
+                request = requests.next();
+            } catch (RuntimeException e) {
+                // Malformed streamed input: nothing after this row can be read
+                results.add(BatchRowResult.failed(index, "Malformed trail: " + e.getMessage()));
+                break;
+            }
+
+            if (index >= batchMaxRows) {
+                results.add(BatchRowResult.failed(index, "Batch limit of " + batchMaxRows + " trails exceeded"));
+                break;
+            }
+
+            String error = validate(request);
+            if (error != null) {
+                results.add(BatchRowResult.failed(index, error));
+            } else {
+                Trail trail = toTrail(request);
+                trail.setUserId(userId);
+                chunk.add(trail);
+                chunkIndexes.add(index);
+            }
+            index++;
+
+            if (chunk.size() == batchChunkSize) {
+                insertChunk(chunk, chunkIndexes, results);
+                chunk.clear();
+                chunkIndexes.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            insertChunk(chunk, chunkIndexes, results);
+        }
+
+        results.sort(Comparator.comparingInt(BatchRowResult::index));
+        return results;
     }
 
     /**
      * Update existing trail
+     * Ownership is checked in the same round-trip as the write
      */
     public boolean updateTrail(Integer trailId, TrailRequest request, Integer userId) {
-        // Get existing trail
-        Trail existingTrail = trailRepository.findById(trailId)
-            .orElseThrow(() -> new RuntimeException("Trail not found"));
+        // Update trail entity
+        Trail trail = toTrail(request);
+
+        TrailUpdate update = trailRepository.updateTrail(trailId, userId, trail);
+        checkWriteResult(update.result(), "Unauthorized: You can only update your own trails");
+        readRouting.recordWrite(userId, List.of(trailId));
+        auditLogWriter.recordAll(fieldChanges(trailId, update.before(), trail, actor(userId)));
+
+        collectionChanged();
+        trailCache.invalidate(trailId);
+
+        // After-image from the request plus what sp_UpdateTrail returned: no re-read
+        trail.setTrailId(trailId);
+        trail.setUserId(userId);
+        trail.setCreatedDate(update.before().getCreatedDate());
+        trail.setLastModifiedDate(LocalDateTime.now());
+        trail.setLastModifiedBy(userId);
+        trail.setIsDeleted(false);
+        indexWrittenTrail(trail, update.ratingSum(), update.reviewCount(),
+            update.startLatitude(), update.startLongitude());
+        return true;
+    }
+
+    /**
+     * Delete trail (soft delete)
+     * Ownership is checked in the same round-trip as the write
+     */
+    public boolean deleteTrail(Integer trailId, Integer userId) {
+        TrailWriteResult result = trailRepository.deleteTrail(trailId, userId);
+        checkWriteResult(result, "Unauthorized: You can only delete your own trails");
+        readRouting.recordWrite(userId, List.of(trailId));
+        auditLogWriter.record(AuditEvent.softDeleted(trailId, actor(userId), AuditLogWriter.currentIpAddress()));
+
+        collectionChanged();
+        trailCache.invalidate(trailId);
+        searchIndex.remove(trailId);
+        facetIndex.remove(trailId);
+        suggestIndex.remove(trailId);
+        geoIndex.remove(trailId);
+        return true;
+    }
+
+    /**
+     * Search trails by criteria, ranked by relevance
+     * Served from the in-memory index; falls back to SQL (reading only the fieldset's
+     * columns) until the index is loaded
+     */
+    public List<Trail> searchTrails(String searchTerm, String difficulty, TrailFields fields) {
+        boolean fromIndex = searchIndex.isReady();
+        List<Trail> trails = fromIndex
+            ? searchIndex.search(searchTerm, difficulty)
+            : readRouting.readCollection(() -> trailRepository.searchTrails(searchTerm, difficulty, fields));
+
+        meterRegistry.counter("trailservice.search",
+            "source", fromIndex ? "index" : "sql",
+            "outcome", trails.isEmpty() ? "empty" : "hits").increment();
+        return trails;
+    }
 
-        // Check authorization - user must own the trail
-        if (!existingTrail.getUserId().equals(userId)) {
-            throw new RuntimeException("Unauthorized: You can only update your own trails");
+    /**
+     * Faceted search over public trails: filtered hits plus counts per difficulty,
+     * route type, town, length bucket and accessibility notes, all from the in-memory
+     * facet index. A text query is ranked by the search index first.
+     */
+    public FacetedTrails<Trail> facetedSearch(TrailFacetQuery query, Integer limit) {
+        checkRange(query.minKm(), query.maxKm(), "Km");
+        checkRange(query.minMiles(), query.maxMiles(), "Miles");
+        int maxHits = limit == null ? defaultFacetLimit : limit;
+        if (maxHits < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
         }
+        maxHits = Math.min(maxHits, maxFacetLimit);
 
-        // Update trail entity
+        loadOnce(facetLoadLock, facetIndex::isReady,
+            () -> facetIndex.rebuild(trailRepository.findAllPublicTrails()));
+        List<Trail> ranked = query.q() == null || query.q().isBlank()
+            ? null
+            : searchTrails(query.q(), null, null);
+        return facetIndex.search(query, ranked, maxHits);
+    }
+
+    /**
+     * Typeahead: the highest-weighted trail names and towns starting with the prefix
+     */
+    public List<TrailSuggestion> suggest(String prefix, Integer limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new IllegalArgumentException("Prefix is required");
+        }
+        int maxResults = limit == null ? defaultSuggestLimit : limit;
+        if (maxResults < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        maxResults = Math.min(maxResults, maxSuggestLimit);
+
+        loadOnce(suggestLoadLock, suggestIndex::isReady, this::loadSuggestIndex);
+        return suggestIndex.suggest(prefix, maxResults);
+    }
+
+    /**
+     * Find public trails starting near a point, nearest first
+     * With a radius: trails within radiusKm (up to limit); without: the limit nearest trails
+     */
+    public List<NearbyTrail> getNearbyTrails(double latitude, double longitude, Double radiusKm, Integer limit) {
+        if (latitude < -90 || latitude > 90) {
+            throw new IllegalArgumentException("Latitude must be between -90 and 90");
+        }
+        if (longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Longitude must be between -180 and 180");
+        }
+        if (radiusKm != null && !(radiusKm > 0)) {
+            throw new IllegalArgumentException("radiusKm must be greater than 0");
+        }
+        int maxResults = limit == null ? defaultNearbyLimit : limit;
+        if (maxResults < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        maxResults = Math.min(maxResults, maxNearbyLimit);
+
+        loadOnce(geoLoadLock, geoIndex::isReady, this::loadGeoIndex);
+        return radiusKm != null
+            ? geoIndex.within(latitude, longitude, radiusKm, maxResults)
+            : geoIndex.nearest(latitude, longitude, maxResults);
+    }
+
+    /**
+     * Build the search index once the application has started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSearchIndex() {
+        // Faceted searches arriving meanwhile wait for this load rather than starting their own
+        facetLoadLock.lock();
+        try {
+            List<Trail> publicTrails = trailRepository.findAllPublicTrails();
+            searchIndex.rebuild(publicTrails);
+            facetIndex.rebuild(publicTrails);
+            logger.info("Trail search index loaded with {} trails", searchIndex.size());
+        } catch (RuntimeException e) {
+            logger.error("Could not load trail search index, searches will use SQL", e);
+        } finally {
+            facetLoadLock.unlock();
+        }
+    }
+
+    /**
+     * Build the typeahead index once the application has started
+     * If this fails the first suggest request retries the load
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSuggestIndexOnStartup() {
+        try {
+            loadOnce(suggestLoadLock, suggestIndex::isReady, this::loadSuggestIndex);
+        } catch (RuntimeException e) {
+            logger.error("Could not load trail suggest index, suggestions will retry", e);
+        }
+    }
+
+    private void loadSuggestIndex() {
+        suggestIndex.rebuild(trailRepository.findAllPublicTrailPopularity());
+        logger.info("Trail suggest index loaded with {} suggestions ({} bytes)",
+            suggestIndex.size(), suggestIndex.estimatedBytes());
+    }
+
+    /**
+     * Build the nearby (geo) index once the application has started
+     * If this fails the first nearby query retries the load
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadGeoIndexOnStartup() {
+        try {
+            loadOnce(geoLoadLock, geoIndex::isReady, this::loadGeoIndex);
+        } catch (RuntimeException e) {
+            logger.error("Could not load trail geo index, nearby queries will retry", e);
+        }
+    }
+
+    private void loadGeoIndex() {
+        geoIndex.rebuild(trailRepository.findAllPublicTrailLocations());
+        logger.info("Trail geo index loaded with {} trails", geoIndex.size());
+    }
+
+    /**
+     * Run an index load unless the index is ready, with at most one load in flight
+     * Callers that waited on the lock re-check readiness, so they reuse the load that
+     * just finished; if it failed, the next caller tries again.
+     */
+    private static void loadOnce(ReentrantLock lock, BooleanSupplier ready, Runnable load) {
+        if (ready.getAsBoolean()) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (!ready.getAsBoolean()) {
+                load.run();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Insert one chunk of a batch import and record the outcome of each row
+     */
+    private void insertChunk(List<Trail> chunk, List<Integer> chunkIndexes, List<BatchRowResult> results) {
+        List<Integer> trailIds = new ArrayList<>(chunk.size());
+        List<String> errors = new ArrayList<>(Collections.nCopies(chunk.size(), null));
+        try {
+            trailIds.addAll(transactionTemplate.execute(status -> trailRepository.createTrails(chunk)));
+        } catch (DataAccessException e) {
+            for (int i = 0; i < chunk.size(); i++) {
+                List<Trail> single = List.of(chunk.get(i));
+                try {
+                    trailIds.add(transactionTemplate.execute(status -> trailRepository.createTrails(single).get(0)));
+                } catch (DataAccessException rowError) {
+                    // The driver's message can expose schema details, so clients get a fixed one
+                    logger.warn("Batch import row {} rejected", chunkIndexes.get(i), rowError);
+                    trailIds.add(null);
+                    errors.set(i, rowError instanceof DataIntegrityViolationException
+                        ? "Trail rejected by a database constraint" : "Trail could not be saved");
+                }
+            }
+        }
+
+        List<Trail> created = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Integer trailId = trailIds.get(i);
+            if (trailId != null) {
+                Trail trail = chunk.get(i);
+                results.add(BatchRowResult.created(chunkIndexes.get(i), trailId));
+                auditCreated(trailId, trail.getTrailName(), trail.getUserId());
+                trail.setTrailId(trailId);
+                created.add(trail);
+            } else {
+                results.add(BatchRowResult.failed(chunkIndexes.get(i), errors.get(i)));
+            }
+        }
+        if (created.isEmpty()) {
+            return;
+        }
+        readRouting.recordWrite(chunk.get(0).getUserId(), created.stream().map(Trail::getTrailId).toList());
+        collectionChanged();
+
+        // Index the new rows as written (no reviews or route yet) instead of re-reading them
+        LocalDateTime createdDate = LocalDateTime.now();
+        for (Trail trail : created) {
+            trailCache.invalidate(trail.getTrailId());
+            trail.setCreatedDate(createdDate);
+            trail.setIsDeleted(false);
+            indexWrittenTrail(trail, 0, 0, null, null);
+        }
+    }
+
+    /**
+     * Forget everything derived from the whole collection after a write
+     */
+    private void collectionChanged() {
+        collectionVersion = null;
+        trailListCache.invalidateAll();
+    }
+
+    /**
+     * Record a new trail in both the TrailLog and the AuditLog
+     */
+    private void auditCreated(Integer trailId, String trailName, Integer userId) {
+        String actor = actor(userId);
+        auditLogWriter.record(AuditEvent.trailLog(trailId, trailName, actor));
+        auditLogWriter.record(AuditEvent.created(trailId, trailName, actor, AuditLogWriter.currentIpAddress()));
+    }
+
+    /**
+     * One audit event per editable field whose value differs between before and after
+     */
+    private static List<AuditEvent> fieldChanges(Integer trailId, Trail before, Trail after, String actor) {
+        String ipAddress = AuditLogWriter.currentIpAddress();
+        List<AuditEvent> events = new ArrayList<>();
+        for (TrailField field : AUDITED_FIELDS) {
+            Object oldValue = field.valueOf(before);
+            Object newValue = field.valueOf(after);
+            if (!sameValue(oldValue, newValue)) {
+                events.add(AuditEvent.fieldChanged(trailId, field.column(), oldValue, newValue, actor, ipAddress));
+            }
+        }
+        return events;
+    }
+
+    // DECIMAL columns come back with the column's scale, so 5 and 5.00 must compare equal
+    private static boolean sameValue(Object oldValue, Object newValue) {
+        if (oldValue instanceof BigDecimal oldDecimal && newValue instanceof BigDecimal newDecimal) {
+            return oldDecimal.compareTo(newDecimal) == 0;
+        }
+        return Objects.equals(oldValue, newValue);
+    }
+
+    /**
+     * Name recorded as ChangedBy: the caller's username, or the user ID outside a request
+     */
+    private static String actor(Integer userId) {
+        String username = AuditLogWriter.currentUsername();
+        return username != null ? username : "UserID " + userId;
+    }
+
+    /**
+     * Bean validation of one batch row; returns null when valid
+     */
+    private String validate(TrailRequest request) {
+        if (request == null) {
+            return "Trail is required";
+        }
+        Set<ConstraintViolation<TrailRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        StringBuilder error = new StringBuilder();
+        for (ConstraintViolation<TrailRequest> violation : violations) {
+            if (error.length() > 0) {
+                error.append("; ");
+            }
+            error.append(violation.getPropertyPath()).append(": ").append(violation.getMessage());
+        }
+        return error.toString();
+    }
+
+    /**
+     * Map request fields onto a new Trail entity
+     */
+    private Trail toTrail(TrailRequest request) {
         Trail trail = new Trail();
         trail.setTrailName(request.getTrailName());
         trail.setSummary(request.getSummary());
@@ -92,31 +712,86 @@ public class TrailService {
         trail.setFinishLocation(request.getFinishLocation());
         trail.setFinishPostcode(request.getFinishPostcode());
         trail.setIsPublic(request.getIsPublic() != null ? request.getIsPublic() : true);
-        trail.setLastModifiedBy(userId);
+        return trail;
+    }
 
-        return trailRepository.updateTrail(trailId, trail);
+    private static void checkRange(Double min, Double max, String unit) {
+        if ((min != null && min < 0) || (max != null && max < 0)) {
+            throw new IllegalArgumentException("Length" + unit + " bounds must not be negative");
+        }
+        if (min != null && max != null && min > max) {
+            throw new IllegalArgumentException("min" + unit + " must not be greater than max" + unit);
+        }
     }
 
     /**
-     * Delete trail (soft delete)
+     * Sync tokens are the decimal change sequence returned as nextToken
      */
-    public boolean deleteTrail(Integer trailId, Integer userId) {
-        // Get existing trail
-        Trail existingTrail = trailRepository.findById(trailId)
-            .orElseThrow(() -> new RuntimeException("Trail not found"));
+    private static long parseSyncToken(String token) {
+        if (token == null || token.isBlank()) {
+            return 0;
+        }
+        try {
+            long since = Long.parseLong(token.trim());
+            if (since < 0) {
+                throw new IllegalArgumentException("Invalid sync token");
+            }
+            return since;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid sync token");
+        }
+    }
 
-        // Check authorization - user must own the trail
-        if (!existingTrail.getUserId().equals(userId)) {
-            throw new RuntimeException("Unauthorized: You can only delete your own trails");
+    /**
+     * Translate a stored procedure result into the exceptions the controller maps to 403/404
+     */
+    private void checkWriteResult(TrailWriteResult result, String unauthorizedMessage) {
+        switch (result) {
+            case NOT_FOUND -> throw new RuntimeException("Trail not found");
+            case NOT_OWNER -> throw new RuntimeException(unauthorizedMessage);
+            case SUCCESS -> { }
         }
+    }
 
-        return trailRepository.deleteTrail(trailId, userId);
+    /**
+     * Update every in-memory index from a trail as just written
+     * Private trails are removed; the geo index needs a located start point.
+     */
+    private void indexWrittenTrail(Trail trail, int ratingSum, int reviewCount,
+                                   Double startLatitude, Double startLongitude) {
+        Integer trailId = trail.getTrailId();
+        searchIndex.put(trail);
+        facetIndex.put(trail);
+        if (!Boolean.TRUE.equals(trail.getIsPublic())) {
+            suggestIndex.remove(trailId);
+            geoIndex.remove(trailId);
+            return;
+        }
+        suggestIndex.put(new TrailPopularity(trailId, trail.getTrailName(), trail.getNearestTown(),
+            ratingSum, reviewCount));
+        if (startLatitude != null && startLongitude != null) {
+            geoIndex.put(new TrailLocation(listColumns(trail), startLatitude, startLongitude));
+        } else {
+            geoIndex.remove(trailId);
+        }
     }
 
     /**
-     * Search trails by criteria
+     * The list columns of a trail (as read from vw_PublicTrails), for nearby results
      */
-    public List<Trail> searchTrails(String searchTerm, String difficulty) {
-        return trailRepository.searchTrails(searchTerm, difficulty);
+    private static Trail listColumns(Trail trail) {
+        Trail listed = new Trail();
+        listed.setTrailId(trail.getTrailId());
+        listed.setTrailName(trail.getTrailName());
+        listed.setSummary(trail.getSummary());
+        listed.setLengthMiles(trail.getLengthMiles());
+        listed.setLengthKm(trail.getLengthKm());
+        listed.setDifficulty(trail.getDifficulty());
+        listed.setRouteType(trail.getRouteType());
+        listed.setNearestTown(trail.getNearestTown());
+        listed.setCreatedDate(trail.getCreatedDate());
+        listed.setIsPublic(true);
+        listed.setIsDeleted(false);
+        return listed;
     }
 }
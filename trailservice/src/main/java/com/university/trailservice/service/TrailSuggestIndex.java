@@ -0,0 +1,547 @@
+package com.university.trailservice.service;
+
+import com.university.trailservice.dto.TrailSuggestion;
+import com.university.trailservice.repository.TrailPopularity;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.stereotype.Component;
+
+/**
+ * Trail Suggest Index
+ * Typeahead over public trail names and nearest towns. Keys (lower-cased names) live
+ * in a radix trie stored as parallel int arrays, with every edge label held in one
+ * shared char pool, so a million names cost about 200 MB (display strings included)
+ * rather than an object per character. Each node records the highest weight below it, so the top-k
+ * suggestions for a prefix are found best-first without visiting the whole subtree.
+ * Trails weigh 1 + the sum of their ratings; a town weighs the total of its trails.
+ */
+@Component
+public final class TrailSuggestIndex {
+
+    private static final int NONE = -1;
+    private static final int ROOT = 0;
+    private static final int INITIAL_NODES = 1024;
+    private static final int INITIAL_ENTRIES = 512;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Trie nodes; a node's edge label is pool[labelStart, labelStart + labelLength)
+    private int[] labelStart;
+    private int[] labelLength;
+    private int[] parent;
+    private int[] firstChild;
+    private int[] nextSibling;
+    private int[] maxWeight;
+    private int[] firstEntry;
+    private int nodeCount;
+    private char[] pool;
+    private int poolSize;
+
+    // Suggestions; entries with the same key are chained through entryNext
+    private String[] entryText;
+    private int[] entryTrailId;
+    private int[] entryWeight;
+    private int[] entryNode;
+    private int[] entryNext;
+    // For trail entries, the entry of the trail's nearest town (NONE for towns themselves)
+    private int[] entryTown;
+    private int entryCount;
+    private long textBytes;
+    private final Deque<Integer> freeEntries = new ArrayDeque<>();
+
+    private final Map<Integer, Integer> trailEntries = new HashMap<>();
+    private final Map<String, Integer> townEntries = new HashMap<>();
+
+    // Entries removed since the last rebuild; their nodes and labels are reclaimed by compacting
+    private int removedEntries;
+    private volatile boolean ready;
+
+    public TrailSuggestIndex(MeterRegistry meterRegistry) {
+        clear();
+        Gauge.builder("trailservice.suggest.bytes", this, TrailSuggestIndex::estimatedBytes)
+            .description("Approximate heap used by the typeahead index")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Replace the whole index (startup load)
+     */
+    public void rebuild(List<TrailPopularity> trails) {
+        lock.writeLock().lock();
+        try {
+            clear();
+            for (TrailPopularity trail : trails) {
+                addTrail(trail);
+            }
+            trimToSize();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the index has been loaded and can serve suggestions
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Number of suggestions (trails plus distinct towns)
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return trailEntries.size() + townEntries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add or refresh a public trail (name, town and weight)
+     */
+    public void put(TrailPopularity trail) {
+        lock.writeLock().lock();
+        try {
+            removeTrail(trail.trailId());
+            addTrail(trail);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a trail (deleted or made private)
+     */
+    public void remove(Integer trailId) {
+        lock.writeLock().lock();
+        try {
+            removeTrail(trailId);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The k highest-weighted trail names and towns starting with the prefix
+     * (case-insensitive), highest weight first
+     */
+    public List<TrailSuggestion> suggest(String prefix, int k) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int locus = locate(key);
+            if (locus == NONE) {
+                return List.of();
+            }
+
+            // Max-heap of (weight, id, isEntry) packed into a long: weight in the high 32 bits
+            PriorityQueue<Long> queue = new PriorityQueue<>(Comparator.reverseOrder());
+            queue.add(pack(maxWeight[locus], locus, false));
+            List<TrailSuggestion> results = new ArrayList<>(k);
+            while (!queue.isEmpty() && results.size() < k) {
+                long item = queue.poll();
+                int id = (int) (item & 0xFFFFFFFFL) >>> 1;
+                if ((item & 1) == 1) {
+                    results.add(toSuggestion(id));
+                    continue;
+                }
+                for (int entry = firstEntry[id]; entry != NONE; entry = entryNext[entry]) {
+                    queue.add(pack(entryWeight[entry], entry, true));
+                }
+                for (int child = firstChild[id]; child != NONE; child = nextSibling[child]) {
+                    if (maxWeight[child] > 0) {
+                        queue.add(pack(maxWeight[child], child, false));
+                    }
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Approximate heap used by the arrays and suggestion strings
+     */
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) labelStart.length * 7 * Integer.BYTES
+                + (long) pool.length * Character.BYTES
+                + (long) entryText.length * (5 * Integer.BYTES + 4)
+                + textBytes
+                // HashMap node plus boxed key and value per trail or town
+                + (long) (trailEntries.size() + townEntries.size()) * 64;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addTrail(TrailPopularity trail) {
+        String name = trail.trailName() != null ? normalize(trail.trailName()) : "";
+        if (name.isEmpty()) {
+            return;
+        }
+        int weight = trail.weight();
+        int entry = addEntry(name, trail.trailName().trim(), trail.trailId(), weight);
+        trailEntries.put(trail.trailId(), entry);
+
+        String town = trail.nearestTown() != null ? normalize(trail.nearestTown()) : "";
+        if (!town.isEmpty()) {
+            Integer townEntry = townEntries.get(town);
+            if (townEntry == null) {
+                townEntry = addEntry(town, trail.nearestTown().trim(), NONE, weight);
+                townEntries.put(town, townEntry);
+            } else {
+                setWeight(townEntry, entryWeight[townEntry] + weight);
+            }
+            entryTown[entry] = townEntry;
+        }
+    }
+
+    private void removeTrail(Integer trailId) {
+        Integer entry = trailEntries.remove(trailId);
+        if (entry == null) {
+            return;
+        }
+        int townEntry = entryTown[entry];
+        int weight = entryWeight[entry];
+        removeEntry(entry);
+        if (townEntry != NONE) {
+            int remaining = entryWeight[townEntry] - weight;
+            if (remaining <= 0) {
+                townEntries.remove(normalize(entryText[townEntry]));
+                removeEntry(townEntry);
+            } else {
+                setWeight(townEntry, remaining);
+            }
+        }
+    }
+
+    /**
+     * Insert a key into the trie (splitting an edge if needed) and attach a new entry
+     */
+    private int addEntry(String key, String text, int trailId, int weight) {
+        int node = ROOT;
+        int i = 0;
+        while (i < key.length()) {
+            int child = findChild(node, key.charAt(i));
+            if (child == NONE) {
+                child = newNode(node, appendToPool(key, i), key.length() - i);
+                node = child;
+                break;
+            }
+            int common = commonPrefix(child, key, i);
+            node = common < labelLength[child] ? split(child, common) : child;
+            i += common;
+        }
+
+        int entry = freeEntries.isEmpty() ? nextEntry() : freeEntries.pop();
+        entryText[entry] = text;
+        textBytes += stringBytes(text);
+        entryTrailId[entry] = trailId;
+        entryWeight[entry] = weight;
+        entryNode[entry] = node;
+        entryNext[entry] = firstEntry[node];
+        entryTown[entry] = NONE;
+        firstEntry[node] = entry;
+
+        for (int n = node; n != NONE && maxWeight[n] < weight; n = parent[n]) {
+            maxWeight[n] = weight;
+        }
+        return entry;
+    }
+
+    private void removeEntry(int entry) {
+        int node = entryNode[entry];
+        if (firstEntry[node] == entry) {
+            firstEntry[node] = entryNext[entry];
+        } else {
+            int previous = firstEntry[node];
+            while (entryNext[previous] != entry) {
+                previous = entryNext[previous];
+            }
+            entryNext[previous] = entryNext[entry];
+        }
+        int weight = entryWeight[entry];
+        textBytes -= stringBytes(entryText[entry]);
+        entryText[entry] = null;
+        entryNode[entry] = NONE;
+        freeEntries.push(entry);
+        removedEntries++;
+        if (maxWeight[node] == weight) {
+            recomputeUpwards(node);
+        }
+    }
+
+    private void setWeight(int entry, int weight) {
+        int previous = entryWeight[entry];
+        entryWeight[entry] = weight;
+        int node = entryNode[entry];
+        if (weight > previous) {
+            for (int n = node; n != NONE && maxWeight[n] < weight; n = parent[n]) {
+                maxWeight[n] = weight;
+            }
+        } else if (maxWeight[node] == previous) {
+            recomputeUpwards(node);
+        }
+    }
+
+    /**
+     * Recompute subtree maxima from a node to the root after a weight went down
+     */
+    private void recomputeUpwards(int node) {
+        for (int n = node; n != NONE; n = parent[n]) {
+            int max = 0;
+            for (int entry = firstEntry[n]; entry != NONE; entry = entryNext[entry]) {
+                max = Math.max(max, entryWeight[entry]);
+            }
+            for (int child = firstChild[n]; child != NONE; child = nextSibling[child]) {
+                max = Math.max(max, maxWeight[child]);
+            }
+            if (max == maxWeight[n] && n != node) {
+                break;
+            }
+            maxWeight[n] = max;
+        }
+    }
+
+    /**
+     * Node whose subtree holds every key starting with the prefix, or NONE
+     * The prefix may end part-way along that node's edge label.
+     */
+    private int locate(String prefix) {
+        int node = ROOT;
+        int i = 0;
+        while (i < prefix.length()) {
+            int child = findChild(node, prefix.charAt(i));
+            if (child == NONE) {
+                return NONE;
+            }
+            int common = commonPrefix(child, prefix, i);
+            if (i + common == prefix.length()) {
+                return child;
+            }
+            if (common < labelLength[child]) {
+                return NONE;
+            }
+            node = child;
+            i += common;
+        }
+        return node;
+    }
+
+    /**
+     * Split a node's edge after length characters: a new node takes the first part
+     * of the label and the node (with its subtree) hangs below it; returns the new node
+     */
+    private int split(int node, int length) {
+        int upper = newNode(parent[node], labelStart[node], length);
+        // newNode linked upper as a child of the parent; unlink the original node instead
+        unlinkChild(parent[node], node);
+        labelStart[node] += length;
+        labelLength[node] -= length;
+        parent[node] = upper;
+        firstChild[upper] = node;
+        nextSibling[node] = NONE;
+        maxWeight[upper] = maxWeight[node];
+        return upper;
+    }
+
+    private int newNode(int parentNode, int start, int length) {
+        if (nodeCount == labelStart.length) {
+            int capacity = labelStart.length * 2;
+            labelStart = Arrays.copyOf(labelStart, capacity);
+            labelLength = Arrays.copyOf(labelLength, capacity);
+            parent = Arrays.copyOf(parent, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            maxWeight = Arrays.copyOf(maxWeight, capacity);
+            firstEntry = Arrays.copyOf(firstEntry, capacity);
+        }
+        int node = nodeCount++;
+        labelStart[node] = start;
+        labelLength[node] = length;
+        parent[node] = parentNode;
+        firstChild[node] = NONE;
+        maxWeight[node] = 0;
+        firstEntry[node] = NONE;
+        if (parentNode != NONE) {
+            nextSibling[node] = firstChild[parentNode];
+            firstChild[parentNode] = node;
+        } else {
+            nextSibling[node] = NONE;
+        }
+        return node;
+    }
+
+    private void unlinkChild(int parentNode, int child) {
+        if (firstChild[parentNode] == child) {
+            firstChild[parentNode] = nextSibling[child];
+            return;
+        }
+        int previous = firstChild[parentNode];
+        while (nextSibling[previous] != child) {
+            previous = nextSibling[previous];
+        }
+        nextSibling[previous] = nextSibling[child];
+    }
+
+    private int nextEntry() {
+        if (entryCount == entryText.length) {
+            int capacity = entryText.length * 2;
+            entryText = Arrays.copyOf(entryText, capacity);
+            entryTrailId = Arrays.copyOf(entryTrailId, capacity);
+            entryWeight = Arrays.copyOf(entryWeight, capacity);
+            entryNode = Arrays.copyOf(entryNode, capacity);
+            entryNext = Arrays.copyOf(entryNext, capacity);
+            entryTown = Arrays.copyOf(entryTown, capacity);
+        }
+        return entryCount++;
+    }
+
+    private int appendToPool(String key, int from) {
+        int length = key.length() - from;
+        if (poolSize + length > pool.length) {
+            pool = Arrays.copyOf(pool, Math.max(pool.length * 2, poolSize + length));
+        }
+        key.getChars(from, key.length(), pool, poolSize);
+        int start = poolSize;
+        poolSize += length;
+        return start;
+    }
+
+    private int findChild(int node, char c) {
+        for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+            if (pool[labelStart[child]] == c) {
+                return child;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Length of the common prefix of a node's label and key[from..]
+     */
+    private int commonPrefix(int node, String key, int from) {
+        int max = Math.min(labelLength[node], key.length() - from);
+        int start = labelStart[node];
+        int i = 0;
+        while (i < max && pool[start + i] == key.charAt(from + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Rebuild from the live entries once removals have left as much garbage as data
+     */
+    private void compactIfSparse() {
+        int live = trailEntries.size() + townEntries.size();
+        if (removedEntries < 1024 || removedEntries < live) {
+            return;
+        }
+        List<TrailPopularity> trails = new ArrayList<>(trailEntries.size());
+        for (int entry : trailEntries.values()) {
+            int town = entryTown[entry];
+            trails.add(new TrailPopularity(entryTrailId[entry], entryText[entry],
+                town != NONE ? entryText[town] : null, entryWeight[entry] - 1, 0));
+        }
+        clear();
+        for (TrailPopularity trail : trails) {
+            addTrail(trail);
+        }
+        trimToSize();
+    }
+
+    /**
+     * Drop the spare capacity left by doubling (after a bulk load or compaction)
+     */
+    private void trimToSize() {
+        int nodes = Math.max(nodeCount, 1);
+        labelStart = Arrays.copyOf(labelStart, nodes);
+        labelLength = Arrays.copyOf(labelLength, nodes);
+        parent = Arrays.copyOf(parent, nodes);
+        firstChild = Arrays.copyOf(firstChild, nodes);
+        nextSibling = Arrays.copyOf(nextSibling, nodes);
+        maxWeight = Arrays.copyOf(maxWeight, nodes);
+        firstEntry = Arrays.copyOf(firstEntry, nodes);
+        pool = Arrays.copyOf(pool, Math.max(poolSize, 1));
+        int entries = Math.max(entryCount, 1);
+        entryText = Arrays.copyOf(entryText, entries);
+        entryTrailId = Arrays.copyOf(entryTrailId, entries);
+        entryWeight = Arrays.copyOf(entryWeight, entries);
+        entryNode = Arrays.copyOf(entryNode, entries);
+        entryNext = Arrays.copyOf(entryNext, entries);
+        entryTown = Arrays.copyOf(entryTown, entries);
+    }
+
+    private void clear() {
+        labelStart = new int[INITIAL_NODES];
+        labelLength = new int[INITIAL_NODES];
+        parent = new int[INITIAL_NODES];
+        firstChild = new int[INITIAL_NODES];
+        nextSibling = new int[INITIAL_NODES];
+        maxWeight = new int[INITIAL_NODES];
+        firstEntry = new int[INITIAL_NODES];
+        nodeCount = 0;
+        pool = new char[INITIAL_NODES * 8];
+        poolSize = 0;
+        entryText = new String[INITIAL_ENTRIES];
+        entryTrailId = new int[INITIAL_ENTRIES];
+        entryWeight = new int[INITIAL_ENTRIES];
+        entryNode = new int[INITIAL_ENTRIES];
+        entryNext = new int[INITIAL_ENTRIES];
+        entryTown = new int[INITIAL_ENTRIES];
+        entryCount = 0;
+        textBytes = 0;
+        freeEntries.clear();
+        trailEntries.clear();
+        townEntries.clear();
+        removedEntries = 0;
+        newNode(NONE, 0, 0);
+    }
+
+    private TrailSuggestion toSuggestion(int entry) {
+        return entryTrailId[entry] == NONE
+            ? new TrailSuggestion(entryText[entry], TrailSuggestion.Type.TOWN, null)
+            : new TrailSuggestion(entryText[entry], TrailSuggestion.Type.TRAIL, entryTrailId[entry]);
+    }
+
+    // String header, value array header and (Latin-1) characters
+    private static long stringBytes(String text) {
+        return 40 + text.length();
+    }
+
+    private static long pack(int weight, int id, boolean isEntry) {
+        return ((long) weight << 32) | ((long) id << 1) | (isEntry ? 1 : 0);
+    }
+
+    /**
+     * Lower case with runs of whitespace collapsed, so "  Lake   District" matches "lake d"
+     */
+    static String normalize(String text) {
+        return text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
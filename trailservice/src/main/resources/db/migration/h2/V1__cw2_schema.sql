@@ -0,0 +1,328 @@
+-- =============================================
+-- V1: CW2 schema for the embedded H2 database (profile h2)
+-- Mirrors TrailService_CW2_SQL.sql in H2's MSSQLServer mode. Differences:
+--   RowVer is a BIGINT taken from CW2.TrailRowVer (H2 has no ROWVERSION);
+--   H2TrailRepository sets it on every update, as SQL Server would.
+--   The stored procedures are reproduced by H2TrailRepository.
+--   No triggers: the application never hard-deletes trails or writes reviews,
+--   so the rating summary is backfilled once below.
+-- Flyway creates the CW2 schema itself (spring.flyway.default-schema).
+-- =============================================
+
+CREATE SEQUENCE CW2.TrailRowVer;
+
+CREATE TABLE CW2.[User] (
+    UserID INT IDENTITY(1,1) PRIMARY KEY,
+    Username NVARCHAR(100) NOT NULL UNIQUE,
+    Email NVARCHAR(200) NOT NULL UNIQUE
+        CHECK (Email LIKE '%_@__%.__%'),
+    PasswordHash NVARCHAR(256) NOT NULL,
+    CreatedDate DATETIME NOT NULL DEFAULT GETDATE(),
+    LastLoginDate DATETIME NULL,
+    IsActive BIT NOT NULL DEFAULT 1,
+    CONSTRAINT CHK_Username_Length CHECK (LEN(Username) >= 3)
+);
+
+CREATE TABLE CW2.Location (
+    LocationID INT IDENTITY(1,1) PRIMARY KEY,
+    LocationName NVARCHAR(200) NOT NULL,
+    Postcode NVARCHAR(20) NULL,
+    Country NVARCHAR(100) NULL DEFAULT 'UK',
+    Latitude DECIMAL(9,6) NULL
+        CHECK (Latitude BETWEEN -90 AND 90),
+    Longitude DECIMAL(9,6) NULL
+        CHECK (Longitude BETWEEN -180 AND 180),
+    CreatedDate DATETIME NOT NULL DEFAULT GETDATE()
+);
+
+CREATE TABLE CW2.Trail (
+    TrailID INT IDENTITY(1,1) PRIMARY KEY,
+    UserID INT NOT NULL,
+    TrailName NVARCHAR(200) NOT NULL,
+    Summary NVARCHAR(1000) NULL,
+    TrailDescription NVARCHAR(MAX) NULL,
+    Length_Miles DECIMAL(5,2) NULL
+        CHECK (Length_Miles >= 0),
+    Length_Km DECIMAL(5,2) NULL
+        CHECK (Length_Km >= 0),
+    Difficulty NVARCHAR(50) NULL
+        CHECK (Difficulty IN ('Easy','Moderate','Hard','Challenging')),
+    AccessibilityNotes NVARCHAR(500) NULL,
+    RouteType NVARCHAR(50) NULL,
+    NearestTown NVARCHAR(100) NULL,
+    StartPostcode NVARCHAR(20) NULL,
+    FinishLocation NVARCHAR(200) NULL,
+    FinishPostcode NVARCHAR(20) NULL,
+    CreatedDate DATETIME NOT NULL DEFAULT GETDATE(),
+    LastModifiedDate DATETIME NULL,
+    LastModifiedBy INT NULL,
+    IsPublic BIT NOT NULL DEFAULT 1,
+    IsDeleted BIT NOT NULL DEFAULT 0,
+    RowVer BIGINT DEFAULT (NEXT VALUE FOR CW2.TrailRowVer) NOT NULL,
+    CONSTRAINT FK_Trail_User
+        FOREIGN KEY (UserID) REFERENCES CW2.[User](UserID),
+    CONSTRAINT FK_Trail_LastModifiedBy
+        FOREIGN KEY (LastModifiedBy) REFERENCES CW2.[User](UserID)
+);
+
+CREATE INDEX IX_Trail_RowVer ON CW2.Trail (RowVer);
+
+CREATE TABLE CW2.TrailRoute (
+    TrailID INT NOT NULL,
+    StartLocationID INT NOT NULL,
+    FinishLocationID INT NULL,
+    CreatedDate DATETIME NOT NULL DEFAULT GETDATE(),
+    CONSTRAINT PK_TrailRoute PRIMARY KEY (TrailID, StartLocationID),
+    CONSTRAINT FK_TrailRoute_Trail
+        FOREIGN KEY (TrailID) REFERENCES CW2.Trail(TrailID) ON DELETE CASCADE,
+    CONSTRAINT FK_TrailRoute_StartLoc
+        FOREIGN KEY (StartLocationID) REFERENCES CW2.Location(LocationID),
+    CONSTRAINT FK_TrailRoute_FinishLoc
+        FOREIGN KEY (FinishLocationID) REFERENCES CW2.Location(LocationID)
+);
+
+CREATE TABLE CW2.Feature (
+    FeatureID INT IDENTITY(1,1) PRIMARY KEY,
+    FeatureName NVARCHAR(200) NOT NULL UNIQUE,
+    Description NVARCHAR(500) NULL
+);
+
+CREATE TABLE CW2.TrailFeature (
+    TrailID INT NOT NULL,
+    FeatureID INT NOT NULL,
+    CONSTRAINT PK_TrailFeature PRIMARY KEY (TrailID, FeatureID),
+    CONSTRAINT FK_TrailFeature_Trail
+        FOREIGN KEY (TrailID) REFERENCES CW2.Trail(TrailID) ON DELETE CASCADE,
+    CONSTRAINT FK_TrailFeature_Feature
+        FOREIGN KEY (FeatureID) REFERENCES CW2.Feature(FeatureID)
+);
+
+CREATE TABLE CW2.Transport (
+    TransportID INT IDENTITY(1,1) PRIMARY KEY,
+    TransportType NVARCHAR(50) NOT NULL,
+    Details NVARCHAR(300) NULL
+);
+
+CREATE TABLE CW2.TrailTransport (
+    TrailID INT NOT NULL,
+    TransportID INT NOT NULL,
+    CONSTRAINT PK_TrailTransport PRIMARY KEY (TrailID, TransportID),
+    CONSTRAINT FK_TrailTransport_Trail
+        FOREIGN KEY (TrailID) REFERENCES CW2.Trail(TrailID) ON DELETE CASCADE,
+    CONSTRAINT FK_TrailTransport_Transport
+        FOREIGN KEY (TransportID) REFERENCES CW2.Transport(TransportID)
+);
+
+CREATE TABLE CW2.Review (
+    ReviewID INT IDENTITY(1,1) PRIMARY KEY,
+    TrailID INT NOT NULL,
+    UserID INT NOT NULL,
+    Rating INT NOT NULL
+        CHECK (Rating BETWEEN 1 AND 5),
+    Title NVARCHAR(200) NULL,
+    ReviewText NVARCHAR(MAX) NULL,
+    HikingDate DATE NULL,
+    CreatedDate DATETIME NOT NULL DEFAULT GETDATE(),
+    LastModifiedDate DATETIME NULL,
+    IsApproved BIT NOT NULL DEFAULT 0,
+    CONSTRAINT FK_Review_Trail
+        FOREIGN KEY (TrailID) REFERENCES CW2.Trail(TrailID),
+    CONSTRAINT FK_Review_User
+        FOREIGN KEY (UserID) REFERENCES CW2.[User](UserID)
+);
+
+CREATE TABLE CW2.TrailRatingSummary (
+    TrailID INT NOT NULL PRIMARY KEY,
+    RatingSum INT NOT NULL DEFAULT 0,
+    ReviewCount INT NOT NULL DEFAULT 0,
+    LastUpdated DATETIME NOT NULL DEFAULT GETDATE(),
+    CONSTRAINT FK_TrailRatingSummary_Trail
+        FOREIGN KEY (TrailID) REFERENCES CW2.Trail(TrailID)
+);
+
+CREATE TABLE CW2.Photo (
+    PhotoID INT IDENTITY(1,1) PRIMARY KEY,
+    TrailID INT NOT NULL,
+    UserID INT NOT NULL,
+    PhotoURL NVARCHAR(500) NOT NULL,
+    Caption NVARCHAR(500) NULL,
+    UploadDate DATETIME NOT NULL DEFAULT GETDATE(),
+    IsApproved BIT NOT NULL DEFAULT 0,
+    CONSTRAINT FK_Photo_Trail
+        FOREIGN KEY (TrailID) REFERENCES CW2.Trail(TrailID),
+    CONSTRAINT FK_Photo_User
+        FOREIGN KEY (UserID) REFERENCES CW2.[User](UserID)
+);
+
+CREATE TABLE CW2.Weather (
+    WeatherID INT IDENTITY(1,1) PRIMARY KEY,
+    LocationID INT NOT NULL,
+    RecordDate DATE NOT NULL,
+    Temperature_C DECIMAL(4,1) NULL,
+    Temperature_F DECIMAL(4,1) NULL,
+    Conditions NVARCHAR(100) NULL,
+    Precipitation_MM DECIMAL(5,2) NULL,
+    WindSpeed_KMH DECIMAL(5,2) NULL,
+    Humidity_Percent INT NULL
+        CHECK (Humidity_Percent BETWEEN 0 AND 100),
+    CONSTRAINT FK_Weather_Location
+        FOREIGN KEY (LocationID) REFERENCES CW2.Location(LocationID)
+);
+
+CREATE TABLE CW2.TrailLog (
+    LogID INT IDENTITY(1,1) PRIMARY KEY,
+    TrailID INT NOT NULL,
+    TrailName NVARCHAR(200) NOT NULL,
+    Action NVARCHAR(50) NOT NULL,
+    ActionBy NVARCHAR(100) NULL,
+    ActionDate DATETIME NOT NULL DEFAULT GETDATE()
+);
+
+CREATE TABLE CW2.AuditLog (
+    AuditID INT IDENTITY(1,1) PRIMARY KEY,
+    TableName NVARCHAR(128) NOT NULL,
+    RecordID INT NOT NULL,
+    Action NVARCHAR(50) NOT NULL,
+    FieldChanged NVARCHAR(128) NULL,
+    OldValue NVARCHAR(MAX) NULL,
+    NewValue NVARCHAR(MAX) NULL,
+    ChangedBy NVARCHAR(100) NOT NULL,
+    ChangedDate DATETIME NOT NULL DEFAULT GETDATE(),
+    IPAddress NVARCHAR(50) NULL
+);
+
+-- =============================================
+-- DEMO DATA (same rows as the CW2 script)
+-- =============================================
+
+INSERT INTO CW2.[User] (Username, Email, PasswordHash, IsActive)
+VALUES
+('admin', 'admin@trailservice.com',
+ 'e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855', 1),
+('john_hiker', 'john@example.com',
+ 'a665a45920422f9d417e4867efdc4fb8a04a1f3fff1fa07e998e86f7f7a27ae3', 1),
+('sarah_explorer', 'sarah@example.com',
+ 'b3a8e0e1f9ab1bfe3a36f231f676f78bb30a519d2b21e6c530c0eee8ebb4a5d0', 1);
+
+INSERT INTO CW2.Location (LocationName, Postcode, Country, Latitude, Longitude)
+VALUES
+('Admirals Hard, Stonehouse', 'PL1 3RJ', 'UK', 50.3682, -4.1567),
+('Jennycliff', 'PL9 9SW', 'UK', 50.3421, -4.1234),
+('The Hoe', 'PL1 2PA', 'UK', 50.3654, -4.1432),
+('Plymbridge Woods Car Park', 'PL7 4SU', 'UK', 50.4123, -4.0876),
+('Shaugh Bridge', 'PL7 5HD', 'UK', 50.4456, -4.0321);
+
+INSERT INTO CW2.Trail (UserID, TrailName, Summary, TrailDescription, Length_Miles,
+    Length_Km, Difficulty, AccessibilityNotes, RouteType, NearestTown, IsPublic)
+VALUES
+(1, 'Plymouth Waterfront Walkway',
+ 'Gentle coastal walk along Plymouth''s historic waterfront',
+ 'A scenic walk taking in naval history, the Hoe, and stunning coastal views. The route passes historic sites including the Royal Citadel, Smeaton''s Tower, and offers panoramic views of Plymouth Sound.',
+ 9.3, 14.9, 'Moderate', 'Mostly flat, some steps near Hoe', 'Linear',
+ 'Plymouth', 1),
+(2, 'Plymbridge Circular',
+ 'Woodland walk through Plymbridge Woods',
+ 'Beautiful circular route through ancient woodland and along the river Plym. Features include the old railway viaduct, the National Trust woodland, and abundant wildlife.',
+ 3.5, 5.6, 'Easy', 'Some uneven paths, suitable for families', 'Circular',
+ 'Plymouth', 1),
+(2, 'Shaugh Prior Loop',
+ 'Moorland and valley walk with river views',
+ 'A challenging route combining moorland terrain with river valley scenery. The walk takes you through Shaugh Prior village and along the River Plym with dramatic granite tors.',
+ 6.2, 10.0, 'Challenging', 'Steep sections, not suitable for wheelchairs',
+ 'Circular', 'Shaugh Prior', 1);
+
+INSERT INTO CW2.TrailRoute (TrailID, StartLocationID, FinishLocationID)
+VALUES
+(1, 1, 2),
+(2, 4, 4),
+(3, 5, 5);
+
+INSERT INTO CW2.Feature (FeatureName, Description)
+VALUES
+('Historic Sites', 'Contains historical landmarks or monuments'),
+('Wildlife', 'Good opportunities for wildlife spotting'),
+('Scenic Views', 'Panoramic or notable scenic viewpoints'),
+('Waterfall', 'Features one or more waterfalls'),
+('Ancient Woodland', 'Passes through ancient woodland');
+
+INSERT INTO CW2.TrailFeature (TrailID, FeatureID)
+VALUES
+(1, 1), (1, 3), (2, 2), (2, 5), (3, 2), (3, 3);
+
+INSERT INTO CW2.Transport (TransportType, Details)
+VALUES
+('Bus', 'Regular bus service available'),
+('Train', 'Train station nearby'),
+('Car Park', 'Free parking available'),
+('Bike Friendly', 'Suitable for cycling access');
+
+INSERT INTO CW2.Review (TrailID, UserID, Rating, Title, ReviewText, HikingDate, IsApproved)
+VALUES
+(1, 2, 5, 'Fantastic coastal walk!',
+ 'Absolutely loved this trail. The views of Plymouth Sound are breathtaking and there''s so much history along the way.',
+ '2024-09-15', 1),
+(2, 3, 4, 'Great family walk',
+ 'Perfect for families with young children. The woodland is beautiful and we saw lots of birds.',
+ '2024-10-20', 1);
+
+INSERT INTO CW2.Weather (LocationID, RecordDate, Temperature_C, Temperature_F,
+    Conditions, Precipitation_MM, WindSpeed_KMH, Humidity_Percent)
+VALUES
+(1, '2024-11-01', 12.5, 54.5, 'Partly Cloudy', 0.0, 15.0, 75),
+(4, '2024-11-01', 11.0, 51.8, 'Light Rain', 2.5, 10.0, 85);
+
+-- =============================================
+-- VIEWS
+-- =============================================
+
+CREATE VIEW CW2.vw_PublicTrails AS
+SELECT
+    t.TrailID,
+    t.TrailName,
+    t.Summary,
+    t.Length_Miles,
+    t.Length_Km,
+    t.Difficulty,
+    t.RouteType,
+    t.NearestTown,
+    u.Username AS CreatedBy,
+    t.CreatedDate
+FROM CW2.Trail t
+INNER JOIN CW2.[User] u ON t.UserID = u.UserID
+WHERE t.IsPublic = 1 AND t.IsDeleted = 0;
+
+CREATE VIEW CW2.vw_TrailDetails AS
+SELECT
+    t.TrailID,
+    t.TrailName,
+    t.Summary,
+    t.TrailDescription,
+    t.Length_Miles,
+    t.Length_Km,
+    t.Difficulty,
+    t.AccessibilityNotes,
+    t.RouteType,
+    t.NearestTown,
+    u.Username AS CreatedBy,
+    sl.LocationName AS StartLocation,
+    sl.Postcode AS StartPostcode,
+    fl.LocationName AS FinishLocation,
+    fl.Postcode AS FinishPostcode,
+    t.CreatedDate,
+    t.LastModifiedDate,
+    CAST(rs.RatingSum AS FLOAT) / NULLIF(rs.ReviewCount, 0) AS AverageRating,
+    ISNULL(rs.ReviewCount, 0) AS ReviewCount
+FROM CW2.Trail t
+INNER JOIN CW2.[User] u ON t.UserID = u.UserID
+INNER JOIN CW2.TrailRoute tr ON t.TrailID = tr.TrailID
+INNER JOIN CW2.Location sl ON tr.StartLocationID = sl.LocationID
+LEFT JOIN CW2.Location fl ON tr.FinishLocationID = fl.LocationID
+LEFT JOIN CW2.TrailRatingSummary rs ON t.TrailID = rs.TrailID
+WHERE t.IsDeleted = 0;
+
+-- Rating summary of the demo reviews (kept by trg_MaintainTrailRating on SQL Server)
+INSERT INTO CW2.TrailRatingSummary (TrailID, RatingSum, ReviewCount)
+SELECT TrailID, SUM(Rating), COUNT(*)
+FROM CW2.Review
+WHERE IsApproved = 1
+GROUP BY TrailID;
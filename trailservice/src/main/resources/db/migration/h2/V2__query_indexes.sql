@@ -0,0 +1,17 @@
+-- =============================================
+-- V2: H2 counterparts of the SQL Server query indexes
+-- H2 has no filtered indexes or INCLUDE columns, so the filter columns lead the key.
+-- Foreign key columns (Trail.UserID, Review.UserID) are indexed by H2 automatically.
+-- =============================================
+
+-- Public trail list, keyset pages and stream: IsPublic = 1 AND IsDeleted = 0, newest first
+CREATE INDEX IX_Trail_Public_Created
+    ON CW2.Trail (IsPublic, IsDeleted, CreatedDate DESC, TrailID DESC);
+
+-- First route of a trail: WHERE TrailID = ? ORDER BY CreatedDate, StartLocationID
+CREATE INDEX IX_TrailRoute_Trail_Created
+    ON CW2.TrailRoute (TrailID, CreatedDate, StartLocationID);
+
+-- Approved ratings per trail
+CREATE INDEX IX_Review_Trail_Approved
+    ON CW2.Review (TrailID, IsApproved);
@@ -0,0 +1,49 @@
+-- =============================================
+-- V3: synthetic trails for local load tests and benchmarks
+-- ${seed_trails} public and private trails, each with a located route and some with
+-- ratings. Every value is derived from the row number, so each run starts from the
+-- same data. Set H2_SEED_TRAILS=0 to start with the demo rows only.
+-- =============================================
+
+SET @FirstTrail = (SELECT ISNULL(MAX(TrailID), 0) FROM CW2.Trail);
+SET @FirstLocation = (SELECT ISNULL(MAX(LocationID), 0) FROM CW2.Location);
+
+INSERT INTO CW2.Trail (UserID, TrailName, Summary, TrailDescription, Length_Miles, Length_Km,
+    Difficulty, AccessibilityNotes, RouteType, NearestTown, CreatedDate, IsPublic)
+SELECT
+    MOD(X, 3) + 1,
+    CONCAT(CASE MOD(X, 7) WHEN 0 THEN 'Plym' WHEN 1 THEN 'Dart' WHEN 2 THEN 'Tamar' WHEN 3 THEN 'Erme' WHEN 4 THEN 'Avon' WHEN 5 THEN 'Teign' WHEN 6 THEN 'Yealm' END, ' ',
+           CASE MOD(X / 7, 6) WHEN 0 THEN 'River' WHEN 1 THEN 'Moor' WHEN 2 THEN 'Wood' WHEN 3 THEN 'Coast' WHEN 4 THEN 'Valley' WHEN 5 THEN 'Tor' END, ' ',
+           CASE MOD(X / 42, 5) WHEN 0 THEN 'Walk' WHEN 1 THEN 'Trail' WHEN 2 THEN 'Loop' WHEN 3 THEN 'Circular' WHEN 4 THEN 'Ramble' END, ' ', X),
+    CONCAT('Synthetic trail ', X, ' for load testing'),
+    CONCAT('Generated description of trail ', X, '. ', REPEAT('Lorem ipsum dolor sit amet. ', MOD(X, 8))),
+    CAST(MOD(X * 37, 300) / 10.0 + 0.5 AS DECIMAL(5,2)),
+    CAST((MOD(X * 37, 300) / 10.0 + 0.5) * 1.609 AS DECIMAL(5,2)),
+    CASE MOD(X, 4) WHEN 0 THEN 'Easy' WHEN 1 THEN 'Moderate' WHEN 2 THEN 'Hard' WHEN 3 THEN 'Challenging' END,
+    NULL,
+    CASE MOD(X, 3) WHEN 0 THEN 'Circular' WHEN 1 THEN 'Linear' WHEN 2 THEN 'Out and back' END,
+    CASE MOD(X * 13, 10) WHEN 0 THEN 'Plymouth' WHEN 1 THEN 'Tavistock' WHEN 2 THEN 'Ivybridge' WHEN 3 THEN 'Okehampton' WHEN 4 THEN 'Princetown' WHEN 5 THEN 'Totnes' WHEN 6 THEN 'Saltash' WHEN 7 THEN 'Yelverton' WHEN 8 THEN 'Dartmouth' WHEN 9 THEN 'Kingsbridge' END,
+    DATEADD(MINUTE, -X, CAST('2025-01-01 00:00:00' AS DATETIME)),
+    CASE WHEN MOD(X, 10) = 0 THEN 0 ELSE 1 END
+FROM SYSTEM_RANGE(1, ${seed_trails})
+ORDER BY X;
+
+-- One trailhead per trail across Devon and Cornwall (about 50.2-50.8 N, 3.5-4.7 W)
+INSERT INTO CW2.Location (LocationName, Country, Latitude, Longitude)
+SELECT
+    CONCAT('Trailhead ', X),
+    'UK',
+    CAST(50.2 + MOD(X * 7919, 6000) / 10000.0 AS DECIMAL(9,6)),
+    CAST(-4.7 + MOD(X * 104729, 12000) / 10000.0 AS DECIMAL(9,6))
+FROM SYSTEM_RANGE(1, ${seed_trails})
+ORDER BY X;
+
+INSERT INTO CW2.TrailRoute (TrailID, StartLocationID, FinishLocationID)
+SELECT @FirstTrail + X, @FirstLocation + X, @FirstLocation + X
+FROM SYSTEM_RANGE(1, ${seed_trails});
+
+-- Review totals (0-19 reviews, constant rating per trail) for the typeahead weights
+INSERT INTO CW2.TrailRatingSummary (TrailID, RatingSum, ReviewCount)
+SELECT @FirstTrail + X, MOD(X * 7, 20) * (MOD(X, 5) + 1), MOD(X * 7, 20)
+FROM SYSTEM_RANGE(1, ${seed_trails})
+WHERE MOD(X * 7, 20) > 0;
@@ -0,0 +1,45 @@
+-- =============================================
+-- V2: indexes matched to the repository queries
+-- V1 is the baseline created by TrailService_CW2_SQL.sql
+-- =============================================
+
+-- Public trail list, keyset pages, NDJSON stream, search ordering, and the
+-- suggest/nearby index loads: every one filters IsPublic = 1 AND IsDeleted = 0
+-- (as literals, so the filtered index matches) and orders newest first.
+-- Includes the vw_PublicTrails columns so list pages need no key lookups.
+CREATE NONCLUSTERED INDEX IX_Trail_Public_Created
+    ON CW2.Trail (CreatedDate DESC, TrailID DESC)
+    INCLUDE (UserID, TrailName, Summary, Length_Miles, Length_Km, Difficulty, RouteType, NearestTown)
+    WHERE IsPublic = 1 AND IsDeleted = 0;
+GO
+
+-- Collection version: TOP 1 ... ORDER BY RowVer DESC seeks to the last entry of this
+-- index and returns that row's change date. Including CreatedDate and LastModifiedDate
+-- covers the query, so the seek reads one index row and no clustered index page
+CREATE NONCLUSTERED INDEX IX_Trail_RowVer
+    ON CW2.Trail (RowVer) INCLUDE (IsPublic, IsDeleted, CreatedDate, LastModifiedDate)
+    WITH (DROP_EXISTING = ON);
+GO
+
+-- Trails by owner (FK_Trail_User checks when a user row is deleted or its key changes)
+CREATE NONCLUSTERED INDEX IX_Trail_UserID
+    ON CW2.Trail (UserID);
+GO
+
+-- First route of a trail: WHERE TrailID = ? ORDER BY CreatedDate, StartLocationID (TOP 1)
+CREATE NONCLUSTERED INDEX IX_TrailRoute_Trail_Created
+    ON CW2.TrailRoute (TrailID, CreatedDate, StartLocationID)
+    INCLUDE (FinishLocationID);
+GO
+
+-- Approved ratings per trail (TrailRatingSummary backfill and any re-aggregation)
+CREATE NONCLUSTERED INDEX IX_Review_Trail_Approved
+    ON CW2.Review (TrailID)
+    INCLUDE (Rating)
+    WHERE IsApproved = 1;
+GO
+
+-- Reviews by author (FK_Review_User)
+CREATE NONCLUSTERED INDEX IX_Review_UserID
+    ON CW2.Review (UserID);
+GO
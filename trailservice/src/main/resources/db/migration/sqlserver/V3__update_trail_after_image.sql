@@ -0,0 +1,75 @@
+-- =============================================
+-- V3: sp_UpdateTrail also returns what the in-memory indexes need about the
+-- updated trail (CreatedDate, rating totals, first located start point), so a
+-- write no longer re-reads the row afterwards
+-- =============================================
+
+CREATE OR ALTER PROCEDURE CW2.sp_UpdateTrail
+    @TrailID INT,
+    @UserID INT,  -- For authorization
+    @TrailName NVARCHAR(200),
+    @Summary NVARCHAR(1000) = NULL,
+    @TrailDescription NVARCHAR(MAX) = NULL,
+    @Length_Miles DECIMAL(5,2) = NULL,
+    @Length_Km DECIMAL(5,2) = NULL,
+    @Difficulty NVARCHAR(50) = NULL,
+    @AccessibilityNotes NVARCHAR(500) = NULL,
+    @RouteType NVARCHAR(50) = NULL,
+    @NearestTown NVARCHAR(100) = NULL,
+    @StartPostcode NVARCHAR(20) = NULL,
+    @FinishLocation NVARCHAR(200) = NULL,
+    @FinishPostcode NVARCHAR(20) = NULL,
+    @IsPublic BIT = 1
+AS
+BEGIN
+    SET NOCOUNT ON;
+
+    -- Previous values, returned so the application can audit every changed field
+    -- (OUTPUT INTO is required because CW2.Trail has triggers)
+    DECLARE @Before TABLE (
+        TrailName NVARCHAR(200), Summary NVARCHAR(1000), TrailDescription NVARCHAR(MAX),
+        Length_Miles DECIMAL(5,2), Length_Km DECIMAL(5,2), Difficulty NVARCHAR(50),
+        AccessibilityNotes NVARCHAR(500), RouteType NVARCHAR(50), NearestTown NVARCHAR(100),
+        StartPostcode NVARCHAR(20), FinishLocation NVARCHAR(200), FinishPostcode NVARCHAR(20),
+        IsPublic BIT, CreatedDate DATETIME
+    );
+
+    -- Security: only the owner's row can match
+    UPDATE CW2.Trail SET
+        TrailName = @TrailName,
+        Summary = @Summary,
+        TrailDescription = @TrailDescription,
+        Length_Miles = @Length_Miles,
+        Length_Km = @Length_Km,
+        Difficulty = @Difficulty,
+        AccessibilityNotes = @AccessibilityNotes,
+        RouteType = @RouteType,
+        NearestTown = @NearestTown,
+        StartPostcode = @StartPostcode,
+        FinishLocation = @FinishLocation,
+        FinishPostcode = @FinishPostcode,
+        IsPublic = @IsPublic,
+        LastModifiedDate = GETDATE(),
+        LastModifiedBy = @UserID
+    OUTPUT deleted.TrailName, deleted.Summary, deleted.TrailDescription,
+        deleted.Length_Miles, deleted.Length_Km, deleted.Difficulty,
+        deleted.AccessibilityNotes, deleted.RouteType, deleted.NearestTown,
+        deleted.StartPostcode, deleted.FinishLocation, deleted.FinishPostcode,
+        deleted.IsPublic, deleted.CreatedDate
+    INTO @Before
+    WHERE TrailID = @TrailID AND UserID = @UserID AND IsDeleted = 0;
+
+    IF @@ROWCOUNT > 0
+        SELECT 0 AS Result, b.*, rs.RatingSum, rs.ReviewCount, loc.Latitude, loc.Longitude
+        FROM @Before b
+        LEFT JOIN CW2.TrailRatingSummary rs ON rs.TrailID = @TrailID
+        OUTER APPLY (SELECT TOP 1 l.Latitude, l.Longitude FROM CW2.TrailRoute tr
+                     INNER JOIN CW2.Location l ON tr.StartLocationID = l.LocationID
+                     WHERE tr.TrailID = @TrailID AND l.Latitude IS NOT NULL AND l.Longitude IS NOT NULL
+                     ORDER BY tr.CreatedDate, tr.StartLocationID) loc;
+    ELSE IF EXISTS (SELECT 1 FROM CW2.Trail WHERE TrailID = @TrailID AND IsDeleted = 0)
+        SELECT 1 AS Result;
+    ELSE
+        SELECT 2 AS Result;
+END;
+GO
@@ -0,0 +1,171 @@
+package com.university.trailservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Routing and failover with mocked pools; health checks are run directly rather than
+ * waiting for the background thread (started with an interval no test reaches)
+ */
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private Connection primaryConnection;
+
+    private ReplicaRoutingDataSource dataSource;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (dataSource != null) {
+            dataSource.destroy();
+        }
+    }
+
+    @Test
+    void replicaTakesNoReadsBeforeItsFirstPassedCheck() throws SQLException {
+        start(mock(HikariDataSource.class));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertThat(readOnReplica()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void replicaReadsUseAHealthyReplicaAndOtherReadsThePrimary() throws SQLException {
+        HikariDataSource replica = healthyReplica();
+        Connection replicaConnection = mock(Connection.class);
+        start(replica);
+        checkReplicas();
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertThat(readOnReplica()).isSameAs(replicaConnection);
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void readsInsideATransactionStayOnThePrimary() throws SQLException {
+        start(healthyReplica());
+        checkReplicas();
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThat(readOnReplica()).isSameAs(primaryConnection);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    @Test
+    void replicaThatCannotHandOutAConnectionFailsOverToThePrimary() throws SQLException {
+        HikariDataSource replica = healthyReplica();
+        start(replica);
+        checkReplicas();
+        when(replica.getConnection()).thenThrow(new SQLTransientConnectionException("timed out"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertThat(readOnReplica()).isSameAs(primaryConnection);
+        // Marked down: the next read goes straight to the primary without waiting on the replica
+        assertThat(readOnReplica()).isSameAs(primaryConnection);
+
+        assertThat(meterRegistry.counter("trailservice.replicas.failovers").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("trailservice.replicas.healthy").gauge().value()).isZero();
+    }
+
+    @Test
+    void replicaRejoinsAfterPassingACheckAgain() throws SQLException {
+        HikariDataSource replica = healthyReplica();
+        start(replica);
+        checkReplicas();
+        when(replica.getConnection()).thenThrow(new SQLTransientConnectionException("down"));
+        checkReplicas();
+        assertThat(meterRegistry.get("trailservice.replicas.healthy").gauge().value()).isZero();
+
+        Connection validated = validConnection();
+        Connection read = mock(Connection.class);
+        // doReturn: when(...) would call the throwing stub
+        doReturn(validated, read).when(replica).getConnection();
+        checkReplicas();
+
+        assertThat(readOnReplica()).isSameAs(read);
+    }
+
+    @Test
+    void healthyReplicasShareReadsInTurn() throws SQLException {
+        HikariDataSource first = healthyReplica();
+        HikariDataSource second = healthyReplica();
+        start(first, second);
+        checkReplicas();
+        Connection fromFirst = mock(Connection.class);
+        Connection fromSecond = mock(Connection.class);
+        when(first.getConnection()).thenReturn(fromFirst);
+        when(second.getConnection()).thenReturn(fromSecond);
+
+        assertThat(List.of(readOnReplica(), readOnReplica(), readOnReplica()))
+            .containsExactly(fromFirst, fromSecond, fromFirst);
+    }
+
+    @Test
+    void perCallCredentialsAreRefused() {
+        start();
+
+        assertThatThrownBy(() -> dataSource.getConnection("sa", "secret")).isInstanceOf(SQLException.class);
+    }
+
+    private void start(HikariDataSource... replicas) {
+        dataSource = new ReplicaRoutingDataSource(primary, List.of(replicas), 3_600_000, meterRegistry);
+        dataSource.afterPropertiesSet();
+    }
+
+    private void checkReplicas() {
+        List<?> replicas = (List<?>) ReflectionTestUtils.getField(dataSource, "replicas");
+        replicas.forEach(replica -> ReflectionTestUtils.invokeMethod(dataSource, "check", replica));
+    }
+
+    private Connection readOnReplica() {
+        return ReplicaRoutingDataSource.onReplica(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private static HikariDataSource healthyReplica() throws SQLException {
+        HikariDataSource replica = mock(HikariDataSource.class);
+        Connection validated = validConnection();
+        when(replica.getConnection()).thenReturn(validated);
+        return replica;
+    }
+
+    private static Connection validConnection() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.isValid(2)).thenReturn(true);
+        return connection;
+    }
+}
@@ -0,0 +1,74 @@
+package com.university.trailservice.controller;
+
+import com.university.trailservice.dto.LoginRequest;
+import com.university.trailservice.dto.RegisterRequest;
+import com.university.trailservice.service.AuthService;
+import com.university.trailservice.service.PasswordHashingBusyException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class AuthControllerTest {
+
+    @Mock
+    private AuthService authService;
+
+    @InjectMocks
+    private AuthController authController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(authController).build();
+    }
+
+    @Test
+    void saturatedHasherTurnsLoginIntoServiceUnavailable() throws Exception {
+        when(authService.login(any(LoginRequest.class))).thenThrow(new PasswordHashingBusyException());
+
+        mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"john_hiker\",\"password\":\"secret123\"}"))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+            .andExpect(jsonPath("$.message").value("Authentication service is busy, please retry shortly"));
+    }
+
+    @Test
+    void saturatedHasherTurnsRegistrationIntoServiceUnavailable() throws Exception {
+        when(authService.register(any(RegisterRequest.class))).thenThrow(new PasswordHashingBusyException());
+
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"new_hiker\",\"email\":\"new@example.com\",\"password\":\"secret123\"}"))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    @Test
+    void wrongPasswordIsStillUnauthorized() throws Exception {
+        when(authService.login(any(LoginRequest.class))).thenThrow(new RuntimeException("Invalid username or password"));
+
+        mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"john_hiker\",\"password\":\"wrong-one\"}"))
+            .andExpect(status().isUnauthorized())
+            .andExpect(header().doesNotExist(HttpHeaders.RETRY_AFTER));
+    }
+}
@@ -0,0 +1,125 @@
+package com.university.trailservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.university.trailservice.repository.CollectionVersion;
+import com.university.trailservice.service.TrailListCache;
+import com.university.trailservice.service.TrailService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class TrailControllerConditionalTest {
+
+    private static final CollectionVersion VERSION = new CollectionVersion(LocalDateTime.of(2024, 11, 1, 10, 15), 42);
+
+    @Mock
+    private TrailService trailService;
+
+    @InjectMocks
+    private TrailController trailController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(trailController, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(trailController, "maxAgeSeconds", 0L);
+        ReflectionTestUtils.setField(trailController, "sharedMaxAgeSeconds", 30L);
+        mockMvc = MockMvcBuilders.standaloneSetup(trailController).build();
+        when(trailService.getCollectionVersion()).thenReturn(VERSION);
+    }
+
+    @Test
+    void matchingIdentityETagReturnsNotModifiedWithoutBuildingThePage() throws Exception {
+        mockMvc.perform(get("/api/trails").header(HttpHeaders.IF_NONE_MATCH, "\"c42\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"c42\""))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=0, public, s-maxage=30"))
+            .andExpect(header().string(HttpHeaders.VARY, "Accept, Accept-Encoding"))
+            .andExpect(content().bytes(new byte[0]));
+
+        verify(trailService, never()).getSerializedTrailPage(any(), any(), any(), any());
+    }
+
+    @Test
+    void matchingGzipETagReturnsNotModifiedForGzipClients() throws Exception {
+        mockMvc.perform(get("/api/trails")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"c42-gz\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"c42-gz\""));
+    }
+
+    @Test
+    void identityETagDoesNotValidateAGzipRepresentation() throws Exception {
+        stubPage();
+
+        mockMvc.perform(get("/api/trails")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"c42\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"c42-gz\""))
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+    }
+
+    @Test
+    void staleETagReturnsTheFullPageWithTheCurrentETag() throws Exception {
+        stubPage();
+
+        mockMvc.perform(get("/api/trails").header(HttpHeaders.IF_NONE_MATCH, "\"c41\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"c42\""))
+            .andExpect(header().string(HttpHeaders.VARY, "Accept, Accept-Encoding"))
+            .andExpect(header().string("X-Next-Cursor", "next"))
+            .andExpect(content().string("{}"));
+    }
+
+    @Test
+    void ifModifiedSinceAtTheCollectionVersionReturnsNotModified() throws Exception {
+        // The controller reads LastModifiedDate in the server's zone
+        String lastModified = DateTimeFormatter.RFC_1123_DATE_TIME.format(
+            VERSION.lastModified().atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC));
+
+        mockMvc.perform(get("/api/trails").header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void searchUsesTheIdentityCollectionETag() throws Exception {
+        mockMvc.perform(get("/api/trails/search")
+                .param("q", "lake")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"c42\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.VARY, "Accept, Accept-Encoding"));
+    }
+
+    private void stubPage() {
+        byte[] json = "{}".getBytes(StandardCharsets.UTF_8);
+        when(trailService.getSerializedTrailPage(isNull(), isNull(), isNull(), any()))
+            .thenReturn(new TrailListCache.Page(json, new byte[] {31, -117}, "next", 42));
+    }
+}
@@ -0,0 +1,85 @@
+package com.university.trailservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.university.trailservice.repository.CollectionVersion;
+import com.university.trailservice.service.TrailListCache;
+import com.university.trailservice.service.TrailService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Accept-Encoding negotiation for the cached trail list: gzip bytes or the identity body
+ */
+@ExtendWith(MockitoExtension.class)
+class TrailControllerEncodingTest {
+
+    private static final byte[] JSON = "{\"trails\":[]}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] GZIP = {31, -117, 8, 0};
+
+    @Mock
+    private TrailService trailService;
+
+    @InjectMocks
+    private TrailController trailController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(trailController, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(trailController, "sharedMaxAgeSeconds", 30L);
+        mockMvc = MockMvcBuilders.standaloneSetup(trailController).build();
+        when(trailService.getCollectionVersion()).thenReturn(new CollectionVersion(LocalDateTime.of(2025, 1, 1, 0, 0), 7));
+        when(trailService.getSerializedTrailPage(isNull(), isNull(), isNull(), any()))
+            .thenReturn(new TrailListCache.Page(JSON, GZIP, null, 7));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"gzip", "GZIP", "deflate, gzip", "gzip;q=0.5", "br;q=1.0, gzip; q=0.8"})
+    void gzipIsSentWhenAccepted(String acceptEncoding) throws Exception {
+        mockMvc.perform(get("/api/trails").header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"c7-gz\""))
+            .andExpect(content().bytes(GZIP));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"identity", "deflate, br", "gzip;q=0", "gzip; q=0.0", "x-gzip"})
+    void identityIsSentWhenGzipIsNotAccepted(String acceptEncoding) throws Exception {
+        mockMvc.perform(get("/api/trails").header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"c7\""))
+            .andExpect(content().bytes(JSON));
+    }
+
+    @Test
+    void identityIsSentWithoutAcceptEncoding() throws Exception {
+        mockMvc.perform(get("/api/trails"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andExpect(header().string(HttpHeaders.VARY, "Accept, Accept-Encoding"))
+            .andExpect(content().bytes(JSON));
+    }
+}
@@ -0,0 +1,55 @@
+package com.university.trailservice.dto;
+
+import com.university.trailservice.model.Trail;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TrailCursorTest {
+
+    @Test
+    void roundTripsThroughTheAfterParameter() {
+        TrailCursor cursor = new TrailCursor(LocalDateTime.of(2024, 11, 1, 10, 15, 30, 123_000_000), 42);
+
+        assertThat(cursor.toString()).isEqualTo("2024-11-01T10:15:30.123,42");
+        assertThat(TrailCursor.parse(cursor.toString())).isEqualTo(cursor);
+    }
+
+    @Test
+    void roundTripsWholeSecondsAndMidnight() {
+        TrailCursor seconds = new TrailCursor(LocalDateTime.of(2024, 11, 1, 10, 15, 30), 7);
+        TrailCursor midnight = new TrailCursor(LocalDateTime.of(2024, 11, 1, 0, 0), 1);
+
+        assertThat(TrailCursor.parse(seconds.toString())).isEqualTo(seconds);
+        assertThat(TrailCursor.parse(midnight.toString())).isEqualTo(midnight);
+    }
+
+    @Test
+    void pointsJustAfterTheGivenTrail() {
+        Trail trail = new Trail();
+        trail.setTrailId(9);
+        trail.setCreatedDate(LocalDateTime.of(2025, 1, 1, 12, 0));
+
+        assertThat(TrailCursor.after(trail)).isEqualTo(new TrailCursor(trail.getCreatedDate(), 9));
+    }
+
+    @Test
+    void toleratesSpacesAroundTheParts() {
+        assertThat(TrailCursor.parse(" 2024-11-01T10:15:30 , 42 "))
+            .isEqualTo(new TrailCursor(LocalDateTime.of(2024, 11, 1, 10, 15, 30), 42));
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        for (String value : new String[] {
+                "", "2024-11-01T10:15:30", ",42", "2024-11-01T10:15:30,", "yesterday,42",
+                "2024-11-01T10:15:30,forty-two", "2024-11-01T10:15:30,99999999999"}) {
+            assertThatThrownBy(() -> TrailCursor.parse(value))
+                .as(value)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Invalid cursor");
+        }
+    }
+}
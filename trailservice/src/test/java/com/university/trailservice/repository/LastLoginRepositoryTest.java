@@ -0,0 +1,66 @@
+package com.university.trailservice.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Coalesced last-login writes over the H2 schema
+ */
+@JdbcTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "spring.flyway.placeholders.seed_trails=0")
+@Import(H2UserRepository.class)
+class LastLoginRepositoryTest {
+
+    private static final LocalDateTime MORNING = LocalDateTime.of(2025, 3, 1, 9, 0);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void oneCallWritesEveryUser() {
+        int ada = insertUser("ada_login", null);
+        int grace = insertUser("grace_login", null);
+
+        userRepository.updateLastLogins(Map.of(ada, MORNING, grace, MORNING.plusHours(1)));
+
+        assertThat(lastLogin(ada)).isEqualTo(MORNING);
+        assertThat(lastLogin(grace)).isEqualTo(MORNING.plusHours(1));
+    }
+
+    @Test
+    void lastLoginNeverMovesBackwards() {
+        // A retried flush can carry an older date than one written since
+        int ada = insertUser("ada_login", MORNING.plusHours(2));
+
+        userRepository.updateLastLogins(Map.of(ada, MORNING));
+
+        assertThat(lastLogin(ada)).isEqualTo(MORNING.plusHours(2));
+    }
+
+    private int insertUser(String username, LocalDateTime lastLogin) {
+        jdbcTemplate.update("INSERT INTO CW2.[User] (Username, Email, PasswordHash, LastLoginDate) VALUES (?, ?, 'x', ?)",
+            username, username + "@example.com", lastLogin != null ? Timestamp.valueOf(lastLogin) : null);
+        return jdbcTemplate.queryForObject("SELECT UserID FROM CW2.[User] WHERE Username = ?", Integer.class, username);
+    }
+
+    private LocalDateTime lastLogin(int userId) {
+        return jdbcTemplate.queryForObject("SELECT LastLoginDate FROM CW2.[User] WHERE UserID = ?",
+            Timestamp.class, userId).toLocalDateTime();
+    }
+}
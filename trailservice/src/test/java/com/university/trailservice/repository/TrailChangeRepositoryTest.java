@@ -0,0 +1,88 @@
+package com.university.trailservice.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Change feed over the H2 schema, where the horizon is MAX(RowVer) rather than
+ * MIN_ACTIVE_ROWVERSION(); sequence values survive rollback, so only relative values are checked
+ */
+@JdbcTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "spring.flyway.placeholders.seed_trails=0")
+@Import(H2TrailRepository.class)
+class TrailChangeRepositoryTest {
+
+    @Autowired
+    private TrailRepository trailRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void horizonIsTheLatestRowVer() {
+        insertTrail("First");
+        int second = insertTrail("Second");
+
+        assertThat(trailRepository.findChangeHorizon()).isEqualTo(rowVerOf(second));
+    }
+
+    @Test
+    void softDeleteMovesPastTheHorizonAndAppearsAsAChange() {
+        int trailId = insertTrail("Doomed");
+        long before = trailRepository.findChangeHorizon();
+
+        trailRepository.deleteTrail(trailId, 1);
+        long after = trailRepository.findChangeHorizon();
+
+        assertThat(after).isGreaterThan(before);
+        List<TrailChange> changes = trailRepository.findChanges(before, after, 10);
+        assertThat(changes).hasSize(1);
+        assertThat(changes.get(0).trail().getTrailId()).isEqualTo(trailId);
+        assertThat(changes.get(0).trail().getIsDeleted()).isTrue();
+        assertThat(changes.get(0).version()).isEqualTo(after);
+    }
+
+    @Test
+    void changesAreBoundedByTheHorizonAndReturnedInSequenceOrder() {
+        long since = trailRepository.findChangeHorizon();
+        int first = insertTrail("First");
+        int second = insertTrail("Second");
+        insertTrail("Beyond the horizon");
+
+        List<TrailChange> changes = trailRepository.findChanges(since, rowVerOf(second), 10);
+
+        assertThat(changes).extracting(change -> change.trail().getTrailId()).containsExactly(first, second);
+        assertThat(changes).extracting(TrailChange::version).isSorted();
+    }
+
+    @Test
+    void changesStopAtTheLimit() {
+        long since = trailRepository.findChangeHorizon();
+        int first = insertTrail("First");
+        insertTrail("Second");
+
+        List<TrailChange> changes = trailRepository.findChanges(since, trailRepository.findChangeHorizon(), 1);
+
+        assertThat(changes).extracting(change -> change.trail().getTrailId()).containsExactly(first);
+    }
+
+    private int insertTrail(String name) {
+        jdbcTemplate.update("INSERT INTO CW2.Trail (UserID, TrailName, IsPublic) VALUES (1, ?, 1)", name);
+        return jdbcTemplate.queryForObject("SELECT MAX(TrailID) FROM CW2.Trail", Integer.class);
+    }
+
+    private long rowVerOf(int trailId) {
+        return jdbcTemplate.queryForObject("SELECT RowVer FROM CW2.Trail WHERE TrailID = ?", Long.class, trailId);
+    }
+}
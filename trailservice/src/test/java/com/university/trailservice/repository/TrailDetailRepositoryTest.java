@@ -0,0 +1,89 @@
+package com.university.trailservice.repository;
+
+import com.university.trailservice.dto.TrailDetail;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The detail view reads its rating aggregates from TrailRatingSummary instead of the reviews
+ */
+@JdbcTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "spring.flyway.placeholders.seed_trails=0")
+@Import(H2TrailRepository.class)
+class TrailDetailRepositoryTest {
+
+    private static final int OWNER = 2;
+    private static final int OTHER_USER = 3;
+
+    @Autowired
+    private TrailRepository trailRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int trailId;
+
+    @BeforeEach
+    void insertTrail() {
+        jdbcTemplate.update("INSERT INTO CW2.Trail (UserID, TrailName, TrailDescription, IsPublic) " +
+                            "VALUES (?, 'Detailed', 'Long description', 1)", OWNER);
+        trailId = jdbcTemplate.queryForObject("SELECT MAX(TrailID) FROM CW2.Trail", Integer.class);
+    }
+
+    @Test
+    void ratingAggregatesComeFromTheSummaryRow() {
+        jdbcTemplate.update("INSERT INTO CW2.TrailRatingSummary (TrailID, RatingSum, ReviewCount) VALUES (?, 9, 2)",
+            trailId);
+
+        TrailDetail detail = trailRepository.findDetailById(trailId, null, false).orElseThrow();
+
+        assertThat(detail.averageRating()).isEqualTo(4.5);
+        assertThat(detail.reviewCount()).isEqualTo(2);
+        assertThat(detail.createdBy()).isEqualTo("john_hiker");
+    }
+
+    @Test
+    void trailWithoutASummaryRowHasNoAverage() {
+        TrailDetail detail = trailRepository.findDetailById(trailId, null, false).orElseThrow();
+
+        assertThat(detail.averageRating()).isNull();
+        assertThat(detail.reviewCount()).isZero();
+    }
+
+    @Test
+    void emptiedSummaryRowHasNoAverage() {
+        jdbcTemplate.update("INSERT INTO CW2.TrailRatingSummary (TrailID, RatingSum, ReviewCount) VALUES (?, 0, 0)",
+            trailId);
+
+        TrailDetail detail = trailRepository.findDetailById(trailId, null, false).orElseThrow();
+
+        assertThat(detail.averageRating()).isNull();
+        assertThat(detail.reviewCount()).isZero();
+    }
+
+    @Test
+    void descriptionIsOnlyReadWhenRequested() {
+        assertThat(trailRepository.findDetailById(trailId, null, false).orElseThrow().trailDescription()).isNull();
+        assertThat(trailRepository.findDetailById(trailId, null, true).orElseThrow().trailDescription())
+            .isEqualTo("Long description");
+    }
+
+    @Test
+    void privateTrailIsOnlyVisibleToItsOwner() {
+        jdbcTemplate.update("UPDATE CW2.Trail SET IsPublic = 0 WHERE TrailID = ?", trailId);
+
+        assertThat(trailRepository.findDetailById(trailId, OTHER_USER, false)).isEmpty();
+        assertThat(trailRepository.findDetailById(trailId, OWNER, false)).isPresent();
+    }
+}
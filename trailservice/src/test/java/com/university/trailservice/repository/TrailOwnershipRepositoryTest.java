@@ -0,0 +1,102 @@
+package com.university.trailservice.repository;
+
+import com.university.trailservice.model.Trail;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ownership checked by the write itself: the result codes of sp_UpdateTrail and
+ * sp_DeleteTrail as reproduced on the H2 schema (user 1 owns the trail, user 2 does not)
+ */
+@JdbcTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "spring.flyway.placeholders.seed_trails=0")
+@Import(H2TrailRepository.class)
+class TrailOwnershipRepositoryTest {
+
+    private static final int OWNER = 1;
+    private static final int OTHER_USER = 2;
+
+    @Autowired
+    private TrailRepository trailRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int trailId;
+
+    @BeforeEach
+    void insertTrail() {
+        jdbcTemplate.update("INSERT INTO CW2.Trail (UserID, TrailName, IsPublic) VALUES (?, 'Owned', 1)", OWNER);
+        trailId = jdbcTemplate.queryForObject("SELECT MAX(TrailID) FROM CW2.Trail", Integer.class);
+    }
+
+    @Test
+    void ownerUpdateSucceeds() {
+        TrailUpdate update = trailRepository.updateTrail(trailId, OWNER, renamed("Renamed"));
+
+        assertThat(update.result()).isEqualTo(TrailWriteResult.SUCCESS);
+        assertThat(trailName()).isEqualTo("Renamed");
+    }
+
+    @Test
+    void updateByAnotherUserIsNotOwnerAndChangesNothing() {
+        TrailUpdate update = trailRepository.updateTrail(trailId, OTHER_USER, renamed("Hijacked"));
+
+        assertThat(update.result()).isEqualTo(TrailWriteResult.NOT_OWNER);
+        assertThat(update.before()).isNull();
+        assertThat(trailName()).isEqualTo("Owned");
+    }
+
+    @Test
+    void updateOfAMissingOrDeletedTrailIsNotFound() {
+        assertThat(trailRepository.updateTrail(Integer.MAX_VALUE, OWNER, renamed("Ghost")).result())
+            .isEqualTo(TrailWriteResult.NOT_FOUND);
+
+        trailRepository.deleteTrail(trailId, OWNER);
+
+        assertThat(trailRepository.updateTrail(trailId, OWNER, renamed("Revived")).result())
+            .isEqualTo(TrailWriteResult.NOT_FOUND);
+    }
+
+    @Test
+    void deleteByAnotherUserIsNotOwnerAndKeepsTheTrail() {
+        assertThat(trailRepository.deleteTrail(trailId, OTHER_USER)).isEqualTo(TrailWriteResult.NOT_OWNER);
+
+        assertThat(isDeleted()).isFalse();
+    }
+
+    @Test
+    void secondDeleteIsNotFound() {
+        assertThat(trailRepository.deleteTrail(trailId, OWNER)).isEqualTo(TrailWriteResult.SUCCESS);
+        assertThat(isDeleted()).isTrue();
+
+        assertThat(trailRepository.deleteTrail(trailId, OWNER)).isEqualTo(TrailWriteResult.NOT_FOUND);
+        assertThat(trailRepository.deleteTrail(Integer.MAX_VALUE, OWNER)).isEqualTo(TrailWriteResult.NOT_FOUND);
+    }
+
+    private static Trail renamed(String name) {
+        Trail trail = new Trail();
+        trail.setTrailName(name);
+        trail.setIsPublic(true);
+        return trail;
+    }
+
+    private String trailName() {
+        return jdbcTemplate.queryForObject("SELECT TrailName FROM CW2.Trail WHERE TrailID = ?", String.class, trailId);
+    }
+
+    private boolean isDeleted() {
+        return jdbcTemplate.queryForObject("SELECT IsDeleted FROM CW2.Trail WHERE TrailID = ?", Boolean.class, trailId);
+    }
+}
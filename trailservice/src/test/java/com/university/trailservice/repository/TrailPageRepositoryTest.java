@@ -0,0 +1,101 @@
+package com.university.trailservice.repository;
+
+import com.university.trailservice.dto.TrailCursor;
+import com.university.trailservice.dto.TrailFields;
+import com.university.trailservice.model.Trail;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keyset pages over the H2 schema; trails dated after every seeded row so they come first
+ */
+@JdbcTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "spring.flyway.placeholders.seed_trails=0")
+@Import(H2TrailRepository.class)
+class TrailPageRepositoryTest {
+
+    private static final LocalDateTime NEWEST = LocalDateTime.of(2099, 1, 1, 12, 0);
+
+    @Autowired
+    private TrailRepository trailRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<Integer> expectedOrder;
+
+    @BeforeEach
+    void insertTrails() {
+        // Three trails share the newest CreatedDate, so only TrailID separates them
+        int tiedA = insertTrail("Tied A", NEWEST);
+        int tiedB = insertTrail("Tied B", NEWEST);
+        int tiedC = insertTrail("Tied C", NEWEST);
+        int older = insertTrail("Older", NEWEST.minusMinutes(1));
+        int oldest = insertTrail("Oldest", NEWEST.minusMinutes(2));
+        expectedOrder = List.of(tiedC, tiedB, tiedA, older, oldest);
+    }
+
+    @Test
+    void pagesWalkTiesWithoutSkippingOrRepeating() {
+        List<Integer> seen = new ArrayList<>();
+        TrailCursor cursor = null;
+        while (seen.size() < expectedOrder.size()) {
+            List<Trail> page = trailRepository.findPublicPage(cursor, 2, null);
+            assertThat(page).hasSize(2);
+            page.forEach(trail -> seen.add(trail.getTrailId()));
+            cursor = TrailCursor.after(page.get(page.size() - 1));
+        }
+
+        assertThat(seen.subList(0, expectedOrder.size())).isEqualTo(expectedOrder);
+    }
+
+    @Test
+    void cursorExcludesTheRowItPointsAt() {
+        TrailCursor atTiedB = new TrailCursor(NEWEST, expectedOrder.get(1));
+
+        List<Trail> page = trailRepository.findPublicPage(atTiedB, 2, null);
+
+        assertThat(page).extracting(Trail::getTrailId).containsExactly(expectedOrder.get(2), expectedOrder.get(3));
+    }
+
+    @Test
+    void cursorSurvivesItsStringForm() {
+        List<Trail> first = trailRepository.findPublicPage(null, 3, null);
+        TrailCursor parsed = TrailCursor.parse(TrailCursor.after(first.get(2)).toString());
+
+        List<Trail> next = trailRepository.findPublicPage(parsed, 2, null);
+
+        assertThat(next).extracting(Trail::getTrailId).containsExactly(expectedOrder.get(3), expectedOrder.get(4));
+    }
+
+    @Test
+    void fieldsetPagesUseTheSameBoundary() {
+        TrailFields fields = TrailFields.parseListed("trailName");
+        TrailCursor atTiedA = new TrailCursor(NEWEST, expectedOrder.get(2));
+
+        List<Trail> page = trailRepository.findPublicPage(atTiedA, 1, fields);
+
+        assertThat(page).extracting(Trail::getTrailName).containsExactly("Older");
+    }
+
+    private int insertTrail(String name, LocalDateTime createdDate) {
+        jdbcTemplate.update("INSERT INTO CW2.Trail (UserID, TrailName, CreatedDate, IsPublic) VALUES (1, ?, ?, 1)",
+            name, Timestamp.valueOf(createdDate));
+        return jdbcTemplate.queryForObject("SELECT MAX(TrailID) FROM CW2.Trail", Integer.class);
+    }
+}
@@ -0,0 +1,126 @@
+package com.university.trailservice.repository;
+
+import com.university.trailservice.model.Trail;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * H2's OLD TABLE update returns what sp_UpdateTrail returns on SQL Server: the row as it
+ * was before the update, its review totals and its first located start point
+ */
+@JdbcTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "spring.flyway.placeholders.seed_trails=0")
+@Import(H2TrailRepository.class)
+class TrailUpdateRepositoryTest {
+
+    private static final int OWNER = 2;
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 5, 1, 9, 30);
+
+    @Autowired
+    private TrailRepository trailRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int trailId;
+
+    @BeforeEach
+    void insertTrail() {
+        jdbcTemplate.update("INSERT INTO CW2.Trail (UserID, TrailName, Summary, TrailDescription, Length_Miles, " +
+                            "Length_Km, Difficulty, NearestTown, CreatedDate, IsPublic) " +
+                            "VALUES (?, 'Original', 'Old summary', 'Old description', 3.10, 5.00, 'Easy', " +
+                            "'Keswick', ?, 1)", OWNER, CREATED);
+        trailId = jdbcTemplate.queryForObject("SELECT MAX(TrailID) FROM CW2.Trail", Integer.class);
+    }
+
+    @Test
+    void beforeImageHoldsThePreviousValuesAndCreatedDate() {
+        TrailUpdate update = trailRepository.updateTrail(trailId, OWNER, edited());
+
+        Trail before = update.before();
+        assertThat(update.result()).isEqualTo(TrailWriteResult.SUCCESS);
+        assertThat(before.getTrailId()).isEqualTo(trailId);
+        assertThat(before.getTrailName()).isEqualTo("Original");
+        assertThat(before.getSummary()).isEqualTo("Old summary");
+        assertThat(before.getTrailDescription()).isEqualTo("Old description");
+        assertThat(before.getLengthMiles()).isEqualByComparingTo("3.10");
+        assertThat(before.getLengthKm()).isEqualByComparingTo("5.00");
+        assertThat(before.getDifficulty()).isEqualTo("Easy");
+        assertThat(before.getNearestTown()).isEqualTo("Keswick");
+        assertThat(before.getIsPublic()).isTrue();
+        assertThat(before.getCreatedDate()).isEqualTo(CREATED);
+
+        // The row itself now holds the new values
+        assertThat(jdbcTemplate.queryForObject("SELECT TrailName FROM CW2.Trail WHERE TrailID = ?",
+            String.class, trailId)).isEqualTo("Edited");
+    }
+
+    @Test
+    void reviewTotalsComeFromTheRatingSummary() {
+        jdbcTemplate.update("INSERT INTO CW2.TrailRatingSummary (TrailID, RatingSum, ReviewCount) VALUES (?, 14, 3)",
+            trailId);
+
+        TrailUpdate update = trailRepository.updateTrail(trailId, OWNER, edited());
+
+        assertThat(update.ratingSum()).isEqualTo(14);
+        assertThat(update.reviewCount()).isEqualTo(3);
+    }
+
+    @Test
+    void trailWithoutReviewsOrRoutesHasZeroTotalsAndNoStartPoint() {
+        TrailUpdate update = trailRepository.updateTrail(trailId, OWNER, edited());
+
+        assertThat(update.ratingSum()).isZero();
+        assertThat(update.reviewCount()).isZero();
+        assertThat(update.startLatitude()).isNull();
+        assertThat(update.startLongitude()).isNull();
+    }
+
+    @Test
+    void startPointIsTheFirstRouteWithCoordinates() {
+        int unlocated = location("No coordinates", null, null);
+        int first = location("Castlerigg", 54.6028, -3.0984);
+        int later = location("Latrigg", 54.6184, -3.1186);
+        route(unlocated, CREATED.plusDays(1));
+        route(later, CREATED.plusDays(3));
+        route(first, CREATED.plusDays(2));
+
+        TrailUpdate update = trailRepository.updateTrail(trailId, OWNER, edited());
+
+        assertThat(update.startLatitude()).isEqualTo(54.6028);
+        assertThat(update.startLongitude()).isEqualTo(-3.0984);
+    }
+
+    private static Trail edited() {
+        Trail trail = new Trail();
+        trail.setTrailName("Edited");
+        trail.setLengthKm(new BigDecimal("6.50"));
+        trail.setDifficulty("Moderate");
+        trail.setIsPublic(true);
+        return trail;
+    }
+
+    private int location(String name, Double latitude, Double longitude) {
+        jdbcTemplate.update("INSERT INTO CW2.Location (LocationName, Latitude, Longitude) VALUES (?, ?, ?)",
+            name, latitude, longitude);
+        return jdbcTemplate.queryForObject("SELECT MAX(LocationID) FROM CW2.Location", Integer.class);
+    }
+
+    private void route(int startLocationId, LocalDateTime createdDate) {
+        jdbcTemplate.update("INSERT INTO CW2.TrailRoute (TrailID, StartLocationID, CreatedDate) VALUES (?, ?, ?)",
+            trailId, startLocationId, createdDate);
+    }
+}
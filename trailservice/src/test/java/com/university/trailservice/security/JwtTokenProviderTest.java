@@ -0,0 +1,61 @@
+package com.university.trailservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "test-secret-that-is-long-enough-for-hs512-signing-0123456789abcdef";
+
+    private final JwtTokenProvider provider = new JwtTokenProvider();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpiration", 1500L);
+        provider.init();
+    }
+
+    @Test
+    void repeatedTokenIsAnsweredFromTheCache() {
+        String token = provider.generateToken(2, "john_hiker");
+
+        assertThat(provider.authenticate(token)).contains(new UserPrincipal(2, "john_hiker"));
+        assertThat(provider.authenticate(token)).contains(new UserPrincipal(2, "john_hiker"));
+
+        assertThat(verifiedTokens().stats().missCount()).isEqualTo(1);
+        assertThat(verifiedTokens().stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void cachedTokenIsRejectedOnceItsExpiryPasses() throws InterruptedException {
+        long issuedAt = System.currentTimeMillis();
+        String token = provider.generateToken(2, "john_hiker");
+        assertThat(provider.authenticate(token)).isPresent();
+
+        // exp is truncated to whole seconds, so it is at most 1.5s after issue
+        Thread.sleep(issuedAt + 1600 - System.currentTimeMillis());
+
+        assertThat(provider.authenticate(token)).isEmpty();
+        verifiedTokens().cleanUp();
+        assertThat(verifiedTokens().estimatedSize()).isZero();
+    }
+
+    @Test
+    void tamperedTokenIsNotCached() {
+        String token = provider.generateToken(2, "john_hiker");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThat(provider.authenticate(tampered)).isEmpty();
+        assertThat(verifiedTokens().estimatedSize()).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<String, ?> verifiedTokens() {
+        return (Cache<String, ?>) ReflectionTestUtils.getField(provider, "verifiedTokens");
+    }
+}
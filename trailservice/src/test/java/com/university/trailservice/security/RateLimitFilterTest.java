@@ -0,0 +1,117 @@
+package com.university.trailservice.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitFilterTest {
+
+    @Mock
+    private RateLimiter rateLimiter;
+
+    @InjectMocks
+    private RateLimitFilter rateLimitFilter;
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final MockFilterChain chain = new MockFilterChain();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(rateLimitFilter, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(rateLimitFilter, "enabled", true);
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void overTheLimitReturns429WithRetryAfterRoundedUp() throws Exception {
+        MockHttpServletRequest request = request("POST", "/api/trails");
+        when(rateLimiter.tryAcquire(RateLimiter.Route.WRITE, "ip:203.0.113.9"))
+            .thenReturn(TimeUnit.MILLISECONDS.toNanos(1200));
+
+        rateLimitFilter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(response.getContentAsString()).contains("\"success\":false", "retry in 2s");
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void retryAfterIsAtLeastOneSecond() throws Exception {
+        when(rateLimiter.tryAcquire(RateLimiter.Route.READ, "ip:203.0.113.9")).thenReturn(1L);
+
+        rateLimitFilter.doFilter(request("GET", "/api/trails/search"), response, chain);
+
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    }
+
+    @Test
+    void underTheLimitPassesThrough() throws Exception {
+        when(rateLimiter.tryAcquire(RateLimiter.Route.AUTH, "ip:203.0.113.9")).thenReturn(0L);
+
+        rateLimitFilter.doFilter(request("POST", "/api/auth/login"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    @Test
+    void authenticatedCallersAreLimitedPerUser() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(new UserPrincipal(42, "ada"), null, List.of()));
+        when(rateLimiter.tryAcquire(RateLimiter.Route.WRITE, "user:42")).thenReturn(0L);
+
+        rateLimitFilter.doFilter(request("DELETE", "/api/trails/5"), response, chain);
+
+        verify(rateLimiter).tryAcquire(RateLimiter.Route.WRITE, "user:42");
+    }
+
+    @Test
+    void healthAndPreflightAreNotLimited() throws Exception {
+        rateLimitFilter.doFilter(request("GET", "/actuator/health"), response, chain);
+        rateLimitFilter.doFilter(request("OPTIONS", "/api/trails"), new MockHttpServletResponse(), new MockFilterChain());
+
+        verify(rateLimiter, never()).tryAcquire(any(), any());
+    }
+
+    @Test
+    void disabledFilterNeverChecksTheLimiter() throws Exception {
+        ReflectionTestUtils.setField(rateLimitFilter, "enabled", false);
+
+        rateLimitFilter.doFilter(request("POST", "/api/trails"), response, chain);
+
+        verify(rateLimiter, never()).tryAcquire(any(), any());
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr("203.0.113.9");
+        return request;
+    }
+}
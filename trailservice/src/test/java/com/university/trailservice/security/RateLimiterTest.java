@@ -0,0 +1,96 @@
+package com.university.trailservice.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimiter rateLimiter = new RateLimiter();
+
+    @BeforeEach
+    void setUp() {
+        // AUTH refills slowly enough that a test never sees a token come back;
+        // READ refills a token every 50ms so refill can be observed
+        configure(3, 0.5, 2, 20, 1, 1);
+    }
+
+    @Test
+    void fullBucketAllowsABurstOfCapacity() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.tryAcquire(RateLimiter.Route.AUTH, "ip:10.0.0.1")).isZero();
+        }
+
+        long wait = rateLimiter.tryAcquire(RateLimiter.Route.AUTH, "ip:10.0.0.1");
+
+        // One token every 2s: the next one is at most 2s away
+        assertThat(wait).isPositive().isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(2));
+        assertThat(meterRegistry.counter("trailservice.ratelimit.rejected", "route", "auth").count()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectedRequestsDoNotConsumeTokens() {
+        drain(RateLimiter.Route.AUTH, "ip:10.0.0.1", 3);
+
+        long first = rateLimiter.tryAcquire(RateLimiter.Route.AUTH, "ip:10.0.0.1");
+        long second = rateLimiter.tryAcquire(RateLimiter.Route.AUTH, "ip:10.0.0.1");
+
+        // Had the first rejection taken a token, the second wait would be a whole interval longer
+        assertThat(second).isPositive().isLessThanOrEqualTo(first);
+    }
+
+    @Test
+    void tokenIsAvailableOnceTheReportedWaitHasPassed() throws InterruptedException {
+        drain(RateLimiter.Route.READ, "user:7", 2);
+        long wait = rateLimiter.tryAcquire(RateLimiter.Route.READ, "user:7");
+        assertThat(wait).isPositive().isLessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+
+        TimeUnit.NANOSECONDS.sleep(wait);
+
+        assertThat(rateLimiter.tryAcquire(RateLimiter.Route.READ, "user:7")).isZero();
+    }
+
+    @Test
+    void clientsAndRoutesHaveSeparateBuckets() {
+        drain(RateLimiter.Route.AUTH, "ip:10.0.0.1", 3);
+
+        assertThat(rateLimiter.tryAcquire(RateLimiter.Route.AUTH, "ip:10.0.0.2")).isZero();
+        assertThat(rateLimiter.tryAcquire(RateLimiter.Route.READ, "ip:10.0.0.1")).isZero();
+    }
+
+    @Test
+    void rejectsLimitsThatCanNeverAdmitARequest() {
+        RateLimiter misconfigured = new RateLimiter();
+        ReflectionTestUtils.setField(misconfigured, "meterRegistry", meterRegistry);
+
+        assertThatThrownBy(() -> ReflectionTestUtils.invokeMethod(misconfigured, "init"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("AUTH");
+    }
+
+    private void drain(RateLimiter.Route route, String client, int tokens) {
+        for (int i = 0; i < tokens; i++) {
+            assertThat(rateLimiter.tryAcquire(route, client)).isZero();
+        }
+    }
+
+    private void configure(int authCapacity, double authRefill, int readCapacity, double readRefill,
+                           int writeCapacity, double writeRefill) {
+        ReflectionTestUtils.setField(rateLimiter, "authCapacity", authCapacity);
+        ReflectionTestUtils.setField(rateLimiter, "authRefillPerSecond", authRefill);
+        ReflectionTestUtils.setField(rateLimiter, "readCapacity", readCapacity);
+        ReflectionTestUtils.setField(rateLimiter, "readRefillPerSecond", readRefill);
+        ReflectionTestUtils.setField(rateLimiter, "writeCapacity", writeCapacity);
+        ReflectionTestUtils.setField(rateLimiter, "writeRefillPerSecond", writeRefill);
+        ReflectionTestUtils.setField(rateLimiter, "maxKeys", 1000L);
+        ReflectionTestUtils.setField(rateLimiter, "idleExpirySeconds", 600L);
+        ReflectionTestUtils.setField(rateLimiter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.invokeMethod(rateLimiter, "init");
+    }
+}
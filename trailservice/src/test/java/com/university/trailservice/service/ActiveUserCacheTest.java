@@ -0,0 +1,87 @@
+package com.university.trailservice.service;
+
+import com.university.trailservice.repository.ActiveUser;
+import com.university.trailservice.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ActiveUserCacheTest {
+
+    private static final ActiveUser ADA = new ActiveUser(7, "ada");
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    void activeUserIsReadOnceWhileCached() {
+        ActiveUserCache cache = cache(60);
+        when(userRepository.findActiveById(7)).thenReturn(Optional.of(ADA));
+
+        cache.require(7);
+        ActiveUser user = cache.require(7);
+
+        assertThat(user).isEqualTo(ADA);
+        verify(userRepository, times(1)).findActiveById(7);
+    }
+
+    @Test
+    void deactivatedUserIsRefusedOnceTheEntryExpires() throws InterruptedException {
+        ActiveUserCache cache = cache(1);
+        cache.put(ADA);
+        when(userRepository.findActiveById(7)).thenReturn(Optional.empty());
+
+        assertThat(cache.require(7)).isEqualTo(ADA);
+        Thread.sleep(1100);
+
+        assertThatThrownBy(() -> cache.require(7)).hasMessage("User not found or inactive");
+    }
+
+    @Test
+    void freshReadEvictsAUserWhoIsNoLongerActive() {
+        ActiveUserCache cache = cache(60);
+        cache.put(ADA);
+        when(userRepository.findActiveById(7)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> cache.requireFresh(7)).isInstanceOf(RuntimeException.class);
+
+        // The stale entry is gone, so the cached path reads the database too
+        assertThatThrownBy(() -> cache.require(7)).isInstanceOf(RuntimeException.class);
+        verify(userRepository, times(2)).findActiveById(7);
+    }
+
+    @Test
+    void invalidatedUserIsReadAgain() {
+        ActiveUserCache cache = cache(60);
+        cache.put(ADA);
+        when(userRepository.findActiveById(7)).thenReturn(Optional.of(new ActiveUser(7, "ada.l")));
+
+        cache.invalidate(7);
+
+        assertThat(cache.require(7).username()).isEqualTo("ada.l");
+    }
+
+    @Test
+    void unknownUsersAreNotCached() {
+        ActiveUserCache cache = cache(60);
+        when(userRepository.findActiveById(7)).thenReturn(Optional.empty(), Optional.of(ADA));
+
+        assertThatThrownBy(() -> cache.require(7)).isInstanceOf(RuntimeException.class);
+
+        assertThat(cache.require(7)).isEqualTo(ADA);
+    }
+
+    private ActiveUserCache cache(long ttlSeconds) {
+        return new ActiveUserCache(100, ttlSeconds, userRepository, new SimpleMeterRegistry());
+    }
+}
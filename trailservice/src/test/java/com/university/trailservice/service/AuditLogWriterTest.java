@@ -0,0 +1,202 @@
+package com.university.trailservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.university.trailservice.model.AuditEvent;
+import com.university.trailservice.repository.AuditLogRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Spill and replay without the background writer thread: the writer's state is set up
+ * as start() would, and write/replay are driven directly
+ */
+@ExtendWith(MockitoExtension.class)
+class AuditLogWriterTest {
+
+    @Mock
+    private AuditLogRepository auditLogRepository;
+
+    @InjectMocks
+    private AuditLogWriter auditLogWriter;
+
+    @TempDir
+    private Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Copies of each batch passed to insertAll (the writer reuses its batch list)
+    private final List<List<AuditEvent>> inserted = new ArrayList<>();
+
+    private Path spillPath;
+    private int nextTrailId = 1;
+
+    @BeforeEach
+    void setUp() {
+        spillPath = tempDir.resolve("audit-spill.ndjson");
+        ReflectionTestUtils.setField(auditLogWriter, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(auditLogWriter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(auditLogWriter, "batchSize", 2);
+        ReflectionTestUtils.setField(auditLogWriter, "queue", new ArrayBlockingQueue<AuditEvent>(1));
+        ReflectionTestUtils.setField(auditLogWriter, "spillPath", spillPath);
+        ReflectionTestUtils.setField(auditLogWriter, "written",
+            meterRegistry.counter("trailservice.audit.events", "outcome", "written"));
+        ReflectionTestUtils.setField(auditLogWriter, "spilled",
+            meterRegistry.counter("trailservice.audit.events", "outcome", "spilled"));
+    }
+
+    @Test
+    void failedWriteSpillsOneJsonLinePerEvent() throws IOException {
+        databaseDown();
+        List<AuditEvent> events = events(2);
+
+        ReflectionTestUtils.invokeMethod(auditLogWriter, "write", events);
+
+        assertThat(spilledEvents()).isEqualTo(events);
+        assertThat(meterRegistry.counter("trailservice.audit.events", "outcome", "spilled").count()).isEqualTo(2);
+    }
+
+    @Test
+    void fullQueueSpillsInsteadOfBlocking() throws IOException {
+        List<AuditEvent> events = events(2);
+
+        auditLogWriter.recordAll(events);
+
+        assertThat(spilledEvents()).containsExactly(events.get(1));
+    }
+
+    @Test
+    void replayWritesSpilledEventsInBatchesAndRemovesTheFile() throws IOException {
+        List<AuditEvent> events = events(3);
+        writeSpillFile(spillPath, events);
+        databaseUp();
+
+        ReflectionTestUtils.invokeMethod(auditLogWriter, "replaySpillFile");
+
+        assertThat(inserted).containsExactly(events.subList(0, 2), events.subList(2, 3));
+        assertThat(spillPath).doesNotExist();
+        assertThat(replayPath()).doesNotExist();
+    }
+
+    @Test
+    void replayStopsWritingAfterTheFirstFailureAndRespillsTheRest() throws IOException {
+        List<AuditEvent> events = events(5);
+        writeSpillFile(spillPath, events);
+        databaseDown();
+
+        ReflectionTestUtils.invokeMethod(auditLogWriter, "replaySpillFile");
+
+        // One failed write, then every later batch goes straight back to the spill file
+        assertThat(inserted).hasSize(1);
+        assertThat(spilledEvents()).isEqualTo(events);
+        assertThat(replayPath()).doesNotExist();
+    }
+
+    @Test
+    void leftoverReplayFileIsRetriedBeforeNewSpills() throws IOException {
+        List<AuditEvent> leftover = events(1);
+        List<AuditEvent> newer = events(2);
+        writeSpillFile(replayPath(), leftover);
+        writeSpillFile(spillPath, newer);
+        databaseUp();
+
+        ReflectionTestUtils.invokeMethod(auditLogWriter, "replaySpillFile");
+
+        assertThat(inserted).containsExactly(leftover);
+        assertThat(spilledEvents()).isEqualTo(newer);
+    }
+
+    @Test
+    void dueReplayRunsEvenWhileEventsAreQueued() throws IOException {
+        ReflectionTestUtils.setField(auditLogWriter, "replayIntervalMillis", 30000L);
+        List<AuditEvent> spilled = events(1);
+        writeSpillFile(spillPath, spilled);
+        List<AuditEvent> queued = events(2);
+        auditLogWriter.record(queued.get(0));
+        databaseUp();
+
+        ReflectionTestUtils.invokeMethod(auditLogWriter, "writeNextBatch", new ArrayList<AuditEvent>());
+
+        assertThat(inserted).containsExactly(spilled, queued.subList(0, 1));
+
+        // Not due again until the replay interval has passed
+        writeSpillFile(spillPath, spilled);
+        auditLogWriter.record(queued.get(1));
+
+        ReflectionTestUtils.invokeMethod(auditLogWriter, "writeNextBatch", new ArrayList<AuditEvent>());
+
+        assertThat(inserted).containsExactly(spilled, queued.subList(0, 1), queued.subList(1, 2));
+        assertThat(spillPath).exists();
+    }
+
+    @Test
+    void unreadableLinesAreSkipped() throws IOException {
+        List<AuditEvent> events = events(1);
+        Files.writeString(spillPath, "{not json\n" + objectMapper.writeValueAsString(events.get(0)) + "\n\n");
+        databaseUp();
+
+        ReflectionTestUtils.invokeMethod(auditLogWriter, "replaySpillFile");
+
+        assertThat(inserted).containsExactly(events);
+        assertThat(replayPath()).doesNotExist();
+    }
+
+    private void databaseUp() {
+        doAnswer(invocation -> inserted.add(new ArrayList<>(invocation.<List<AuditEvent>>getArgument(0))))
+            .when(auditLogRepository).insertAll(anyList());
+    }
+
+    private void databaseDown() {
+        doAnswer(invocation -> {
+            inserted.add(new ArrayList<>(invocation.<List<AuditEvent>>getArgument(0)));
+            throw new IllegalStateException("database unavailable");
+        }).when(auditLogRepository).insertAll(anyList());
+    }
+
+    private Path replayPath() {
+        return spillPath.resolveSibling(spillPath.getFileName() + ".replay");
+    }
+
+    private void writeSpillFile(Path path, List<AuditEvent> events) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (AuditEvent event : events) {
+            lines.append(objectMapper.writeValueAsString(event)).append('\n');
+        }
+        Files.writeString(path, lines);
+    }
+
+    private List<AuditEvent> spilledEvents() throws IOException {
+        List<AuditEvent> events = new ArrayList<>();
+        for (String line : Files.readAllLines(spillPath)) {
+            events.add(objectMapper.readValue(line, AuditEvent.class));
+        }
+        return events;
+    }
+
+    private List<AuditEvent> events(int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> new AuditEvent(AuditEvent.Target.AUDIT_LOG, "Trail", nextTrailId++, "SOFT_DELETE",
+                null, null, null, "ada", LocalDateTime.of(2025, 1, 1, 12, 0), "127.0.0.1"))
+            .toList();
+    }
+}
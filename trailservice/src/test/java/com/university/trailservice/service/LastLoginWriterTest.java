@@ -0,0 +1,135 @@
+package com.university.trailservice.service;
+
+import com.university.trailservice.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Coalescing without the background thread: logins are recorded and flushes driven directly
+ */
+@ExtendWith(MockitoExtension.class)
+class LastLoginWriterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private LastLoginWriter lastLoginWriter;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Copies of each map passed to updateLastLogins
+    private final List<Map<Integer, LocalDateTime>> updates = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(lastLoginWriter, "logins", meterRegistry.counter("trailservice.lastlogin.logins"));
+        ReflectionTestUtils.setField(lastLoginWriter, "written", meterRegistry.counter("trailservice.lastlogin.written"));
+    }
+
+    @Test
+    void repeatedLoginsBecomeOneRowPerUserInOneWrite() {
+        databaseUp();
+        for (int i = 0; i < 50; i++) {
+            lastLoginWriter.record(1);
+            lastLoginWriter.record(2);
+        }
+
+        flush();
+
+        assertThat(updates).hasSize(1);
+        assertThat(updates.get(0)).containsOnlyKeys(1, 2);
+        assertThat(meterRegistry.counter("trailservice.lastlogin.logins").count()).isEqualTo(100);
+        assertThat(meterRegistry.counter("trailservice.lastlogin.written").count()).isEqualTo(2);
+    }
+
+    @Test
+    void latestLoginWins() {
+        databaseUp();
+        LocalDateTime later = LocalDateTime.now().plusHours(1);
+        pending().put(1, later);
+
+        lastLoginWriter.record(1);
+        flush();
+
+        assertThat(updates.get(0)).containsEntry(1, later);
+    }
+
+    @Test
+    void emptyFlushDoesNotTouchTheDatabase() {
+        flush();
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void failedWriteIsRetriedOnTheNextFlush() {
+        LocalDateTime loggedIn = LocalDateTime.of(2025, 1, 1, 9, 0);
+        pending().put(1, loggedIn);
+        databaseDown();
+
+        flush();
+        assertThat(pending()).containsEntry(1, loggedIn);
+
+        databaseUp();
+        flush();
+
+        assertThat(updates).hasSize(2);
+        assertThat(updates.get(1)).containsExactlyEntriesOf(Map.of(1, loggedIn));
+        assertThat(pending()).isEmpty();
+    }
+
+    @Test
+    void loginDuringAFailedWriteIsKeptOverTheRetriedOne() {
+        LocalDateTime older = LocalDateTime.of(2025, 1, 1, 9, 0);
+        pending().put(1, older);
+        doAnswer(invocation -> {
+            updates.add(new HashMap<>(invocation.getArgument(0)));
+            lastLoginWriter.record(1);
+            throw new IllegalStateException("database unavailable");
+        }).when(userRepository).updateLastLogins(anyMap());
+
+        flush();
+
+        assertThat(pending().get(1)).isAfter(older);
+    }
+
+    private void databaseUp() {
+        doAnswer(invocation -> updates.add(new HashMap<>(invocation.getArgument(0))))
+            .when(userRepository).updateLastLogins(anyMap());
+    }
+
+    private void databaseDown() {
+        doAnswer(invocation -> {
+            updates.add(new HashMap<>(invocation.getArgument(0)));
+            throw new IllegalStateException("database unavailable");
+        }).when(userRepository).updateLastLogins(anyMap());
+    }
+
+    private void flush() {
+        ReflectionTestUtils.invokeMethod(lastLoginWriter, "flush");
+    }
+
+    @SuppressWarnings("unchecked")
+    private ConcurrentHashMap<Integer, LocalDateTime> pending() {
+        return (ConcurrentHashMap<Integer, LocalDateTime>) ReflectionTestUtils.getField(lastLoginWriter, "pending");
+    }
+}
@@ -0,0 +1,104 @@
+package com.university.trailservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * One BCrypt thread and a queue of one, with an encoder that blocks until released
+ */
+class PasswordHasherTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch hashing = new CountDownLatch(1);
+    private final PasswordHasher hasher = new PasswordHasher();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(hasher, "passwordEncoder", new BlockingEncoder());
+        ReflectionTestUtils.setField(hasher, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(hasher, "threads", 1);
+        ReflectionTestUtils.setField(hasher, "queueCapacity", 1);
+        ReflectionTestUtils.setField(hasher, "timeoutMillis", 5000L);
+        ReflectionTestUtils.invokeMethod(hasher, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        ReflectionTestUtils.invokeMethod(hasher, "shutdown");
+    }
+
+    @Test
+    void fullPoolRejectsImmediately() throws Exception {
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> hasher.encode("first"));
+        assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> hasher.encode("second"));
+        awaitQueued();
+
+        assertThatThrownBy(() -> hasher.encode("third"))
+            .isInstanceOf(PasswordHashingBusyException.class)
+            .hasMessage("Authentication service is busy, please retry shortly");
+        assertThat(rejected()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash:first");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash:second");
+    }
+
+    @Test
+    void hashThatOutlivesTheTimeoutIsRejected() {
+        ReflectionTestUtils.setField(hasher, "timeoutMillis", 50L);
+
+        assertThatThrownBy(() -> hasher.matches("slow", "hash:slow"))
+            .isInstanceOf(PasswordHashingBusyException.class);
+        assertThat(rejected()).isEqualTo(1);
+    }
+
+    private void awaitQueued() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("executor.queued").tag("name", "bcrypt").gauge().value() < 1) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private double rejected() {
+        return meterRegistry.get("trailservice.auth.password.rejected").counter().count();
+    }
+
+    private class BlockingEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            block();
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            block();
+            return ("hash:" + rawPassword).equals(encodedPassword);
+        }
+
+        private void block() {
+            hashing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
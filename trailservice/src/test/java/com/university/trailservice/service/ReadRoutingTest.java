@@ -0,0 +1,98 @@
+package com.university.trailservice.service;
+
+import com.university.trailservice.security.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadRoutingTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void withoutReplicasReadsRunDirectlyAndAreNotCounted() {
+        ReadRouting routing = new ReadRouting("", 5000, meterRegistry);
+        routing.recordWrite(1, List.of(5));
+
+        assertThat(routing.readTrail(5, () -> "row")).isEqualTo("row");
+        assertThat(replicaReads() + primaryReads()).isZero();
+    }
+
+    @Test
+    void readsGoToAReplicaWhenNothingWasWritten() {
+        ReadRouting routing = enabled(5000);
+
+        routing.readTrail(5, () -> "row");
+        routing.readCollection(() -> "page");
+
+        assertThat(replicaReads()).isEqualTo(2);
+    }
+
+    @Test
+    void writtenTrailAndTheListStayOnThePrimary() {
+        ReadRouting routing = enabled(5000);
+        routing.recordWrite(1, List.of(5));
+
+        routing.readTrail(5, () -> "row");
+        routing.readCollection(() -> "page");
+        routing.readTrail(6, () -> "other row");
+
+        assertThat(primaryReads()).isEqualTo(2);
+        assertThat(replicaReads()).isEqualTo(1);
+    }
+
+    @Test
+    void writerReadsEverythingFromThePrimary() {
+        ReadRouting routing = enabled(5000);
+        routing.recordWrite(1, List.of(5));
+
+        authenticateAs(1);
+        routing.readTrail(6, () -> "other row");
+        authenticateAs(2);
+        routing.readTrail(6, () -> "other row");
+
+        assertThat(primaryReads()).isEqualTo(1);
+        assertThat(replicaReads()).isEqualTo(1);
+    }
+
+    @Test
+    void stickinessEndsAfterTheWindow() throws InterruptedException {
+        ReadRouting routing = enabled(100);
+        routing.recordWrite(1, List.of(5));
+        authenticateAs(1);
+
+        Thread.sleep(150);
+        routing.readTrail(5, () -> "row");
+        routing.readCollection(() -> "page");
+
+        assertThat(replicaReads()).isEqualTo(2);
+        assertThat(primaryReads()).isZero();
+    }
+
+    private ReadRouting enabled(long stickyMillis) {
+        return new ReadRouting("jdbc:h2:mem:replica", stickyMillis, meterRegistry);
+    }
+
+    private static void authenticateAs(int userId) {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(new UserPrincipal(userId, "user" + userId), null, List.of()));
+    }
+
+    private double replicaReads() {
+        return meterRegistry.counter("trailservice.reads", "route", "replica").count();
+    }
+
+    private double primaryReads() {
+        return meterRegistry.counter("trailservice.reads", "route", "primary").count();
+    }
+}
@@ -0,0 +1,205 @@
+package com.university.trailservice.service;
+
+import com.university.trailservice.dto.BatchRowResult;
+import com.university.trailservice.dto.TrailRequest;
+import com.university.trailservice.model.Trail;
+import com.university.trailservice.repository.TrailPopularity;
+import com.university.trailservice.repository.TrailRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TrailBatchImportTest {
+
+    private static final int USER_ID = 7;
+    private static final String BROKEN = "Broken";
+
+    @Mock
+    private TrailRepository trailRepository;
+
+    @Mock
+    private ActiveUserCache activeUserCache;
+
+    @Mock
+    private TrailSearchIndex searchIndex;
+
+    @Mock
+    private TrailFacetIndex facetIndex;
+
+    @Mock
+    private TrailSuggestIndex suggestIndex;
+
+    @Mock
+    private TrailGeoIndex geoIndex;
+
+    @Mock
+    private TrailCache trailCache;
+
+    @Mock
+    private TrailListCache trailListCache;
+
+    @Mock
+    private AuditLogWriter auditLogWriter;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private TrailService trailService;
+
+    // Chunks handed to createTrails, by trail name
+    private final List<List<String>> inserts = new ArrayList<>();
+    private final AtomicInteger nextTrailId = new AtomicInteger(100);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(trailService, "validator",
+            Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(trailService, "readRouting", new ReadRouting("", 5000, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(trailService, "batchChunkSize", 3);
+        ReflectionTestUtils.setField(trailService, "batchMaxRows", 10);
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        // The database rejects any statement containing the broken row, like a CHECK or overflow error
+        lenient().when(trailRepository.createTrails(anyList())).thenAnswer(invocation -> {
+            List<Trail> chunk = invocation.getArgument(0);
+            List<String> names = chunk.stream().map(Trail::getTrailName).toList();
+            inserts.add(names);
+            if (names.contains(BROKEN)) {
+                throw new DataIntegrityViolationException("insert failed",
+                    new SQLException("Numeric value out of range: Length_Km"));
+            }
+            return chunk.stream().map(trail -> nextTrailId.getAndIncrement()).toList();
+        });
+    }
+
+    @Test
+    void failingChunkIsRetriedRowByRowSoOnlyTheBadRowFails() {
+        List<BatchRowResult> results = trailService.importTrails(
+            requests("A", "", "B", BROKEN, "C"), USER_ID);
+
+        assertThat(results).extracting(BatchRowResult::index).containsExactly(0, 1, 2, 3, 4);
+        assertThat(results.get(0).trailId()).isEqualTo(100);
+        assertThat(results.get(1).error()).isEqualTo("trailName: Trail name is required");
+        assertThat(results.get(2).trailId()).isEqualTo(101);
+        assertThat(results.get(3).trailId()).isNull();
+        // The driver's message stays in the log
+        assertThat(results.get(3).error()).isEqualTo("Trail rejected by a database constraint");
+        assertThat(results.get(4).trailId()).isEqualTo(102);
+
+        // The whole chunk first, then each of its rows alone, then the last (partial) chunk
+        assertThat(inserts).containsExactly(
+            List.of("A", "B", BROKEN), List.of("A"), List.of("B"), List.of(BROKEN), List.of("C"));
+    }
+
+    @Test
+    void healthyChunksAreInsertedInOneStatement() {
+        List<BatchRowResult> results = trailService.importTrails(requests("A", "B", "C", "D"), USER_ID);
+
+        assertThat(results).extracting(BatchRowResult::error).containsOnlyNulls();
+        assertThat(inserts).containsExactly(List.of("A", "B", "C"), List.of("D"));
+    }
+
+    @Test
+    void importedTrailsAreIndexedAsWrittenWithoutReadingThemBack() {
+        trailService.importTrails(requests("A", BROKEN, "B"), USER_ID);
+
+        ArgumentCaptor<Trail> indexed = ArgumentCaptor.forClass(Trail.class);
+        verify(searchIndex, times(2)).put(indexed.capture());
+        assertThat(indexed.getAllValues()).extracting(Trail::getTrailId, Trail::getTrailName, Trail::getUserId)
+            .containsExactly(tuple(100, "A", USER_ID), tuple(101, "B", USER_ID));
+        assertThat(indexed.getAllValues()).allSatisfy(trail -> {
+            assertThat(trail.getCreatedDate()).isNotNull();
+            assertThat(trail.getIsDeleted()).isFalse();
+        });
+        verify(suggestIndex).put(new TrailPopularity(100, "A", null, 0, 0));
+        verify(suggestIndex).put(new TrailPopularity(101, "B", null, 0, 0));
+        // The chunk, then each of its rows alone; nothing is read back
+        verify(trailRepository, times(4)).createTrails(anyList());
+        verifyNoMoreInteractions(trailRepository);
+    }
+
+    @Test
+    void rowsPastTheLimitAreRefused() {
+        ReflectionTestUtils.setField(trailService, "batchMaxRows", 2);
+
+        List<BatchRowResult> results = trailService.importTrails(requests("A", "B", "C", "D"), USER_ID);
+
+        assertThat(results).hasSize(3);
+        assertThat(results.get(2).index()).isEqualTo(2);
+        assertThat(results.get(2).error()).isEqualTo("Batch limit of 2 trails exceeded");
+        assertThat(inserts).containsExactly(List.of("A", "B"));
+    }
+
+    @Test
+    void malformedInputKeepsTheRowsReadBeforeIt() {
+        Iterator<TrailRequest> rows = requests("A", "B");
+        Iterator<TrailRequest> truncated = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public TrailRequest next() {
+                if (rows.hasNext()) {
+                    return rows.next();
+                }
+                throw new IllegalStateException("Unexpected end of input");
+            }
+        };
+
+        List<BatchRowResult> results = trailService.importTrails(truncated, USER_ID);
+
+        assertThat(results).extracting(BatchRowResult::trailId).containsExactly(100, 101, null);
+        assertThat(results.get(2).error()).isEqualTo("Malformed trail: Unexpected end of input");
+    }
+
+    @Test
+    void inactiveUserImportsNothing() {
+        when(activeUserCache.requireFresh(USER_ID)).thenThrow(new RuntimeException("User not found or inactive"));
+
+        assertThatThrownBy(() -> trailService.importTrails(requests("A"), USER_ID))
+            .hasMessage("User not found or inactive");
+        verify(trailRepository, never()).createTrails(anyList());
+    }
+
+    private static Iterator<TrailRequest> requests(String... names) {
+        List<TrailRequest> requests = new ArrayList<>();
+        for (String name : names) {
+            TrailRequest request = new TrailRequest();
+            request.setTrailName(name);
+            requests.add(request);
+        }
+        return requests.iterator();
+    }
+}
@@ -0,0 +1,97 @@
+package com.university.trailservice.service;
+
+import com.university.trailservice.model.Trail;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrailCacheTest {
+
+    private TrailCache cache;
+
+    @BeforeEach
+    void createCache() {
+        cache = new TrailCache(1_000_000, 300, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void loadsOnceThenServesFromCache() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1, id -> { loads.incrementAndGet(); return Optional.of(trail(id, true)); });
+        Optional<Trail> second = cache.get(1, id -> { loads.incrementAndGet(); return Optional.of(trail(id, true)); });
+
+        assertThat(second).map(Trail::getTrailId).contains(1);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void privateTrailsAreReturnedButNotCached() {
+        Optional<Trail> loaded = cache.get(2, id -> Optional.of(trail(id, false)));
+
+        assertThat(loaded).isPresent();
+        assertThat(cache.getIfPresent(2)).isEmpty();
+    }
+
+    @Test
+    void invalidateDropsTheCachedTrail() {
+        cache.get(3, id -> Optional.of(trail(id, true)));
+
+        cache.invalidate(3);
+
+        assertThat(cache.getIfPresent(3)).isEmpty();
+    }
+
+    @Test
+    void loadThatRacedAWriteIsNotKept() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+
+        // The reader loads the old row, then a writer invalidates before the reader stores it
+        CompletableFuture<Optional<Trail>> reader = CompletableFuture.supplyAsync(() ->
+            cache.get(4, id -> {
+                loading.countDown();
+                await(written);
+                return Optional.of(trail(id, true));
+            }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        cache.invalidate(4);
+        written.countDown();
+
+        assertThat(reader.get(5, TimeUnit.SECONDS)).isPresent();
+        assertThat(cache.getIfPresent(4)).isEmpty();
+    }
+
+    @Test
+    void loadAfterTheWriteIsKept() {
+        cache.invalidate(5);
+
+        cache.get(5, id -> Optional.of(trail(id, true)));
+
+        assertThat(cache.getIfPresent(5)).isPresent();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Trail trail(int id, boolean isPublic) {
+        Trail trail = new Trail();
+        trail.setTrailId(id);
+        trail.setTrailName("Trail " + id);
+        trail.setIsPublic(isPublic);
+        trail.setIsDeleted(false);
+        return trail;
+    }
+}
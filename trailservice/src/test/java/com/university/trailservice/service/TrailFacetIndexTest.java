@@ -0,0 +1,150 @@
+package com.university.trailservice.service;
+
+import com.university.trailservice.dto.FacetedTrails;
+import com.university.trailservice.dto.TrailFacetQuery;
+import com.university.trailservice.model.Trail;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class TrailFacetIndexTest {
+
+    private static final TrailFacetQuery NO_FILTERS = query(null, null, null, null, null);
+
+    private final TrailFacetIndex index = new TrailFacetIndex();
+
+    @BeforeEach
+    void load() {
+        index.rebuild(List.of(
+            trail(1, "Easy", "Loop", "Plymouth", 3.0, "Step-free"),
+            trail(2, "Easy", "Out and Back", "Exeter", 7.0, null),
+            trail(3, "Moderate", "Loop", "Plymouth", 12.0, " "),
+            trail(4, "Hard", "Loop", "plymouth", 25.0, "Stiles"),
+            trail(5, "easy", "Loop", "Exeter", null, null)));
+    }
+
+    @Test
+    void unfilteredSearchCountsEveryFacetOverAllTrails() {
+        FacetedTrails<Trail> result = index.search(NO_FILTERS, null, 10);
+
+        assertThat(result.total()).isEqualTo(5);
+        assertThat(ids(result)).containsExactly(5, 4, 3, 2, 1);
+        // Most common first, ties by name; values merge case-insensitively under the first spelling
+        assertThat(result.facets().get("difficulty"))
+            .containsExactly(entry("Easy", 3), entry("Hard", 1), entry("Moderate", 1));
+        assertThat(result.facets().get("routeType")).containsExactly(entry("Loop", 4), entry("Out and Back", 1));
+        assertThat(result.facets().get("nearestTown")).containsExactly(entry("Plymouth", 3), entry("Exeter", 2));
+        assertThat(result.facets().get("lengthKm"))
+            .containsExactly(entry("0-5", 1), entry("5-10", 1), entry("10-20", 1), entry("20+", 1));
+        assertThat(result.facets().get("hasAccessibilityNotes")).containsExactly(entry("true", 2), entry("false", 3));
+    }
+
+    @Test
+    void facetCountsIgnoreTheirOwnFilter() {
+        FacetedTrails<Trail> result = index.search(query(List.of("EASY"), null, null, null, null), null, 10);
+
+        assertThat(result.total()).isEqualTo(3);
+        assertThat(ids(result)).containsExactly(5, 2, 1);
+        assertThat(result.facets().get("difficulty"))
+            .containsExactly(entry("Easy", 3), entry("Hard", 1), entry("Moderate", 1));
+        assertThat(result.facets().get("routeType")).containsExactly(entry("Loop", 2), entry("Out and Back", 1));
+    }
+
+    @Test
+    void eachFacetAppliesEveryOtherFilter() {
+        FacetedTrails<Trail> result = index.search(query(List.of("Easy"), List.of("Loop"), null, null, null), null, 10);
+
+        assertThat(ids(result)).containsExactly(5, 1);
+        assertThat(result.facets().get("difficulty"))
+            .containsExactly(entry("Easy", 2), entry("Hard", 1), entry("Moderate", 1));
+        assertThat(result.facets().get("routeType")).containsExactly(entry("Loop", 2), entry("Out and Back", 1));
+        assertThat(result.facets().get("nearestTown")).containsExactly(entry("Exeter", 1), entry("Plymouth", 1));
+    }
+
+    @Test
+    void lengthBoundsAreInclusiveAndSkipUnknownLengths() {
+        index.put(trail(6, "Easy", "Loop", "Exeter", 5.0, null));
+        index.put(trail(7, "Easy", "Loop", "Exeter", 10.0, null));
+
+        FacetedTrails<Trail> result = index.search(query(null, null, 5.0, 10.0, null), null, 10);
+
+        assertThat(ids(result)).containsExactly(7, 6, 2);
+        // Bucket upper bounds are exclusive: 5km counts as 5-10 and 10km as 10-20
+        assertThat(result.facets().get("lengthKm"))
+            .containsExactly(entry("0-5", 1), entry("5-10", 2), entry("10-20", 2), entry("20+", 1));
+    }
+
+    @Test
+    void accessibilityNotesFilterIgnoresBlankNotes() {
+        FacetedTrails<Trail> result = index.search(query(null, null, null, null, false), null, 10);
+
+        assertThat(ids(result)).containsExactly(5, 3, 2);
+        assertThat(result.facets().get("hasAccessibilityNotes")).containsExactly(entry("true", 2), entry("false", 3));
+    }
+
+    @Test
+    void textResultsKeepTheirRankAndNarrowTheCounts() {
+        List<Trail> ranked = List.of(trail(3, null, null, null, null, null), trail(99, null, null, null, null, null),
+            trail(1, null, null, null, null, null), trail(4, null, null, null, null, null));
+
+        FacetedTrails<Trail> result = index.search(NO_FILTERS, ranked, 2);
+
+        assertThat(result.total()).isEqualTo(3);
+        assertThat(ids(result)).containsExactly(3, 1);
+        assertThat(result.facets().get("nearestTown")).containsExactly(entry("Plymouth", 3));
+    }
+
+    @Test
+    void privateTrailsLeaveTheCountsAndFreedSlotsAreReused() {
+        Trail hidden = trail(4, "Hard", "Loop", "Plymouth", 25.0, "Stiles");
+        hidden.setIsPublic(false);
+        index.put(hidden);
+        index.put(trail(8, "Hard", "Linear", "Totnes", 1.0, null));
+
+        FacetedTrails<Trail> result = index.search(NO_FILTERS, null, 10);
+
+        assertThat(index.size()).isEqualTo(5);
+        assertThat(ids(result)).containsExactly(8, 5, 3, 2, 1);
+        assertThat(result.facets().get("routeType")).containsExactly(entry("Loop", 3),
+            entry("Linear", 1), entry("Out and Back", 1));
+        assertThat(result.facets().get("nearestTown")).doesNotContainKey("plymouth")
+            .containsEntry("Plymouth", 2).containsEntry("Totnes", 1);
+    }
+
+    @Test
+    void newestHitsAreCappedAtTheLimit() {
+        FacetedTrails<Trail> result = index.search(NO_FILTERS, null, 2);
+
+        assertThat(result.total()).isEqualTo(5);
+        assertThat(ids(result)).containsExactly(5, 4);
+    }
+
+    private static List<Integer> ids(FacetedTrails<Trail> result) {
+        return result.trails().stream().map(Trail::getTrailId).toList();
+    }
+
+    private static TrailFacetQuery query(List<String> difficulties, List<String> routeTypes,
+                                         Double minKm, Double maxKm, Boolean hasNotes) {
+        return new TrailFacetQuery(null, difficulties, routeTypes, null, minKm, maxKm, null, null, hasNotes);
+    }
+
+    private static Trail trail(int trailId, String difficulty, String routeType, String town,
+                               Double lengthKm, String notes) {
+        Trail trail = new Trail();
+        trail.setTrailId(trailId);
+        trail.setIsPublic(true);
+        trail.setDifficulty(difficulty);
+        trail.setRouteType(routeType);
+        trail.setNearestTown(town);
+        trail.setLengthKm(lengthKm != null ? BigDecimal.valueOf(lengthKm) : null);
+        trail.setAccessibilityNotes(notes);
+        trail.setCreatedDate(LocalDateTime.of(2025, 1, 1, 0, 0).plusDays(trailId));
+        return trail;
+    }
+}
@@ -0,0 +1,121 @@
+package com.university.trailservice.service;
+
+import com.university.trailservice.dto.NearbyTrail;
+import com.university.trailservice.model.Trail;
+import com.university.trailservice.model.TrailLocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TrailGeoIndexTest {
+
+    // Plymouth Hoe
+    private static final double LAT = 50.3640;
+    private static final double LON = -4.1420;
+
+    private TrailGeoIndex index;
+
+    @BeforeEach
+    void createIndex() {
+        index = new TrailGeoIndex();
+        index.rebuild(List.of());
+    }
+
+    @Test
+    void pointExactlyOnTheRadiusIsIncluded() {
+        index.put(location(1, LAT + 0.05, LON));
+        double distance = TrailGeoIndex.distanceKm(LAT, LON, LAT + 0.05, LON);
+
+        assertThat(index.within(LAT, LON, distance, 10)).hasSize(1);
+        assertThat(index.within(LAT, LON, distance - 0.001, 10)).isEmpty();
+    }
+
+    @Test
+    void findsPointsInNeighbouringCells() {
+        // 50.3999 and 50.4001 fall either side of a 0.1 degree cell edge, as do -4.1999 and -4.2001
+        index.put(location(1, 50.3999, -4.1999));
+        index.put(location(2, 50.4001, -4.2001));
+
+        assertThat(index.within(50.4001, -4.1999, 0.1, 10))
+            .extracting(result -> result.trail().getTrailId())
+            .containsExactlyInAnyOrder(1, 2);
+    }
+
+    @Test
+    void radiusQueryWrapsAcrossTheAntimeridian() {
+        index.put(location(1, 0.0, -179.99));
+        index.put(location(2, 0.0, 179.5));
+
+        List<NearbyTrail> results = index.within(0.0, 179.99, 5, 10);
+
+        assertThat(results).extracting(result -> result.trail().getTrailId()).containsExactly(1);
+        assertThat(results.get(0).distanceKm()).isCloseTo(2.224, within(0.001));
+    }
+
+    @Test
+    void radiusQueryNearAPoleCoversEveryLongitude() {
+        index.put(location(1, 89.99, 180.0));
+
+        // Across the pole: 0.02 degrees of latitude, about 2.2 km
+        assertThat(index.within(89.99, 0.0, 3, 10)).hasSize(1);
+    }
+
+    @Test
+    void radiusLargerThanTheEarthReturnsEveryTrail() {
+        index.put(location(1, LAT, LON));
+        index.put(location(2, -33.87, 151.21));
+
+        assertThat(index.within(LAT, LON, TrailGeoIndex.MAX_DISTANCE_KM * 2, 10)).hasSize(2);
+    }
+
+    @Test
+    void resultsAreNearestFirstWithTiesByTrailIdAndLimited() {
+        index.put(location(3, LAT + 0.01, LON));
+        index.put(location(2, LAT - 0.01, LON));
+        index.put(location(1, LAT + 0.02, LON));
+
+        assertThat(index.within(LAT, LON, 10, 2))
+            .extracting(result -> result.trail().getTrailId())
+            .containsExactly(2, 3);
+    }
+
+    @Test
+    void nearestWidensTheRadiusUntilEnoughTrailsAreFound() {
+        index.put(location(1, LAT, LON + 0.001));
+        index.put(location(2, 51.5074, -0.1278));
+
+        List<NearbyTrail> results = index.nearest(LAT, LON, 2);
+
+        assertThat(results).extracting(result -> result.trail().getTrailId()).containsExactly(1, 2);
+        assertThat(results.get(1).distanceKm()).isGreaterThan(250);
+    }
+
+    @Test
+    void nearestReturnsFewerWhenTheIndexIsSmall() {
+        index.put(location(1, LAT, LON));
+
+        assertThat(index.nearest(-LAT, -LON, 5)).hasSize(1);
+    }
+
+    @Test
+    void putMovesATrailAndRemoveDropsIt() {
+        index.put(location(1, LAT, LON));
+        index.put(location(1, 51.5074, -0.1278));
+
+        assertThat(index.within(LAT, LON, 5, 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+
+        index.remove(1);
+        assertThat(index.within(51.5074, -0.1278, 5, 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    private static TrailLocation location(int trailId, double latitude, double longitude) {
+        Trail trail = new Trail();
+        trail.setTrailId(trailId);
+        return new TrailLocation(trail, latitude, longitude);
+    }
+}
@@ -0,0 +1,55 @@
+package com.university.trailservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrailListCacheTest {
+
+    private static final TrailListCache.Key KEY = new TrailListCache.Key(null, null, null);
+
+    private final TrailListCache cache = new TrailListCache(1_000_000, 600, new SimpleMeterRegistry());
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void gzipEncodingInflatesToTheIdentityBody() throws IOException {
+        TrailListCache.Page page = cache.get(KEY, 1, () -> load("{\"trails\":[]}"));
+
+        assertThat(page.gzip()).isNotEqualTo(page.json());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(page.gzip()))) {
+            assertThat(in.readAllBytes()).isEqualTo(page.json());
+        }
+    }
+
+    @Test
+    void pageIsServedWhileTheCollectionIsUnchanged() {
+        TrailListCache.Page first = cache.get(KEY, 1, () -> load("a"));
+        TrailListCache.Page second = cache.get(KEY, 1, () -> load("b"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void pageIsRebuiltWhenTheChangeSequenceMoves() {
+        cache.get(KEY, 1, () -> load("a"));
+
+        TrailListCache.Page page = cache.get(KEY, 2, () -> load("b"));
+
+        assertThat(new String(page.json(), StandardCharsets.UTF_8)).isEqualTo("b");
+        assertThat(page.changeSequence()).isEqualTo(2);
+        assertThat(loads).hasValue(2);
+    }
+
+    private TrailListCache.Serialized load(String json) {
+        loads.incrementAndGet();
+        return new TrailListCache.Serialized(json.getBytes(StandardCharsets.UTF_8), null);
+    }
+}
@@ -0,0 +1,103 @@
+package com.university.trailservice.service;
+
+import com.university.trailservice.model.Trail;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrailSearchIndexTest {
+
+    private TrailSearchIndex index;
+
+    @BeforeEach
+    void buildIndex() {
+        index = new TrailSearchIndex();
+        index.rebuild(List.of(
+            trail(1, "Dartmoor Circular", "Princetown", "A loop over open ground", null, "Hard", 1),
+            trail(2, "Plym Valley Path", "Plymouth", "Follows the river", "Crosses the moor at the end", "Easy", 2),
+            trail(3, "Moor Walk", "Yelverton", "Short walk", null, "Easy", 3),
+            trail(4, "Coast Path", "Plymouth", "Sea views", null, "Moderate", 4)
+        ));
+    }
+
+    @Test
+    void nameMatchOutranksDescriptionMatch() {
+        List<Trail> results = index.search("moor", null);
+
+        // Trail 3 names the word, trail 1 contains it, trail 2 only mentions it in the description
+        assertThat(results).extracting(Trail::getTrailId).containsExactly(3, 1, 2);
+    }
+
+    @Test
+    void expandsInfixesFromThreeCharacters() {
+        assertThat(index.search("artm", null)).extracting(Trail::getTrailId).containsExactly(1);
+        // Two characters only match word prefixes
+        assertThat(index.search("oo", null)).isEmpty();
+        assertThat(index.search("pl", null)).extracting(Trail::getTrailId).containsExactlyInAnyOrder(2, 4);
+    }
+
+    @Test
+    void exactWordOutranksPrefixExpansion() {
+        index.put(trail(5, "Plymouth Hoe", "Plymouth", null, null, "Easy", 5));
+
+        List<Trail> results = index.search("plym", null);
+
+        // "plym" is a whole word of trail 2; trail 5 only has words starting with it
+        assertThat(results.get(0).getTrailId()).isEqualTo(2);
+        assertThat(results).extracting(Trail::getTrailId).contains(4, 5);
+    }
+
+    @Test
+    void everyQueryWordMustMatchInAnyOrder() {
+        assertThat(index.search("walk moor", null)).extracting(Trail::getTrailId).containsExactly(3);
+        assertThat(index.search("moor sea", null)).isEmpty();
+    }
+
+    @Test
+    void filtersByDifficultyCaseInsensitively() {
+        assertThat(index.search("moor", "easy")).extracting(Trail::getTrailId).containsExactly(3, 2);
+    }
+
+    @Test
+    void emptyQueryListsNewestFirst() {
+        assertThat(index.search("", null)).extracting(Trail::getTrailId).containsExactly(4, 3, 2, 1);
+        assertThat(index.search(null, "Easy")).extracting(Trail::getTrailId).containsExactly(3, 2);
+    }
+
+    @Test
+    void updatesReplaceTermsAndPrivateTrailsLeave() {
+        index.put(trail(3, "Tor Walk", "Yelverton", "Short walk", null, "Easy", 3));
+        Trail hidden = trail(1, "Dartmoor Circular", "Princetown", null, null, "Hard", 1);
+        hidden.setIsPublic(false);
+        index.put(hidden);
+
+        assertThat(index.search("moor", null)).extracting(Trail::getTrailId).containsExactly(2);
+        assertThat(index.search("tor", null)).extracting(Trail::getTrailId).containsExactly(3);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void removedTermsNoLongerExpand() {
+        index.remove(1);
+
+        assertThat(index.search("artm", null)).isEmpty();
+    }
+
+    private static Trail trail(int id, String name, String town, String summary, String description,
+                               String difficulty, int minute) {
+        Trail trail = new Trail();
+        trail.setTrailId(id);
+        trail.setTrailName(name);
+        trail.setNearestTown(town);
+        trail.setSummary(summary);
+        trail.setTrailDescription(description);
+        trail.setDifficulty(difficulty);
+        trail.setCreatedDate(LocalDateTime.of(2025, 1, 1, 0, minute));
+        trail.setIsPublic(true);
+        trail.setIsDeleted(false);
+        return trail;
+    }
+}
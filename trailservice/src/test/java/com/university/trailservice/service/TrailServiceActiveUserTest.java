@@ -0,0 +1,45 @@
+package com.university.trailservice.service;
+
+import com.university.trailservice.dto.TrailRequest;
+import com.university.trailservice.model.Trail;
+import com.university.trailservice.repository.ActiveUser;
+import com.university.trailservice.repository.TrailRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TrailServiceActiveUserTest {
+
+    @Mock
+    private TrailRepository trailRepository;
+
+    @Mock
+    private ActiveUserCache activeUserCache;
+
+    @InjectMocks
+    private TrailService trailService;
+
+    @Test
+    void refusedInsertEvictsTheCachedUser() {
+        // Cached as active, but deactivated since: sp_InsertTrail refuses the row
+        when(activeUserCache.require(7)).thenReturn(new ActiveUser(7, "ada"));
+        when(trailRepository.createTrail(any(Trail.class)))
+            .thenThrow(new DataIntegrityViolationException("Invalid or inactive user"));
+        TrailRequest request = new TrailRequest();
+        request.setTrailName("Lakeside Loop");
+
+        assertThatThrownBy(() -> trailService.createTrail(request, 7))
+            .isInstanceOf(DataIntegrityViolationException.class);
+
+        verify(activeUserCache).invalidate(7);
+    }
+}
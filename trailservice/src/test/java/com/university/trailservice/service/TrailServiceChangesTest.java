@@ -0,0 +1,101 @@
+package com.university.trailservice.service;
+
+import com.university.trailservice.dto.TrailChanges;
+import com.university.trailservice.model.Trail;
+import com.university.trailservice.repository.TrailChange;
+import com.university.trailservice.repository.TrailRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TrailServiceChangesTest {
+
+    @Mock
+    private TrailRepository trailRepository;
+
+    @InjectMocks
+    private TrailService trailService;
+
+    @BeforeEach
+    void setLimits() {
+        ReflectionTestUtils.setField(trailService, "maxChangeRows", 2);
+    }
+
+    @Test
+    void readsOnlyUpToTheHorizonAndHandsItBackAsTheNextToken() {
+        when(trailRepository.findChangeHorizon()).thenReturn(20L);
+        when(trailRepository.findChanges(10, 20, 3)).thenReturn(List.of(change(1, true, false, 15)));
+
+        TrailChanges changes = trailService.getChangesSince("10");
+
+        assertThat(changes.changed()).extracting(Trail::getTrailId).containsExactly(1);
+        assertThat(changes.nextToken()).isEqualTo("20");
+        assertThat(changes.hasMore()).isFalse();
+    }
+
+    @Test
+    void tokenAtOrPastTheHorizonReturnsNothingAndKeepsTheToken() {
+        // An in-flight write below the horizon must not be skipped, so the token never runs ahead
+        when(trailRepository.findChangeHorizon()).thenReturn(20L);
+
+        TrailChanges changes = trailService.getChangesSince("20");
+
+        assertThat(changes.changed()).isEmpty();
+        assertThat(changes.removed()).isEmpty();
+        assertThat(changes.nextToken()).isEqualTo("20");
+        verify(trailRepository, never()).findChanges(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void fullBatchStopsAtTheLastReturnedChange() {
+        when(trailRepository.findChangeHorizon()).thenReturn(100L);
+        when(trailRepository.findChanges(0, 100, 3)).thenReturn(List.of(
+            change(1, true, false, 5), change(2, true, false, 7), change(3, true, false, 9)));
+
+        TrailChanges changes = trailService.getChangesSince(null);
+
+        assertThat(changes.changed()).extracting(Trail::getTrailId).containsExactly(1, 2);
+        assertThat(changes.nextToken()).isEqualTo("7");
+        assertThat(changes.hasMore()).isTrue();
+    }
+
+    @Test
+    void privateAndDeletedTrailsAreReportedAsRemoved() {
+        when(trailRepository.findChangeHorizon()).thenReturn(9L);
+        when(trailRepository.findChanges(0, 9, 3)).thenReturn(List.of(
+            change(1, false, false, 5), change(2, true, true, 7)));
+
+        TrailChanges changes = trailService.getChangesSince("");
+
+        assertThat(changes.changed()).isEmpty();
+        assertThat(changes.removed()).containsExactly(1, 2);
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThatThrownBy(() -> trailService.getChangesSince("-1")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> trailService.getChangesSince("abc")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static TrailChange change(int trailId, boolean isPublic, boolean isDeleted, long version) {
+        Trail trail = new Trail();
+        trail.setTrailId(trailId);
+        trail.setIsPublic(isPublic);
+        trail.setIsDeleted(isDeleted);
+        return new TrailChange(trail, version);
+    }
+}
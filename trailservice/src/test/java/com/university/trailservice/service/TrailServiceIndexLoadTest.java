@@ -0,0 +1,163 @@
+package com.university.trailservice.service;
+
+import com.university.trailservice.dto.FacetedTrails;
+import com.university.trailservice.dto.NearbyTrail;
+import com.university.trailservice.dto.TrailFacetQuery;
+import com.university.trailservice.dto.TrailSuggestion;
+import com.university.trailservice.model.Trail;
+import com.university.trailservice.model.TrailLocation;
+import com.university.trailservice.repository.TrailPopularity;
+import com.university.trailservice.repository.TrailRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Requests arriving before an in-memory index is ready share one load
+ */
+@ExtendWith(MockitoExtension.class)
+class TrailServiceIndexLoadTest {
+
+    private static final int CALLERS = 8;
+
+    @Mock
+    private TrailRepository trailRepository;
+
+    @Spy
+    private TrailSuggestIndex suggestIndex = new TrailSuggestIndex(new SimpleMeterRegistry());
+
+    @Spy
+    private TrailGeoIndex geoIndex = new TrailGeoIndex();
+
+    @Spy
+    private TrailFacetIndex facetIndex = new TrailFacetIndex();
+
+    @InjectMocks
+    private TrailService trailService;
+
+    private final CountDownLatch loading = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(trailService, "maxSuggestLimit", 10);
+        ReflectionTestUtils.setField(trailService, "maxNearbyLimit", 10);
+        ReflectionTestUtils.setField(trailService, "maxFacetLimit", 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentSuggestionsShareOneLoad() throws Exception {
+        when(trailRepository.findAllPublicTrailPopularity()).thenAnswer(invocation -> slowLoad(
+            List.of(new TrailPopularity(1, "Lakeside Loop", "Keswick", 4, 1))));
+
+        List<Future<List<TrailSuggestion>>> results = callConcurrently(
+            () -> trailService.suggest("lake", 5), "suggestLoadLock");
+
+        for (Future<List<TrailSuggestion>> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS))
+                .extracting(TrailSuggestion::text).containsExactly("Lakeside Loop");
+        }
+        verify(trailRepository, times(1)).findAllPublicTrailPopularity();
+    }
+
+    @Test
+    void concurrentNearbyQueriesShareOneLoad() throws Exception {
+        Trail trail = new Trail();
+        trail.setTrailId(1);
+        when(trailRepository.findAllPublicTrailLocations()).thenAnswer(invocation -> slowLoad(
+            List.of(new TrailLocation(trail, 54.6, -3.1))));
+
+        List<Future<List<NearbyTrail>>> results = callConcurrently(
+            () -> trailService.getNearbyTrails(54.6, -3.1, null, 5), "geoLoadLock");
+
+        for (Future<List<NearbyTrail>> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).hasSize(1);
+        }
+        verify(trailRepository, times(1)).findAllPublicTrailLocations();
+    }
+
+    @Test
+    void concurrentFacetedSearchesShareOneLoad() throws Exception {
+        Trail trail = new Trail();
+        trail.setTrailId(1);
+        trail.setIsPublic(true);
+        when(trailRepository.findAllPublicTrails()).thenAnswer(invocation -> slowLoad(List.of(trail)));
+        TrailFacetQuery query = new TrailFacetQuery(null, null, null, null, null, null, null, null, null);
+
+        List<Future<FacetedTrails<Trail>>> results = callConcurrently(
+            () -> trailService.facetedSearch(query, 5), "facetLoadLock");
+
+        for (Future<FacetedTrails<Trail>> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS).total()).isEqualTo(1);
+        }
+        verify(trailRepository, times(1)).findAllPublicTrails();
+    }
+
+    @Test
+    void failedLoadIsRetriedByTheNextRequest() {
+        when(trailRepository.findAllPublicTrailPopularity())
+            .thenThrow(new QueryTimeoutException("timed out"))
+            .thenReturn(List.of(new TrailPopularity(1, "Lakeside Loop", "Keswick", 4, 1)));
+
+        assertThatThrownBy(() -> trailService.suggest("lake", 5)).isInstanceOf(QueryTimeoutException.class);
+
+        assertThat(trailService.suggest("lake", 5)).hasSize(1);
+        verify(trailRepository, times(2)).findAllPublicTrailPopularity();
+    }
+
+    private <T> T slowLoad(T rows) throws InterruptedException {
+        loading.countDown();
+        assertThat(release.await(5, TimeUnit.SECONDS)).isTrue();
+        return rows;
+    }
+
+    /**
+     * Start every caller, hold the first load until the rest are waiting on the lock, then let it finish
+     */
+    private <T> List<Future<T>> callConcurrently(Callable<T> call, String lockField) throws InterruptedException {
+        List<Future<T>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(callers.submit(call));
+        }
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        ReentrantLock lock = (ReentrantLock) ReflectionTestUtils.getField(trailService, lockField);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (lock.getQueueLength() < CALLERS - 1) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+        release.countDown();
+        return results;
+    }
+}
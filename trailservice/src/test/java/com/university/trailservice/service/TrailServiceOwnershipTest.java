@@ -0,0 +1,135 @@
+package com.university.trailservice.service;
+
+import com.university.trailservice.dto.TrailRequest;
+import com.university.trailservice.model.Trail;
+import com.university.trailservice.repository.TrailRepository;
+import com.university.trailservice.repository.TrailUpdate;
+import com.university.trailservice.repository.TrailWriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Update and delete make one repository call; its result code decides the outcome
+ */
+@ExtendWith(MockitoExtension.class)
+class TrailServiceOwnershipTest {
+
+    @Mock
+    private TrailRepository trailRepository;
+
+    @Mock
+    private TrailSearchIndex searchIndex;
+
+    @Mock
+    private TrailGeoIndex geoIndex;
+
+    @Mock
+    private TrailFacetIndex facetIndex;
+
+    @Mock
+    private TrailSuggestIndex suggestIndex;
+
+    @Mock
+    private TrailCache trailCache;
+
+    @Mock
+    private TrailListCache trailListCache;
+
+    @Mock
+    private AuditLogWriter auditLogWriter;
+
+    @Spy
+    private ReadRouting readRouting = new ReadRouting("", 5000, new SimpleMeterRegistry());
+
+    @InjectMocks
+    private TrailService trailService;
+
+    @Test
+    void updateByAnotherUserIsRefusedWithoutSideEffects() {
+        when(trailRepository.updateTrail(eq(5), eq(2), any(Trail.class)))
+            .thenReturn(TrailUpdate.failed(TrailWriteResult.NOT_OWNER));
+
+        assertThatThrownBy(() -> trailService.updateTrail(5, request("Hijacked"), 2))
+            .hasMessage("Unauthorized: You can only update your own trails");
+
+        verifyNoMoreInteractions(trailRepository);
+        verifyNoInteractions(auditLogWriter, trailCache, trailListCache, searchIndex);
+    }
+
+    @Test
+    void updateOfAMissingTrailIsNotFound() {
+        when(trailRepository.updateTrail(eq(5), eq(1), any(Trail.class)))
+            .thenReturn(TrailUpdate.failed(TrailWriteResult.NOT_FOUND));
+
+        assertThatThrownBy(() -> trailService.updateTrail(5, request("Ghost"), 1)).hasMessage("Trail not found");
+        verifyNoMoreInteractions(trailRepository);
+    }
+
+    @Test
+    void ownerUpdateIsOneRoundTrip() {
+        Trail before = new Trail();
+        before.setTrailName("Old name");
+        before.setIsPublic(true);
+        before.setCreatedDate(LocalDateTime.of(2024, 5, 1, 8, 0));
+        when(trailRepository.updateTrail(eq(5), eq(1), any(Trail.class)))
+            .thenReturn(new TrailUpdate(TrailWriteResult.SUCCESS, before, 0, 0, null, null));
+
+        assertThat(trailService.updateTrail(5, request("New name"), 1)).isTrue();
+
+        verifyNoMoreInteractions(trailRepository);
+        verify(trailCache).invalidate(5);
+    }
+
+    @Test
+    void deleteByAnotherUserIsRefusedWithoutSideEffects() {
+        when(trailRepository.deleteTrail(5, 2)).thenReturn(TrailWriteResult.NOT_OWNER);
+
+        assertThatThrownBy(() -> trailService.deleteTrail(5, 2))
+            .hasMessage("Unauthorized: You can only delete your own trails");
+
+        verifyNoMoreInteractions(trailRepository);
+        verifyNoInteractions(auditLogWriter, trailCache, trailListCache, searchIndex);
+    }
+
+    @Test
+    void deleteOfAMissingTrailIsNotFound() {
+        when(trailRepository.deleteTrail(5, 1)).thenReturn(TrailWriteResult.NOT_FOUND);
+
+        assertThatThrownBy(() -> trailService.deleteTrail(5, 1)).hasMessage("Trail not found");
+    }
+
+    @Test
+    void ownerDeleteRemovesTheTrailFromEveryIndex() {
+        when(trailRepository.deleteTrail(5, 1)).thenReturn(TrailWriteResult.SUCCESS);
+
+        assertThat(trailService.deleteTrail(5, 1)).isTrue();
+
+        verifyNoMoreInteractions(trailRepository);
+        verify(searchIndex).remove(5);
+        verify(facetIndex).remove(5);
+        verify(suggestIndex).remove(5);
+        verify(geoIndex).remove(5);
+    }
+
+    private static TrailRequest request(String name) {
+        TrailRequest request = new TrailRequest();
+        request.setTrailName(name);
+        request.setIsPublic(true);
+        return request;
+    }
+}
@@ -0,0 +1,104 @@
+package com.university.trailservice.service;
+
+import com.university.trailservice.dto.TrailCursor;
+import com.university.trailservice.dto.TrailPage;
+import com.university.trailservice.model.Trail;
+import com.university.trailservice.repository.TrailRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TrailServicePageTest {
+
+    @Mock
+    private TrailRepository trailRepository;
+
+    // No replicas configured, so every read runs directly
+    @Spy
+    private ReadRouting readRouting = new ReadRouting("", 5000, new SimpleMeterRegistry());
+
+    @InjectMocks
+    private TrailService trailService;
+
+    @BeforeEach
+    void setLimits() {
+        ReflectionTestUtils.setField(trailService, "defaultPageLimit", 50);
+        ReflectionTestUtils.setField(trailService, "maxPageLimit", 500);
+    }
+
+    @Test
+    void fullPageWithAnExtraRowReturnsCursorAfterTheLastShownTrail() {
+        when(trailRepository.findPublicPage(null, 3, null)).thenReturn(trails(3));
+
+        TrailPage page = trailService.getTrailPage(null, 2, null);
+
+        assertThat(page.trails()).extracting(Trail::getTrailId).containsExactly(3, 2);
+        assertThat(page.nextCursor()).isEqualTo(TrailCursor.after(page.trails().get(1)));
+    }
+
+    @Test
+    void exactlyOnePageLeftHasNoNextCursor() {
+        when(trailRepository.findPublicPage(null, 3, null)).thenReturn(trails(2));
+
+        TrailPage page = trailService.getTrailPage(null, 2, null);
+
+        assertThat(page.trails()).hasSize(2);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void cursorIsPassedThroughAndLimitIsCapped() {
+        TrailCursor after = new TrailCursor(LocalDateTime.of(2025, 1, 1, 0, 0), 10);
+        when(trailRepository.findPublicPage(eq(after), eq(501), any())).thenReturn(List.of());
+
+        TrailPage page = trailService.getTrailPage(after, 10_000, null);
+
+        assertThat(page.trails()).isEmpty();
+        assertThat(page.nextCursor()).isNull();
+        verify(trailRepository).findPublicPage(after, 501, null);
+    }
+
+    @Test
+    void defaultLimitAppliesWhenNoneIsGiven() {
+        when(trailRepository.findPublicPage(null, 51, null)).thenReturn(List.of());
+
+        trailService.getTrailPage(null, null, null);
+
+        verify(trailRepository).findPublicPage(null, 51, null);
+    }
+
+    @Test
+    void rejectsLimitBelowOne() {
+        assertThatThrownBy(() -> trailService.getTrailPage(null, 0, null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Newest first: IDs count down, one minute apart
+    private static List<Trail> trails(int count) {
+        List<Trail> trails = new ArrayList<>();
+        for (int i = count; i >= 1; i--) {
+            Trail trail = new Trail();
+            trail.setTrailId(i);
+            trail.setCreatedDate(LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(i));
+            trails.add(trail);
+        }
+        return trails;
+    }
+}
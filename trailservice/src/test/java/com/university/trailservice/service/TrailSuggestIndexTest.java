@@ -0,0 +1,107 @@
+package com.university.trailservice.service;
+
+import com.university.trailservice.dto.TrailSuggestion;
+import com.university.trailservice.repository.TrailPopularity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrailSuggestIndexTest {
+
+    private final TrailSuggestIndex index = new TrailSuggestIndex(new SimpleMeterRegistry());
+
+    @BeforeEach
+    void load() {
+        // Weights are 1 + ratingSum: Lake District Ridge 41, Lakeside Loop 21, Laker's Way 6, Lantern Hill 3
+        index.rebuild(List.of(
+            new TrailPopularity(1, "Lakeside Loop", "Keswick", 20, 5),
+            new TrailPopularity(2, "Lake District Ridge", "Ambleside", 40, 9),
+            new TrailPopularity(3, "Laker's Way", "Keswick", 5, 1),
+            new TrailPopularity(4, "Lantern Hill", "Lancaster", 2, 1)));
+    }
+
+    @Test
+    void prefixReturnsMatchesHighestWeightFirst() {
+        assertThat(texts(index.suggest("lake", 10)))
+            .containsExactly("Lake District Ridge", "Lakeside Loop", "Laker's Way");
+    }
+
+    @Test
+    void prefixEndingInsideAnEdgeLabelStillMatches() {
+        // "lantern hill" and "lancaster" share the edge "lan", so "lant" ends inside the next label
+        assertThat(texts(index.suggest("lant", 10))).containsExactly("Lantern Hill");
+        assertThat(texts(index.suggest("lakes", 10))).containsExactly("Lakeside Loop");
+        assertThat(index.suggest("lakez", 10)).isEmpty();
+    }
+
+    @Test
+    void topKStopsAtTheLimit() {
+        assertThat(texts(index.suggest("la", 2))).containsExactly("Lake District Ridge", "Lakeside Loop");
+    }
+
+    @Test
+    void prefixIsCaseAndWhitespaceInsensitive() {
+        List<TrailSuggestion> suggestions = index.suggest("  LAKE   d", 10);
+
+        assertThat(suggestions).containsExactly(
+            new TrailSuggestion("Lake District Ridge", TrailSuggestion.Type.TRAIL, 2));
+    }
+
+    @Test
+    void townsWeighTheTotalOfTheirTrails() {
+        // Keswick weighs 21 + 6 = 27, just above the new trail (26)
+        index.put(new TrailPopularity(5, "Keswick Fell", "Penrith", 25, 5));
+
+        assertThat(index.suggest("kes", 10)).containsExactly(
+            new TrailSuggestion("Keswick", TrailSuggestion.Type.TOWN, null),
+            new TrailSuggestion("Keswick Fell", TrailSuggestion.Type.TRAIL, 5));
+    }
+
+    @Test
+    void loweringAWeightReordersSuggestions() {
+        index.put(new TrailPopularity(2, "Lake District Ridge", "Ambleside", 0, 0));
+
+        assertThat(texts(index.suggest("lake", 10)))
+            .containsExactly("Lakeside Loop", "Laker's Way", "Lake District Ridge");
+    }
+
+    @Test
+    void removingTheLastTrailOfATownRemovesTheTown() {
+        index.remove(4);
+
+        assertThat(index.suggest("lan", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(5);
+    }
+
+    @Test
+    void renamedTrailIsOnlyFoundUnderItsNewName() {
+        index.put(new TrailPopularity(3, "Wastwater Walk", "Keswick", 5, 1));
+
+        assertThat(texts(index.suggest("lake", 10))).containsExactly("Lake District Ridge", "Lakeside Loop");
+        assertThat(texts(index.suggest("wast", 10))).containsExactly("Wastwater Walk");
+    }
+
+    @Test
+    void suggestionsSurviveCompactionAfterManyRemovals() {
+        for (int i = 0; i < 1200; i++) {
+            index.put(new TrailPopularity(100 + i, "Temporary " + i, null, 0, 0));
+            index.remove(100 + i);
+        }
+
+        assertThat(index.suggest("temp", 10)).isEmpty();
+        assertThat(texts(index.suggest("lake", 10)))
+            .containsExactly("Lake District Ridge", "Lakeside Loop", "Laker's Way");
+    }
+
+    @Test
+    void blankPrefixSuggestsNothing() {
+        assertThat(index.suggest("   ", 10)).isEmpty();
+    }
+
+    private static List<String> texts(List<TrailSuggestion> suggestions) {
+        return suggestions.stream().map(TrailSuggestion::text).toList();
+    }
+}